@@ -0,0 +1,53 @@
+package com.midvision.rapiddeploy.plugin.jenkins;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.midvision.rapiddeploy.plugin.jenkins.benchmark.BenchmarkPayloads;
+
+/**
+ * Configuration page helpers of {@link RapidDeployConnectorProxy}: the job plan sorting and the deployment package table.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConnectorProxyBenchmark {
+
+    @Param({ "100", "1000", "10000" })
+    public int size;
+
+    private Map<String, String> jobPlans;
+    private List<String> packageNames;
+
+    @Setup
+    public void setUp() {
+        jobPlans = BenchmarkPayloads.jobPlanMap(size);
+        packageNames = BenchmarkPayloads.packageNames(size);
+    }
+
+    @Benchmark
+    public Map<String, String> sortByJobPlanName() {
+        return RapidDeployConnectorProxy.sortByJobPlanName(jobPlans);
+    }
+
+    @Benchmark
+    public String createPackagesTable() {
+        return RapidDeployConnectorProxy.createPackagesTable(packageNames);
+    }
+}
@@ -0,0 +1,73 @@
+package com.midvision.rapiddeploy.plugin.jenkins;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.midvision.rapiddeploy.plugin.jenkins.benchmark.NullLogger;
+
+/**
+ * Job parameter handling of the build steps: the <code>@@KEY@@</code> data dictionary scan done when the build environment is captured, and
+ * the replacement of the <code>${xxx}</code> placeholders of a step field.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParameterResolverBenchmark {
+
+    /** Number of environment variables, one in ten being a data dictionary item **/
+    @Param({ "100", "1000" })
+    public int environmentSize;
+
+    /** Number of placeholders in the resolved value **/
+    @Param({ "1", "10" })
+    public int placeholders;
+
+    private Map<String, String> environment;
+    private ParameterResolver resolver;
+    private String value;
+
+    @Setup
+    public void setUp() {
+        environment = new HashMap<String, String>();
+        for (int i = 0; i < environmentSize; i++) {
+            if (i % 10 == 0) {
+                environment.put("@@DICTIONARY_ITEM_" + i + "@@", "dictionary value " + i);
+            } else {
+                environment.put("JOB_PARAMETER_" + i, "/var/lib/jenkins/workspace/job-" + i);
+            }
+        }
+        resolver = new ParameterResolver(environment);
+        final StringBuilder builder = new StringBuilder("SERVER");
+        for (int i = 0; i < placeholders; i++) {
+            builder.append(".${JOB_PARAMETER_").append(i * 10 + 1).append('}');
+        }
+        // An unknown parameter is left as it is
+        value = builder.append(".${UNKNOWN}").toString();
+    }
+
+    @Benchmark
+    public Map<String, String> dataDictionaryScan() {
+        return new ParameterResolver(environment).getDataDictionary();
+    }
+
+    @Benchmark
+    public String replacePlaceholders() {
+        return resolver.resolve(value, NullLogger.INSTANCE);
+    }
+}
@@ -0,0 +1,115 @@
+package com.midvision.rapiddeploy.plugin.jenkins.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Payloads used by the benchmarks. They are generated with the given number of entries, unless the <code>rapiddeploy.benchmark.payloads</code>
+ * system property points to a directory holding responses captured from a RapidDeploy server: <code>job-request.xml</code>,
+ * <code>job-details.xml</code> and <code>job-plans.xml</code>. The property reaches the forked benchmark JVMs through the JMH
+ * <code>-jvmArgsAppend</code> option. The generated payloads follow the layout of those responses, captured ones give figures closer to
+ * production.
+ */
+public final class BenchmarkPayloads {
+
+    public static final String PAYLOADS_DIR_PROPERTY = "rapiddeploy.benchmark.payloads";
+
+    private BenchmarkPayloads() {
+    }
+
+    public static String jobRequest(final int includedJobs) throws IOException {
+        final String captured = readCaptured("job-request.xml");
+        if (captured != null) {
+            return captured;
+        }
+        final StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<div>\n");
+        xml.append("  <span class=\"jobId\">123456</span>\n");
+        xml.append("  <span class=\"status\">SUBMITTED</span>\n");
+        appendJobs(xml, includedJobs);
+        return xml.append("</div>\n").toString();
+    }
+
+    public static String jobDetails(final int includedJobs) throws IOException {
+        final String captured = readCaptured("job-details.xml");
+        if (captured != null) {
+            return captured;
+        }
+        final StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<div>\n");
+        xml.append("  <span class=\"jobId\">123456</span>\n");
+        xml.append("  <span class=\"status\">EXECUTING</span>\n");
+        xml.append("  <span class=\"project\">CI_Test</span>\n");
+        xml.append("  <span class=\"target\">SERVER.INSTALLATION.CONFIGURATION</span>\n");
+        appendJobs(xml, includedJobs);
+        return xml.append("</div>\n").toString();
+    }
+
+    public static String jobPlans(final int jobPlans) throws IOException {
+        final String captured = readCaptured("job-plans.xml");
+        if (captured != null) {
+            return captured;
+        }
+        final StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<jobPlans>\n");
+        for (int i = 0; i < jobPlans; i++) {
+            xml.append("  <jobPlan>\n");
+            xml.append("    <id>").append(i + 1).append("</id>\n");
+            xml.append("    <name>Job plan ").append(name(i)).append("</name>\n");
+            xml.append("    <description>Deploys the release train ").append(i).append(" to every environment</description>\n");
+            xml.append("  </jobPlan>\n");
+        }
+        return xml.append("</jobPlans>\n").toString();
+    }
+
+    /**
+     * @return job plans keyed by ID, valued like the RapidDeploy client does: <code>[ID] name</code>, in no particular order.
+     */
+    public static Map<String, String> jobPlanMap(final int jobPlans) {
+        final Map<String, String> map = new LinkedHashMap<String, String>();
+        for (int i = 0; i < jobPlans; i++) {
+            map.put(String.valueOf(i + 1), "[" + (i + 1) + "] Job plan " + name(i));
+        }
+        return map;
+    }
+
+    /**
+     * @return package names in the order the RapidDeploy server lists them, with some entries the plugin filters out.
+     */
+    public static List<String> packageNames(final int packages) {
+        final List<String> names = new ArrayList<String>();
+        names.add("Deployment packages");
+        names.add("null");
+        for (int i = packages; i > 0; i--) {
+            names.add("1." + (i / 100) + "." + (i % 100));
+        }
+        return names;
+    }
+
+    private static void appendJobs(final StringBuilder xml, final int includedJobs) {
+        for (int i = 0; i < includedJobs; i++) {
+            xml.append("  <div class=\"job\">\n");
+            xml.append("    <span class=\"jobId\">").append(200000 + i).append("</span>\n");
+            xml.append("    <span class=\"status\">COMPLETED</span>\n");
+            xml.append("    <span class=\"target\">SERVER").append(i).append(".INSTALLATION.CONFIGURATION</span>\n");
+            xml.append("  </div>\n");
+        }
+    }
+
+    /** Names scattered so sorting them is not a no-op **/
+    private static String name(final int i) {
+        return Integer.toString((i * 7919) % 100000, 36) + "-" + i;
+    }
+
+    private static String readCaptured(final String fileName) throws IOException {
+        final String payloadsDir = System.getProperty(PAYLOADS_DIR_PROPERTY);
+        if (payloadsDir == null) {
+            return null;
+        }
+        final File file = new File(payloadsDir, fileName);
+        return file.isFile() ? new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8) : null;
+    }
+}
@@ -0,0 +1,22 @@
+package com.midvision.rapiddeploy.plugin.jenkins.benchmark;
+
+import com.midvision.rapiddeploy.plugin.jenkins.log.Logger;
+
+/**
+ * Logger discarding every message, so the benchmarks measure the code under test rather than the console output.
+ */
+public final class NullLogger implements Logger {
+
+    public static final NullLogger INSTANCE = new NullLogger();
+
+    private NullLogger() {
+    }
+
+    @Override
+    public void println() {
+    }
+
+    @Override
+    public void println(final Object message) {
+    }
+}
@@ -0,0 +1,79 @@
+package com.midvision.rapiddeploy.plugin.jenkins.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.midvision.rapiddeploy.connector.RapidDeployConnector;
+import com.midvision.rapiddeploy.plugin.jenkins.deploy.BuildAndDeployment;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.RapidDeployJobMonitor;
+
+/**
+ * Extraction of the job ID, the job status, the included jobs and the job plans from the RapidDeploy responses, done by the connector on every
+ * request and status check, along with the plugin's own scans of the job details.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class XmlExtractionBenchmark {
+
+    /** Number of jobs included in a job plan run, and of job plans listed **/
+    @Param({ "10", "100", "1000" })
+    public int size;
+
+    private String jobRequest;
+    private String jobDetails;
+    private String jobPlans;
+
+    @Setup
+    public void setUp() throws Exception {
+        jobRequest = BenchmarkPayloads.jobRequest(size);
+        jobDetails = BenchmarkPayloads.jobDetails(size);
+        jobPlans = BenchmarkPayloads.jobPlans(size);
+    }
+
+    @Benchmark
+    public String extractJobId() throws Exception {
+        return RapidDeployConnector.extractJobId(jobRequest);
+    }
+
+    @Benchmark
+    public String extractJobStatus() throws Exception {
+        return RapidDeployConnector.extractJobStatus(jobDetails);
+    }
+
+    @Benchmark
+    public List<String> extractIncludedJobIds() throws Exception {
+        return RapidDeployConnector.extractIncludedJobIdsUnderPipelineJob(jobDetails);
+    }
+
+    @Benchmark
+    public Map<String, String> extractJobPlansFromXml() throws Exception {
+        return RapidDeployConnector.extractJobPlansFromXml(jobPlans);
+    }
+
+    @Benchmark
+    public Long extractScheduledStartTime() {
+        return RapidDeployJobMonitor.extractScheduledStartTime(jobDetails);
+    }
+
+    @Benchmark
+    public String extractPackageName() {
+        return BuildAndDeployment.extractPackageName(jobDetails);
+    }
+}
@@ -0,0 +1,53 @@
+package com.midvision.rapiddeploy.plugin.jenkins.deploy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Wave planning of {@link RolloutDeployment} for large target lists.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RolloutPlanBenchmark {
+
+    @Param({ "100", "10000" })
+    public int targetCount;
+
+    private List<String> targets;
+
+    @Setup
+    public void setUp() {
+        targets = new ArrayList<String>();
+        for (int i = 0; i < targetCount; i++) {
+            targets.add("SERVER" + i + ".INSTALLATION.CONFIGURATION");
+        }
+    }
+
+    @Benchmark
+    public List<List<String>> planGrowingWaves() {
+        return RolloutDeployment.planWaves(targets, 1, Collections.<Integer> emptyList(), 2.0);
+    }
+
+    @Benchmark
+    public List<List<String>> planFixedWaves() {
+        return RolloutDeployment.planWaves(targets, 2, Collections.singletonList(10), 1.0);
+    }
+}
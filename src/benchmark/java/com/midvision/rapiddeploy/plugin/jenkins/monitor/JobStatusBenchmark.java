@@ -0,0 +1,59 @@
+package com.midvision.rapiddeploy.plugin.jenkins.monitor;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.midvision.rapiddeploy.plugin.jenkins.benchmark.BenchmarkPayloads;
+import com.midvision.rapiddeploy.plugin.jenkins.benchmark.NullLogger;
+
+/**
+ * Status dispatch of the {@link RapidDeployJobMonitor}, run for every waiting build on every status check.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JobStatusBenchmark {
+
+    @Param({ "EXECUTING", "REQUESTED", "JOB_HALTED", "SCHEDULED", "COMPLETED" })
+    public String jobStatus;
+
+    private PollingStrategy fixedStrategy;
+    private PollingStrategy backoffStrategy;
+    private String jobDetails;
+
+    @Setup
+    public void setUp() throws Exception {
+        fixedStrategy = new FixedPollingStrategy(30, 300);
+        backoffStrategy = new BackoffPollingStrategy();
+        jobDetails = BenchmarkPayloads.jobDetails(10);
+    }
+
+    @Benchmark
+    public long onStatusFixed() {
+        return RapidDeployJobMonitor.onStatus(NullLogger.INSTANCE, fixedStrategy, jobStatus, "SUBMITTED", jobDetails, 30000L);
+    }
+
+    @Benchmark
+    public long onStatusBackoff() {
+        return RapidDeployJobMonitor.onStatus(NullLogger.INSTANCE, backoffStrategy, jobStatus, jobStatus, jobDetails, 4000L);
+    }
+
+    @Benchmark
+    public boolean isFinished() {
+        return RapidDeployJobMonitor.isFinished(jobStatus);
+    }
+}
@@ -0,0 +1,91 @@
+package com.midvision.rapiddeploy.plugin.jenkins;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang.StringUtils;
+
+import com.midvision.rapiddeploy.plugin.jenkins.log.Logger;
+
+import hudson.model.AbstractBuild;
+import hudson.model.BuildListener;
+
+/**
+ * Resolves the job parameters used by a build step from a single snapshot of the build environment: the <code>${xxx}</code> placeholders of the
+ * step fields and the <code>@@KEY@@</code> variables passed as the RapidDeploy data dictionary.
+ */
+public class ParameterResolver {
+
+    /** Placeholders: '${xxx}', the group being the name of the parameter **/
+    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\$\\{([^\\$\\{\\}]+)\\}");
+
+    /** Data dictionary items: '@@KEY@@' **/
+    private static final Pattern DATA_DICTIONARY_PATTERN = Pattern.compile("@@.+@@");
+
+    private final Map<String, String> environment;
+    private final Map<String, String> dataDictionary;
+
+    public ParameterResolver(final Map<String, String> environment) {
+        this.environment = environment;
+        // The data dictionary is extracted in the same pass that takes the snapshot
+        final Map<String, String> items = new HashMap<String, String>();
+        final Matcher matcher = DATA_DICTIONARY_PATTERN.matcher("");
+        for (final Entry<String, String> envVar : environment.entrySet()) {
+            if (matcher.reset(envVar.getKey()).matches()) {
+                items.put(envVar.getKey(), envVar.getValue());
+            }
+        }
+        this.dataDictionary = Collections.unmodifiableMap(items);
+    }
+
+    /**
+     * Takes a snapshot of the build environment. If it can not be retrieved, a warning is printed and no parameter is resolved.
+     */
+    public static ParameterResolver forBuild(final AbstractBuild<?, ?> build, final BuildListener listener) {
+        try {
+            return new ParameterResolver(build.getEnvironment(listener));
+        } catch (final IOException e) {
+            listener.getLogger().println("WARNING: Unable to retrieve the list of parameters: " + e.getMessage());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            listener.getLogger().println("WARNING: Unable to retrieve the list of parameters: " + e.getMessage());
+        }
+        return new ParameterResolver(Collections.<String, String> emptyMap());
+    }
+
+    /**
+     * @return the given value with every placeholder of a non blank parameter replaced by the parameter value.
+     */
+    public String resolve(final String paramStr, final Logger logger) {
+        logger.println("Replacing job parameters for '" + paramStr + "'");
+        final Matcher matcher = PLACEHOLDER_PATTERN.matcher(paramStr);
+        final StringBuffer replaced = new StringBuffer(paramStr.length());
+        while (matcher.find()) {
+            final String group = matcher.group();
+            logger.println("Job parameter found: " + group);
+            final String replaceStr = environment.get(matcher.group(1));
+            logger.println("Job parameter value retrieved: " + replaceStr);
+            if (StringUtils.isNotBlank(replaceStr)) {
+                logger.println("Retrieved value '" + replaceStr + "' from job parameter '" + group + "'");
+                matcher.appendReplacement(replaced, Matcher.quoteReplacement(replaceStr));
+            } else {
+                logger.println("WARNING: job parameter not found '" + group + "'");
+            }
+        }
+        matcher.appendTail(replaced);
+        logger.println("Replaced value '" + replaced + "'");
+        return replaced.toString();
+    }
+
+    /**
+     * @return the environment variables named <code>@@KEY@@</code>.
+     */
+    public Map<String, String> getDataDictionary() {
+        return dataDictionary;
+    }
+}
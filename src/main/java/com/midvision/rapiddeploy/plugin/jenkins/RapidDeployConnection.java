@@ -0,0 +1,85 @@
+package com.midvision.rapiddeploy.plugin.jenkins;
+
+import org.apache.commons.lang.StringUtils;
+
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.GlobalPollingStrategy;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.PollingStrategy;
+
+import hudson.AbortException;
+import hudson.model.Item;
+import hudson.model.Run;
+
+/**
+ * Server URL and authentication token a build step uses: those of the {@link RapidDeployServer} it references, or otherwise the ones set in the
+ * step itself.
+ */
+public final class RapidDeployConnection {
+
+    private final String serverUrl;
+    private final String authenticationToken;
+    private final RapidDeployServer server;
+
+    private RapidDeployConnection(final String serverUrl, final String authenticationToken, final RapidDeployServer server) {
+        this.serverUrl = serverUrl;
+        this.authenticationToken = authenticationToken;
+        this.server = server;
+    }
+
+    /**
+     * Resolves the connection of a build step while it runs.
+     *
+     * @param serverId the ID of the server referenced by the step, if empty the given server URL and token are used.
+     * @throws AbortException if the server or its credential can not be found.
+     */
+    public static RapidDeployConnection resolve(final String serverId, final String serverUrl, final String authenticationToken,
+            final Run<?, ?> build) throws AbortException {
+        if (StringUtils.isBlank(serverId)) {
+            return new RapidDeployConnection(serverUrl, authenticationToken, null);
+        }
+        final RapidDeployServer server = getServer(serverId);
+        if (server == null) {
+            throw new AbortException("The RapidDeploy server " + serverId + " is not defined in the global configuration.");
+        }
+        return new RapidDeployConnection(server.getUrl(), server.getAuthenticationToken(build), server);
+    }
+
+    /**
+     * Resolves the connection of a build step being configured, falling back to the server URL and token of the form if the server or its
+     * credential can not be found.
+     */
+    public static RapidDeployConnection forForm(final String serverId, final String serverUrl, final String authenticationToken,
+            final Item item) {
+        final RapidDeployServer server = StringUtils.isBlank(serverId) ? null : getServer(serverId);
+        if (server == null) {
+            return new RapidDeployConnection(serverUrl, authenticationToken, null);
+        }
+        final String serverToken = server.getAuthenticationToken(item);
+        return new RapidDeployConnection(server.getUrl(), serverToken != null ? serverToken : authenticationToken, server);
+    }
+
+    private static RapidDeployServer getServer(final String serverId) {
+        final RapidDeployGlobalConfiguration configuration = RapidDeployGlobalConfiguration.get();
+        return configuration != null ? configuration.getServer(serverId.trim()) : null;
+    }
+
+    public String getServerUrl() {
+        return serverUrl;
+    }
+
+    public String getAuthenticationToken() {
+        return authenticationToken;
+    }
+
+    /**
+     * @return the polling strategy set in the step, or the one of the server if the step uses the global default.
+     */
+    public PollingStrategy getPollingStrategy(final PollingStrategy stepPollingStrategy) {
+        if (stepPollingStrategy != null && !(stepPollingStrategy instanceof GlobalPollingStrategy)) {
+            return stepPollingStrategy;
+        }
+        if (server != null && server.getPollingStrategy() != null) {
+            return server.getPollingStrategy();
+        }
+        return stepPollingStrategy;
+    }
+}
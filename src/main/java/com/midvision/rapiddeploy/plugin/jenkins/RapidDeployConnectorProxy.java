@@ -1,6 +1,5 @@
 package com.midvision.rapiddeploy.plugin.jenkins;
 
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -10,20 +9,36 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
-import com.midvision.rapiddeploy.connector.RapidDeployConnector;
+import com.midvision.rapiddeploy.plugin.jenkins.cache.ListPage;
+import com.midvision.rapiddeploy.plugin.jenkins.cache.RapidDeployMetadataCache;
+import com.midvision.rapiddeploy.plugin.jenkins.cache.RapidDeployMetadataCache.Key;
+import com.midvision.rapiddeploy.plugin.jenkins.cache.RapidDeployMetadataCache.Resource;
+import com.midvision.rapiddeploy.plugin.jenkins.client.RapidDeployClient;
+import com.midvision.rapiddeploy.plugin.jenkins.log.JobLogArchive;
+import com.midvision.rapiddeploy.plugin.jenkins.log.JobLogTail;
 import com.midvision.rapiddeploy.plugin.jenkins.log.JobLogger;
+import com.midvision.rapiddeploy.plugin.jenkins.log.LogExcerpt;
 import com.midvision.rapiddeploy.plugin.jenkins.log.Logger;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.JobResult;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.PollingStrategy;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.RapidDeployJobFailedException;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.RapidDeployJobMonitor;
+import com.midvision.rapiddeploy.plugin.jenkins.timing.JobTiming;
+import com.midvision.rapiddeploy.plugin.jenkins.timing.RapidDeployTimingAction;
 
 import hudson.Util;
 import hudson.model.AbstractBuild;
 import hudson.model.BuildListener;
+import hudson.model.Run;
+import jenkins.model.Jenkins;
 
 public class RapidDeployConnectorProxy {
 
@@ -55,27 +70,19 @@ public class RapidDeployConnectorProxy {
     public static final String CONNECTION_BAD_MESSAGE = "Unable to establish connection.";
     public static final String WRONG_PROJECT_MESSAGE = "Wrong project selected, please reload the projects list.";
     public static final String INSUFFICIENT_PERMISSIONS_MESSAGE = "Insufficient permissions to perform the check.";
+    public static final String LOADING_MESSAGE = "Still loading from RapidDeploy, please reload the list in a few seconds.";
 
-    private List<String> projects;
-    private List<String> jobPlans;
-    private boolean newConnection = true;
-
-    public boolean isNewConnection() {
-        return newConnection;
-    }
-
-    public void setNewConnection(final boolean newConnection) {
-        this.newConnection = newConnection;
-    }
+    /** Longest time a configuration page request waits for a list, in milliseconds, the list keeps loading in the background after it **/
+    public static final long LIST_WAIT_TIMEOUT = Long.getLong(RapidDeployConnectorProxy.class.getName() + ".listWaitTimeout", 5000L);
 
     /******************************/
     /** PACKAGE CREATION METHODS **/
     /******************************/
 
     public static boolean performPackageBuild(final AbstractBuild<?, ?> build, final BuildListener listener, final String serverUrl,
-            final String authenticationToken, final String project, String packageName, final String archiveExtension) {
+            final String authenticationToken, final String project, String packageName, final String archiveExtension, final PollingStrategy pollingStrategy) {
         if (StringUtils.isNotBlank(packageName)) {
-            packageName = replaceParametersPlaceholders(packageName, build, listener);
+            packageName = ParameterResolver.forBuild(build, listener).resolve(packageName, new JobLogger(listener.getLogger()));
         }
 
         listener.getLogger().println("Invoking RapidDeploy deployment package builder...");
@@ -84,11 +91,14 @@ public class RapidDeployConnectorProxy {
         listener.getLogger().println("  > Package name: " + packageName);
         listener.getLogger().println("  > Archive extension: " + archiveExtension);
         listener.getLogger().println();
+        final JobTiming timing = RapidDeployTimingAction.start(build, "Package build of project " + project);
         try {
-            final String jobRequestOutput = RapidDeployConnector.invokeRapidDeployBuildPackage(authenticationToken, serverUrl, project, packageName,
-                    archiveExtension, false, true);
-            return checkJobStatus(new JobLogger(listener.getLogger()), serverUrl, authenticationToken, jobRequestOutput, false, true);
+            final String jobRequestOutput = RapidDeployClient.forServer(serverUrl).buildPackage(authenticationToken, project, packageName,
+                    archiveExtension);
+            return checkJobStatus(build, new JobLogger(listener.getLogger()), serverUrl, authenticationToken, jobRequestOutput, false, true,
+                    pollingStrategy, timing);
         } catch (final Exception e) {
+            timing.finished(null);
             listener.getLogger().println("Call failed with error: " + e.getMessage());
             return false;
         }
@@ -100,26 +110,15 @@ public class RapidDeployConnectorProxy {
 
     public static boolean performJobDeployment(final AbstractBuild<?, ?> build, final BuildListener listener, final String serverUrl,
             final String authenticationToken, final String project, final String target, String packageName, final Boolean asynchronousJob,
-            final Boolean showFullLog) {
+            final Boolean showFullLog, final PollingStrategy pollingStrategy) {
+        // A single snapshot of the environment is used for the package name and the data dictionary
+        final ParameterResolver parameterResolver = ParameterResolver.forBuild(build, listener);
         if (StringUtils.isNotBlank(packageName)) {
-            packageName = replaceParametersPlaceholders(packageName, build, listener);
+            packageName = parameterResolver.resolve(packageName, new JobLogger(listener.getLogger()));
         }
 
         listener.getLogger().println("Retrieving the list of data dictionary items...");
-        final Map<String, String> dataDictionary = new HashMap<String, String>();
-        try {
-            for (final Entry<String, String> envVar : build.getEnvironment(listener).entrySet()) {
-                final Pattern pattern = Pattern.compile("@@.+@@");
-                final Matcher matcher = pattern.matcher(envVar.getKey());
-                if (matcher.matches()) {
-                    dataDictionary.put(envVar.getKey(), envVar.getValue());
-                }
-            }
-        } catch (final IOException e1) {
-            listener.getLogger().println("WARNING: Unable to retrieve the list of parameters. No data dictionary passed to the deployment.");
-        } catch (final InterruptedException e1) {
-            listener.getLogger().println("WARNING: Unable to retrieve the list of parameters. No data dictionary passed to the deployment.");
-        }
+        final Map<String, String> dataDictionary = new HashMap<String, String>(parameterResolver.getDataDictionary());
 
         listener.getLogger().println("Invoking RapidDeploy project deploy via path...");
         listener.getLogger().println("  > Server URL: " + serverUrl);
@@ -130,14 +129,19 @@ public class RapidDeployConnectorProxy {
         listener.getLogger().println("  > Show full log? " + showFullLog);
         listener.getLogger().println("  > Data dictionary: " + dataDictionary);
         listener.getLogger().println();
+        final JobTiming timing = RapidDeployTimingAction.start(build, "Deployment of project " + project + " to " + target);
         try {
-            final String jobRequestOutput = RapidDeployConnector.invokeRapidDeployDeploymentPollOutput(authenticationToken, serverUrl, project, target,
-                    packageName, false, true, dataDictionary);
+            final String jobRequestOutput = RapidDeployClient.forServer(serverUrl).deploy(authenticationToken, project, target, packageName,
+                    dataDictionary);
             if (!asynchronousJob) {
-                return checkJobStatus(new JobLogger(listener.getLogger()), serverUrl, authenticationToken, jobRequestOutput, false, showFullLog);
+                return checkJobStatus(build, new JobLogger(listener.getLogger()), serverUrl, authenticationToken, jobRequestOutput, false,
+                        showFullLog, pollingStrategy, timing);
             }
+            timing.requestAnswered(null);
+            timing.finished(null);
             return true;
         } catch (final Exception e) {
+            timing.finished(null);
             listener.getLogger().println("Call failed with error: " + e.getMessage());
             return false;
         }
@@ -147,8 +151,9 @@ public class RapidDeployConnectorProxy {
     /** JOB PLAN RUN METHODS **/
     /**************************/
 
-    public static boolean performJobPlanRun(final BuildListener listener, final String serverUrl, final String authenticationToken, final String jobPlan,
-            final Boolean asynchronousJob, final Boolean showIndividualLogs, final Boolean showFullLog) {
+    public static boolean performJobPlanRun(final AbstractBuild<?, ?> build, final BuildListener listener, final String serverUrl,
+            final String authenticationToken, final String jobPlan, final Boolean asynchronousJob, final Boolean showIndividualLogs,
+            final Boolean showFullLog, final PollingStrategy pollingStrategy) {
         listener.getLogger().println("Invoking RapidDeploy job plan execution via path...");
         listener.getLogger().println("  > Server URL: " + serverUrl);
         listener.getLogger().println("  > jobPlan: " + jobPlan);
@@ -157,13 +162,18 @@ public class RapidDeployConnectorProxy {
         listener.getLogger().println("  > Show full log? " + showFullLog);
         listener.getLogger().println();
         final String jobPlanId = jobPlan.substring(jobPlan.indexOf("[") + 1, jobPlan.indexOf("]"));
+        final JobTiming timing = RapidDeployTimingAction.start(build, "Job plan " + jobPlan);
         try {
-            final String jobRequestOutput = RapidDeployConnector.invokeRapidDeployJobPlanPollOutput(authenticationToken, serverUrl, jobPlanId, true);
+            final String jobRequestOutput = RapidDeployClient.forServer(serverUrl).runJobPlan(authenticationToken, jobPlanId);
             if (!asynchronousJob) {
-                return checkJobStatus(new JobLogger(listener.getLogger()), serverUrl, authenticationToken, jobRequestOutput, showIndividualLogs, showFullLog);
+                return checkJobStatus(build, new JobLogger(listener.getLogger()), serverUrl, authenticationToken, jobRequestOutput,
+                        showIndividualLogs, showFullLog, pollingStrategy, timing);
             }
+            timing.requestAnswered(null);
+            timing.finished(null);
             return true;
         } catch (final Exception e) {
+            timing.finished(null);
             listener.getLogger().println("Call failed with error: " + e.getMessage());
             return false;
         }
@@ -173,140 +183,183 @@ public class RapidDeployConnectorProxy {
     /***** AUX METHODS *****/
     /***********************/
 
-    private static boolean checkJobStatus(final Logger logger, final String serverUrl, final String authenticationToken, final String jobRequestOutput,
-            final boolean showIndividualLogs, final boolean showFullLog) throws Exception {
+    private static boolean checkJobStatus(final Run<?, ?> build, final Logger logger, final String serverUrl, final String authenticationToken,
+            final String jobRequestOutput, final boolean showIndividualLogs, final boolean showFullLog, final PollingStrategy pollingStrategy,
+            final JobTiming timing) throws Exception {
+        final String jobId = extractJobId(logger, serverUrl, jobRequestOutput);
+        timing.requestAnswered(jobId);
+        final JobLogArchive logArchive = showFullLog ? JobLogArchive.forBuild(build) : null;
+        // An archived log is only written once the job finishes, it is not streamed to the console
+        final JobLogTail logTail = showFullLog && logArchive == null ? new JobLogTail(jobId) : null;
+        final Future<JobResult> jobResult = RapidDeployJobMonitor.get().monitor(logger, serverUrl, authenticationToken, jobId, pollingStrategy,
+                logTail, timing);
+        final JobResult result;
+        try {
+            // The executor thread stays parked here while the monitor polls the job in the background
+            result = jobResult.get();
+        } catch (final InterruptedException e) {
+            jobResult.cancel(true);
+            throw e;
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+        try {
+            return reportJobResult(logger, serverUrl, authenticationToken, result, showIndividualLogs, logTail, logArchive, timing);
+        } finally {
+            logger.println(timing.getSummary());
+        }
+    }
 
-        boolean success = false;
-        final String jobId = RapidDeployConnector.extractJobId(jobRequestOutput);
+    public static String extractJobId(final Logger logger, final String serverUrl, final String jobRequestOutput) throws Exception {
+        final String jobId = RapidDeployClient.forServer(serverUrl).extractJobId(jobRequestOutput);
         logger.println(">>>  RapidDeploy job requested [" + jobId + "] <<<");
-        if (jobId != null) {
-            logger.println("Checking job status every 30 seconds...");
-            String jobDetails = "";
-            String jobStatus = "";
-            boolean runningJob = true;
-            long milisToSleep = 30000L;
-            while (runningJob) {
-                Thread.sleep(milisToSleep);
-                jobDetails = RapidDeployConnector.pollRapidDeployJobDetails(authenticationToken, serverUrl, jobId);
-                jobStatus = RapidDeployConnector.extractJobStatus(jobDetails);
-                logger.println("Job status: " + jobStatus);
-                if (jobStatus.equals(SUBMITTED) || jobStatus.equals(STARTING) || jobStatus.equals(EXECUTING) || jobStatus.equals(BATCHED)
-                        || jobStatus.equals(RESUMING)) {
-                    logger.println("Job running, next check in 30 seconds...");
-                    milisToSleep = 30000L;
-                } else if (jobStatus.equals(REQUESTED) || jobStatus.equals(REQUESTED_SCHEDULED) || jobStatus.equals(REQUESTED_EXECUTING)) {
-                    logger.println("Job in a REQUESTED state. Approval may be required in RapidDeploy "
-                            + "to continue with the execution, next check in 30 seconds...");
-                } else if (jobStatus.equals(JOB_HALTED) || jobStatus.equals(TASK_HALTED)) {
-                    logger.println("Job in a HALTED state, next check in 5 minutes...");
-                    logger.println("Printing out job details: ");
-                    logger.println(jobDetails);
-                    milisToSleep = 300000L;
-                } else if (jobStatus.equals(SCHEDULED)) {
-                    logger.println("Job in a SCHEDULED state, the execution will start in a future date, next check in 5 minutes...");
-                    logger.println("Printing out job details: ");
-                    logger.println(jobDetails);
-                    milisToSleep = 300000L;
-                } else {
-                    runningJob = false;
-                    logger.println("Job finished with status: " + jobStatus);
-                    if (jobStatus.equals(COMPLETED)) {
-                        success = true;
-                    }
-                }
-            }
-            if (showFullLog) {
-                final String logs = RapidDeployConnector.pollRapidDeployJobLog(authenticationToken, serverUrl, jobId);
-                final StringBuilder fullLog = new StringBuilder();
-                fullLog.append(logs);
-
-                if (showIndividualLogs && StringUtils.isNotBlank(jobDetails)) {
-                    fullLog.append(System.getProperty("line.separator"));
-                    final List<String> includedJobIds = RapidDeployConnector.extractIncludedJobIdsUnderPipelineJob(jobDetails);
-                    for (final String internalJobId : includedJobIds) {
-                        fullLog.append("Logs related to job ID: ").append(internalJobId).append(System.getProperty("line.separator"));
-                        fullLog.append(RapidDeployConnector.pollRapidDeployJobLog(authenticationToken, serverUrl, internalJobId));
-                    }
-                }
+        if (jobId == null) {
+            throw new RuntimeException("Could not retrieve job ID, possibly running asynchronously!");
+        }
+        return jobId;
+    }
 
-                if (!success) {
-                    throw new RuntimeException("RapidDeploy job failed. Please check the output." + System.getProperty("line.separator") + fullLog.toString());
-                }
-                logger.println("RapidDeploy job successfully run. Please check the output." + System.getProperty("line.separator"));
-                logger.println(fullLog.toString());
-            } else {
-                String baseLogUrl = serverUrl;
-                if (serverUrl != null && serverUrl.endsWith("/")) {
-                    baseLogUrl = serverUrl.substring(0, serverUrl.length() - 1);
-                }
-                baseLogUrl = baseLogUrl + "/ws/streamer/job/log/";
+    /**
+     * Reports the final status of a job. If a log archive is given, the job log is written to the build directory; if a log tail is given, the
+     * rest of the job log is written to the console; otherwise the URLs of the logs are printed.
+     *
+     * @throws RapidDeployJobFailedException if the job did not complete successfully.
+     */
+    public static boolean reportJobResult(final Logger logger, final String serverUrl, final String authenticationToken, final JobResult result,
+            final boolean showIndividualLogs, final JobLogTail logTail, final JobLogArchive logArchive) throws Exception {
+        return reportJobResult(logger, serverUrl, authenticationToken, result, showIndividualLogs, logTail, logArchive, null);
+    }
 
-                final StringBuilder logUrls = new StringBuilder();
-                logUrls.append(baseLogUrl).append(jobId).append(System.getProperty("line.separator"));
+    /**
+     * Same as {@link #reportJobResult(Logger, String, String, JobResult, boolean, JobLogTail, JobLogArchive)}, adding the time taken to retrieve
+     * the logs to the given timeline, if any.
+     */
+    public static boolean reportJobResult(final Logger logger, final String serverUrl, final String authenticationToken, final JobResult result,
+            final boolean showIndividualLogs, final JobLogTail logTail, final JobLogArchive logArchive, final JobTiming timing) throws Exception {
+        final String jobId = result.getJobId();
+        final String jobDetails = result.getJobDetails();
+        final boolean success = result.isSuccess();
+        final RapidDeployClient client = RapidDeployClient.forServer(serverUrl);
+        final List<String> includedJobIds = showIndividualLogs && StringUtils.isNotBlank(jobDetails) ? client.extractIncludedJobIds(jobDetails)
+                : Collections.<String> emptyList();
+        final List<String> logUrls = new ArrayList<String>();
+        logUrls.add(getLogUrl(serverUrl, jobId));
+        for (final String internalJobId : includedJobIds) {
+            logUrls.add(getLogUrl(serverUrl, internalJobId));
+        }
+        if (logTail != null || logArchive != null) {
+            final long logRetrievalStart = System.currentTimeMillis();
+            // Only the end of the log is kept for the failure, the log itself is dropped once printed
+            final String logExcerpt;
+            if (logArchive != null) {
+                // Streamed to its file, the log is never held in memory
+                final LogExcerpt archived = logArchive.archive(jobId, writer -> client.writeJobLog(authenticationToken, jobId, writer));
+                JobLogArchive.printArchived(logger, jobId, archived);
+                logExcerpt = success ? null : RapidDeployJobFailedException.excerpt(archived.getEnd());
+            } else {
+                final String log = client.pollJobLog(authenticationToken, jobId);
+                logExcerpt = success ? null : RapidDeployJobFailedException.excerpt(log);
+                // The log lines already printed while the job was running are skipped
+                logTail.finish(logger, log);
+            }
+            if (timing != null) {
+                timing.logRetrieved(System.currentTimeMillis() - logRetrievalStart);
+            }
 
-                if (showIndividualLogs && StringUtils.isNotBlank(jobDetails)) {
-                    logUrls.append("Individual RapidDeploy deployment logs: ").append(System.getProperty("line.separator"));
-                    final List<String> includedJobIds = RapidDeployConnector.extractIncludedJobIdsUnderPipelineJob(jobDetails);
-                    for (final String internalJobId : includedJobIds) {
-                        logUrls.append("  ").append(baseLogUrl).append(internalJobId).append(System.getProperty("line.separator"));
-                    }
+            if (!includedJobIds.isEmpty()) {
+                logger.println();
+                final long individualLogsStart = System.currentTimeMillis();
+                printIndividualLogs(logger, client, authenticationToken, includedJobIds, logArchive);
+                if (timing != null) {
+                    timing.logRetrieved(System.currentTimeMillis() - individualLogsStart);
                 }
+            }
 
-                if (!success) {
-                    throw new RuntimeException(
-                            "RapidDeploy job failed." + System.getProperty("line.separator") + "You can check the RapidDeploy logs here: " + logUrls);
-                }
-                logger.println("RapidDeploy job successfully run.");
-                logger.println("You can check the RapidDeploy logs here: " + logUrls);
+            if (!success) {
+                throw new RapidDeployJobFailedException(jobId, result.getJobStatus(), logUrls, logExcerpt);
             }
+            logger.println("RapidDeploy job successfully run. Please check the output above.");
         } else {
-            throw new RuntimeException("Could not retrieve job ID, possibly running asynchronously!");
+            if (!success) {
+                throw new RapidDeployJobFailedException(jobId, result.getJobStatus(), logUrls, null);
+            }
+            final StringBuilder logUrlsOutput = new StringBuilder();
+            logUrlsOutput.append(logUrls.get(0)).append(System.getProperty("line.separator"));
+            if (logUrls.size() > 1) {
+                logUrlsOutput.append("Individual RapidDeploy deployment logs: ").append(System.getProperty("line.separator"));
+                for (final String logUrl : logUrls.subList(1, logUrls.size())) {
+                    logUrlsOutput.append("  ").append(logUrl).append(System.getProperty("line.separator"));
+                }
+            }
+            logger.println("RapidDeploy job successfully run.");
+            logger.println("You can check the RapidDeploy logs here: " + logUrlsOutput);
         }
         return success;
     }
 
-    private static String replaceParametersPlaceholders(String paramStr, final AbstractBuild<?, ?> build, final BuildListener listener) {
-        listener.getLogger().println("Replacing job parameters for '" + paramStr + "'");
-
-        // First we need to retrieve all the placeholders: '${xxx}'
-        final Pattern pattern = Pattern.compile("\\$\\{[^\\$\\{\\}]+\\}");
-        // Then we need to extract the string inside the placeholder
-        final Pattern inPattern = Pattern.compile("\\$\\{(.+)\\}");
-
-        String group;
-        String replaceStr;
-        final Matcher matcher = pattern.matcher(paramStr);
-        Matcher inMatcher;
+    /** URL of the log of a job in the RapidDeploy server **/
+    public static String getLogUrl(final String serverUrl, final String jobId) {
+        String baseLogUrl = serverUrl;
+        if (serverUrl != null && serverUrl.endsWith("/")) {
+            baseLogUrl = serverUrl.substring(0, serverUrl.length() - 1);
+        }
+        return baseLogUrl + "/ws/streamer/job/log/" + jobId;
+    }
 
-        // We iterate over the placeholders found
-        while (matcher.find()) {
-            group = matcher.group();
-            listener.getLogger().println("Job parameter found: " + group);
-            inMatcher = inPattern.matcher(group);
-            // Obtain the string inside the placeholder
-            if (inMatcher.matches()) {
+    /**
+     * Prints the logs of the jobs included in a job plan, in the order of the job plan. Several logs are retrieved at the same time, but only
+     * as many as the configured parallelism are held in memory, each of them being printed and dropped as soon as its turn comes. Archived
+     * logs are streamed to their files as they are retrieved, only their first and last lines wait for their turn.
+     */
+    private static void printIndividualLogs(final Logger logger, final RapidDeployClient client, final String authenticationToken,
+            final List<String> includedJobIds, final JobLogArchive logArchive) throws Exception {
+        final int parallelism = getLogFetchParallelism();
+        final LinkedList<Future<?>> window = new LinkedList<Future<?>>();
+        int next = 0;
+        try {
+            for (final String internalJobId : includedJobIds) {
+                while (next < includedJobIds.size() && window.size() < parallelism) {
+                    final String nextJobId = includedJobIds.get(next++);
+                    if (logArchive != null) {
+                        window.add(RapidDeployExecutors.logFetchers()
+                                .submit(() -> logArchive.archive(nextJobId, writer -> client.writeJobLog(authenticationToken, nextJobId, writer))));
+                    } else {
+                        window.add(RapidDeployExecutors.logFetchers().submit(() -> client.pollJobLog(authenticationToken, nextJobId)));
+                    }
+                }
+                final Future<?> log = window.removeFirst();
+                logger.println("Logs related to job ID: " + internalJobId);
                 try {
-                    // Get the value of the parameter
-                    replaceStr = build.getEnvironment(listener).get(inMatcher.group(1));
-                    listener.getLogger().println("Job parameter value retrieved: " + replaceStr);
-                    // If the value is not blank, replace the parameter
-                    if (StringUtils.isNotBlank(replaceStr)) {
-                        listener.getLogger().println("Retrieved value '" + replaceStr + "' from job parameter '" + group + "'");
-                        paramStr = paramStr.replace(group, replaceStr);
+                    if (logArchive != null) {
+                        JobLogArchive.printArchived(logger, internalJobId, (LogExcerpt) log.get());
                     } else {
-                        listener.getLogger().println("WARNING: job parameter not found '" + group + "'");
+                        logger.println(log.get());
+                    }
+                } catch (final ExecutionException e) {
+                    if (e.getCause() instanceof Exception) {
+                        throw (Exception) e.getCause();
                     }
-                } catch (final Exception e) {
-                    listener.getLogger().println("WARNING: Unable to retrieve the job parameter '" + group + "'");
-                    listener.getLogger().println("         " + e.getMessage());
+                    throw e;
                 }
             }
+        } finally {
+            for (final Future<?> log : window) {
+                log.cancel(true);
+            }
+        }
+    }
+
+    private static int getLogFetchParallelism() {
+        if (Jenkins.getInstanceOrNull() == null) {
+            return RapidDeployGlobalConfiguration.DEFAULT_LOG_FETCH_PARALLELISM;
         }
-        listener.getLogger().println("Replaced value '" + paramStr + "'");
-        return paramStr;
+        return RapidDeployGlobalConfiguration.get().getLogFetchParallelism();
     }
 
-    private Map<String, String> sortByJobPlanName(final Map<String, String> unsortMap) {
+    static Map<String, String> sortByJobPlanName(final Map<String, String> unsortMap) {
 
         // 1. Convert Map to List of Map
         final List<Entry<String, String>> list = new LinkedList<Map.Entry<String, String>>(unsortMap.entrySet());
@@ -332,83 +385,223 @@ public class RapidDeployConnectorProxy {
     /***** PROXY METHODS *****/
     /*************************/
 
-    /** Method that caches the projects to ease the form validation **/
+    /** The lists are kept in the shared cache to ease the form validation **/
     public List<String> getProjects(final String serverUrl, final String authenticationToken) {
         LOG.debug("getProjects");
-        if (projects == null || projects.isEmpty() || newConnection) {
-            try {
-                if (serverUrl != null && !"".equals(serverUrl) && authenticationToken != null && !"".equals(authenticationToken)) {
-                    LOG.debug("REQUEST TO WEB SERVICE GET PROJECTS...");
-                    projects = RapidDeployConnector.invokeRapidDeployListProjects(authenticationToken, serverUrl);
-                    newConnection = false;
-                    LOG.debug("PROJECTS RETRIEVED: " + projects.size());
-                } else {
-                    projects = new ArrayList<String>();
-                }
-            } catch (final Exception e) {
-                LOG.warn(e.getMessage());
-                projects = new ArrayList<String>();
+        List<String> projects = new ArrayList<String>();
+        try {
+            if (serverUrl != null && !"".equals(serverUrl) && authenticationToken != null && !"".equals(authenticationToken)) {
+                projects = RapidDeployMetadataCache.get().get(projectsKey(serverUrl, authenticationToken),
+                        projectsLoader(serverUrl, authenticationToken));
             }
+        } catch (final Exception e) {
+            LOG.warn(e.getMessage());
         }
         LOG.debug("PROJECTS: " + projects.size());
         return projects;
     }
 
+    /** The project and domain XML entries are left out **/
     public List<String> getTargets(final String serverUrl, final String authenticationToken, final String project) throws Exception {
-        return RapidDeployConnector.invokeRapidDeployListTargets(authenticationToken, serverUrl, project);
+        return targetNames(RapidDeployMetadataCache.get().get(targetsKey(serverUrl, authenticationToken, project),
+                targetsLoader(serverUrl, authenticationToken, project)));
     }
 
     public List<String> getDeploymentPackages(final String serverUrl, final String authenticationToken, final String project, final String target)
             throws Exception {
-        final String[] targetObjects = target.split("\\.");
-        List<String> packageNames = new ArrayList<String>();
-        if (target.contains(".") && targetObjects.length == 4) {
-            packageNames = RapidDeployConnector.invokeRapidDeployListPackages(authenticationToken, serverUrl, project, targetObjects[0], targetObjects[1],
-                    targetObjects[2]);
-        } else if (target.contains(".") && targetObjects.length == 3) {
-            // support for RD v3.5+ - instance removed
-            packageNames = RapidDeployConnector.invokeRapidDeployListPackages(authenticationToken, serverUrl, project, targetObjects[0], targetObjects[1],
-                    null);
-        } else {
+        if (!isValidTarget(target)) {
             LOG.error("Invalid target settings found! Target: " + target);
+            return new ArrayList<String>();
         }
-        return packageNames;
+        return RapidDeployMetadataCache.get().get(packagesKey(serverUrl, authenticationToken, project, target),
+                packagesLoader(serverUrl, authenticationToken, project, target));
     }
 
     public List<String> getJobPlans(final String serverUrl, final String authenticationToken) {
         LOG.debug("getJobPlans");
-        if (jobPlans == null || jobPlans.isEmpty() || newConnection) {
-            try {
-                jobPlans = new ArrayList<String>();
-                if (serverUrl != null && !"".equals(serverUrl) && authenticationToken != null && !"".equals(authenticationToken)) {
-                    LOG.debug("REQUEST TO WEB SERVICE GET JOB PLANS...");
-                    final String jobPlansCallOutput = RapidDeployConnector.invokeRapidDeployJobPlans(authenticationToken, serverUrl);
-                    Map<String, String> jobPlansExtracted = RapidDeployConnector.extractJobPlansFromXml(jobPlansCallOutput);
-                    jobPlansExtracted = sortByJobPlanName(jobPlansExtracted);
-                    for (final String jobPlanDesc : jobPlansExtracted.values()) {
-                        jobPlans.add(jobPlanDesc);
-                    }
-                    newConnection = false;
-                    LOG.debug("JOB PLANS RETRIEVED: " + jobPlans.size());
-                } else {
-                    jobPlans = new ArrayList<String>();
-                }
-            } catch (final Exception e) {
-                LOG.warn(e.getMessage());
-                jobPlans = new ArrayList<String>();
+        List<String> jobPlans = new ArrayList<String>();
+        try {
+            if (serverUrl != null && !"".equals(serverUrl) && authenticationToken != null && !"".equals(authenticationToken)) {
+                jobPlans = RapidDeployMetadataCache.get().get(jobPlansKey(serverUrl, authenticationToken),
+                        jobPlansLoader(serverUrl, authenticationToken));
             }
+        } catch (final Exception e) {
+            LOG.warn(e.getMessage());
         }
         LOG.debug("JOB PLANS: " + jobPlans.size());
         return jobPlans;
     }
 
+    /*
+     * The load methods are used by the configuration pages: they wait at most LIST_WAIT_TIMEOUT for the list and return null if it is still
+     * loading, so a slow RapidDeploy server does not hold the request thread. Errors are logged and an empty list is returned.
+     */
+
+    public List<String> loadProjects(final String serverUrl, final String authenticationToken) {
+        if (StringUtils.isEmpty(serverUrl) || StringUtils.isEmpty(authenticationToken)) {
+            return new ArrayList<String>();
+        }
+        return load(projectsKey(serverUrl, authenticationToken), projectsLoader(serverUrl, authenticationToken));
+    }
+
+    /** The project and domain XML entries are left out **/
+    public List<String> loadTargets(final String serverUrl, final String authenticationToken, final String project) {
+        if (StringUtils.isEmpty(serverUrl) || StringUtils.isEmpty(authenticationToken) || StringUtils.isEmpty(project)) {
+            return new ArrayList<String>();
+        }
+        final List<String> targets = load(targetsKey(serverUrl, authenticationToken, project), targetsLoader(serverUrl, authenticationToken, project));
+        if (targets == null) {
+            return null;
+        }
+        return targetNames(targets);
+    }
+
+    private static List<String> targetNames(final List<String> targets) {
+        final List<String> targetNames = new ArrayList<String>();
+        for (final String targetName : targets) {
+            if (!targetName.contains("Project [") && !targetName.contains("domainxml")) {
+                targetNames.add(targetName);
+            }
+        }
+        return targetNames;
+    }
+
+    /** The entries that are not package names are left out **/
+    public List<String> loadDeploymentPackages(final String serverUrl, final String authenticationToken, final String project, final String target) {
+        if (StringUtils.isEmpty(serverUrl) || StringUtils.isEmpty(authenticationToken) || StringUtils.isEmpty(project) || !isValidTarget(target)) {
+            return new ArrayList<String>();
+        }
+        final List<String> packages = load(packagesKey(serverUrl, authenticationToken, project, target),
+                packagesLoader(serverUrl, authenticationToken, project, target));
+        if (packages == null) {
+            return null;
+        }
+        final List<String> packageNames = new ArrayList<String>();
+        for (final String packageName : packages) {
+            if (!"null".equals(packageName) && !packageName.startsWith("Deployment")) {
+                packageNames.add(packageName);
+            }
+        }
+        return packageNames;
+    }
+
+    public List<String> loadJobPlans(final String serverUrl, final String authenticationToken) {
+        if (StringUtils.isEmpty(serverUrl) || StringUtils.isEmpty(authenticationToken)) {
+            return new ArrayList<String>();
+        }
+        return load(jobPlansKey(serverUrl, authenticationToken), jobPlansLoader(serverUrl, authenticationToken));
+    }
+
+    public ListPage searchProjects(final String serverUrl, final String authenticationToken, final String prefix, final int offset,
+            final int limit) {
+        return ListPage.of(loadProjects(serverUrl, authenticationToken), prefix, offset, limit);
+    }
+
+    public ListPage searchTargets(final String serverUrl, final String authenticationToken, final String project, final String prefix,
+            final int offset, final int limit) {
+        return ListPage.of(loadTargets(serverUrl, authenticationToken, project), prefix, offset, limit);
+    }
+
+    public ListPage searchDeploymentPackages(final String serverUrl, final String authenticationToken, final String project, final String target,
+            final String prefix, final int offset, final int limit) {
+        return ListPage.of(loadDeploymentPackages(serverUrl, authenticationToken, project, target), prefix, offset, limit);
+    }
+
+    public ListPage searchJobPlans(final String serverUrl, final String authenticationToken, final String prefix, final int offset,
+            final int limit) {
+        return ListPage.of(loadJobPlans(serverUrl, authenticationToken), prefix, offset, limit);
+    }
+
+    private static List<String> load(final Key key, final Callable<List<String>> loader) {
+        try {
+            final List<String> values = RapidDeployMetadataCache.get().get(key, loader, LIST_WAIT_TIMEOUT);
+            if (values == null) {
+                LOG.debug("Still loading " + key);
+            }
+            return values;
+        } catch (final Exception e) {
+            LOG.warn(e.getMessage());
+            return new ArrayList<String>();
+        }
+    }
+
+    private static boolean isValidTarget(final String target) {
+        if (target == null || !target.contains(".")) {
+            return false;
+        }
+        final int targetObjects = target.split("\\.").length;
+        return targetObjects == 4 || targetObjects == 3;
+    }
+
+    private static Key projectsKey(final String serverUrl, final String authenticationToken) {
+        return RapidDeployMetadataCache.key(Resource.PROJECTS, serverUrl, authenticationToken, null, null);
+    }
+
+    private static Key targetsKey(final String serverUrl, final String authenticationToken, final String project) {
+        return RapidDeployMetadataCache.key(Resource.TARGETS, serverUrl, authenticationToken, project, null);
+    }
+
+    private static Key packagesKey(final String serverUrl, final String authenticationToken, final String project, final String target) {
+        return RapidDeployMetadataCache.key(Resource.PACKAGES, serverUrl, authenticationToken, project, target);
+    }
+
+    private static Key jobPlansKey(final String serverUrl, final String authenticationToken) {
+        return RapidDeployMetadataCache.key(Resource.JOB_PLANS, serverUrl, authenticationToken, null, null);
+    }
+
+    private static Callable<List<String>> projectsLoader(final String serverUrl, final String authenticationToken) {
+        return () -> {
+            LOG.debug("REQUEST TO WEB SERVICE GET PROJECTS...");
+            return RapidDeployClient.forServer(serverUrl).listProjects(authenticationToken);
+        };
+    }
+
+    private static Callable<List<String>> targetsLoader(final String serverUrl, final String authenticationToken, final String project) {
+        return () -> RapidDeployClient.forServer(serverUrl).listTargets(authenticationToken, project);
+    }
+
+    private static Callable<List<String>> packagesLoader(final String serverUrl, final String authenticationToken, final String project,
+            final String target) {
+        final String[] targetObjects = target.split("\\.");
+        return () -> {
+            if (targetObjects.length == 4) {
+                return RapidDeployClient.forServer(serverUrl).listPackages(authenticationToken, project, targetObjects[0], targetObjects[1],
+                        targetObjects[2]);
+            }
+            // support for RD v3.5+ - instance removed
+            return RapidDeployClient.forServer(serverUrl).listPackages(authenticationToken, project, targetObjects[0], targetObjects[1], null);
+        };
+    }
+
+    private static Callable<List<String>> jobPlansLoader(final String serverUrl, final String authenticationToken) {
+        return () -> {
+            LOG.debug("REQUEST TO WEB SERVICE GET JOB PLANS...");
+            final Map<String, String> jobPlansExtracted = RapidDeployClient.forServer(serverUrl).listJobPlans(authenticationToken);
+            return new ArrayList<String>(sortByJobPlanName(jobPlansExtracted).values());
+        };
+    }
+
+    /** Drops the cached lists of the given server and credentials, so they are retrieved again **/
+    public void refresh(final String serverUrl, final String authenticationToken) {
+        RapidDeployMetadataCache.get().refresh(serverUrl, authenticationToken);
+    }
+
     public String createPackagesTable(final String serverUrl, final String authenticationToken, final String project) {
         List<String> packageNames = new ArrayList<String>();
         try {
-            packageNames = RapidDeployConnector.invokeRapidDeployListPackages(authenticationToken, serverUrl, project);
+            packageNames = RapidDeployMetadataCache.get().get(
+                    RapidDeployMetadataCache.key(Resource.PACKAGES, serverUrl, authenticationToken, project, null),
+                    () -> RapidDeployClient.forServer(serverUrl).listPackages(authenticationToken, project));
         } catch (final Exception e) {
             LOG.warn(e.getMessage());
         }
+        return createPackagesTable(packageNames);
+    }
+
+    /**
+     * @return the HTML table with the first deployment package names, or <code>null</code> if there is none.
+     */
+    static String createPackagesTable(final List<String> packageNames) {
         if (!packageNames.isEmpty()) {
             final StringBuffer sb = new StringBuffer();
             sb.append("<table>");
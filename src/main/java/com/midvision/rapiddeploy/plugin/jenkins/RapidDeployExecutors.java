@@ -0,0 +1,117 @@
+package com.midvision.rapiddeploy.plugin.jenkins;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+
+/**
+ * Thread pools shared by the whole plugin. The scheduler only keeps track of time and must never block, every call to the RapidDeploy server runs
+ * on one of the bounded pools instead:
+ * <ul>
+ * <li>the request pool sends the requests of the build steps and reports the results of their jobs, which may take as long as the server does;
+ * <li>the worker pool runs the job status checks and the list loads of the configuration pages, which a burst of builds must not hold up.
+ * </ul>
+ * Both are sized by system properties, the default sizes allowing 10 builds to talk to RapidDeploy at the same time while the status checks of
+ * every other build go on.
+ */
+public final class RapidDeployExecutors {
+
+    /** Maximum number of concurrent status checks and list loads **/
+    public static final int WORKER_THREADS = Integer.getInteger(RapidDeployExecutors.class.getName() + ".workerThreads", 10);
+
+    /** Maximum number of build step requests and job result reports running at the same time, across all builds **/
+    public static final int REQUEST_THREADS = Integer.getInteger(RapidDeployExecutors.class.getName() + ".requestThreads", 10);
+
+    /** Maximum number of job logs retrieved at the same time, across all builds **/
+    public static final int LOG_FETCHER_THREADS = Integer.getInteger(RapidDeployExecutors.class.getName() + ".logFetcherThreads", 16);
+
+    private RapidDeployExecutors() {
+    }
+
+    public static ScheduledExecutorService scheduler() {
+        return SchedulerHolder.SCHEDULER;
+    }
+
+    public static ExecutorService workers() {
+        return WorkersHolder.WORKERS;
+    }
+
+    /**
+     * Pool sending the requests of the build steps and reporting the results of their jobs. It is kept apart from the workers so that builds
+     * waiting for a slow server do not delay the status checks of the other jobs.
+     */
+    public static ExecutorService requests() {
+        return RequestsHolder.REQUESTS;
+    }
+
+    /**
+     * Pool only used to retrieve job logs. It is kept apart from the workers because a worker reporting a job result waits for these fetches.
+     */
+    public static ExecutorService logFetchers() {
+        return LogFetchersHolder.LOG_FETCHERS;
+    }
+
+    /**
+     * Pool running the HTTP calls of the RapidDeploy clients, so that the caller can give up on a call after its timeout. It is not bounded: the
+     * clients already limit the concurrent calls of each server, and a thread only outlives its call when the server never answers.
+     */
+    public static ExecutorService calls() {
+        return CallsHolder.CALLS;
+    }
+
+    private static final class SchedulerHolder {
+        private static final ScheduledExecutorService SCHEDULER = createScheduler();
+
+        private static ScheduledExecutorService createScheduler() {
+            final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1,
+                    new NamingThreadFactory(new DaemonThreadFactory(), "RapidDeploy scheduler"));
+            scheduler.setRemoveOnCancelPolicy(true);
+            return scheduler;
+        }
+    }
+
+    private static final class WorkersHolder {
+        private static final ExecutorService WORKERS = createWorkers();
+
+        private static ExecutorService createWorkers() {
+            final ThreadPoolExecutor workers = new ThreadPoolExecutor(WORKER_THREADS, WORKER_THREADS, 60L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), new NamingThreadFactory(new DaemonThreadFactory(), "RapidDeploy worker"));
+            workers.allowCoreThreadTimeOut(true);
+            return workers;
+        }
+    }
+
+    private static final class RequestsHolder {
+        private static final ExecutorService REQUESTS = createRequests();
+
+        private static ExecutorService createRequests() {
+            final ThreadPoolExecutor requests = new ThreadPoolExecutor(REQUEST_THREADS, REQUEST_THREADS, 60L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), new NamingThreadFactory(new DaemonThreadFactory(), "RapidDeploy request"));
+            requests.allowCoreThreadTimeOut(true);
+            return requests;
+        }
+    }
+
+    private static final class LogFetchersHolder {
+        private static final ExecutorService LOG_FETCHERS = createLogFetchers();
+
+        private static ExecutorService createLogFetchers() {
+            final ThreadPoolExecutor logFetchers = new ThreadPoolExecutor(LOG_FETCHER_THREADS, LOG_FETCHER_THREADS, 60L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), new NamingThreadFactory(new DaemonThreadFactory(), "RapidDeploy log fetcher"));
+            logFetchers.allowCoreThreadTimeOut(true);
+            return logFetchers;
+        }
+    }
+
+    private static final class CallsHolder {
+        private static final ExecutorService CALLS = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS,
+                new SynchronousQueue<Runnable>(), new NamingThreadFactory(new DaemonThreadFactory(), "RapidDeploy call"));
+    }
+}
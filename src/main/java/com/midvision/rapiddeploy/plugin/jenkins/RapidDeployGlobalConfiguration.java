@@ -0,0 +1,224 @@
+package com.midvision.rapiddeploy.plugin.jenkins;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.lang.StringUtils;
+import org.jenkinsci.Symbol;
+import org.kohsuke.stapler.DataBoundSetter;
+import org.kohsuke.stapler.StaplerRequest;
+
+import com.midvision.rapiddeploy.plugin.jenkins.cache.RapidDeployMetadataCache;
+import com.midvision.rapiddeploy.plugin.jenkins.client.RapidDeployClient;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.BackoffPollingStrategy;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.GlobalPollingStrategy;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.PollingStrategy;
+
+import hudson.Extension;
+import hudson.model.Descriptor;
+import hudson.util.Secret;
+import jenkins.model.GlobalConfiguration;
+import net.sf.json.JSONObject;
+
+/**
+ * Settings shared by every RapidDeploy build step, shown in the Jenkins global configuration page.
+ */
+@Extension
+@Symbol("rapidDeploy")
+public class RapidDeployGlobalConfiguration extends GlobalConfiguration {
+
+    public static final int DEFAULT_MAX_CONNECTIONS = 20;
+    public static final long DEFAULT_PERMIT_WAIT_TIMEOUT = 60L;
+    public static final long DEFAULT_CALL_TIMEOUT = 300L;
+    public static final long DEFAULT_CACHE_TTL = 300L;
+    public static final int DEFAULT_CACHE_SIZE = 500;
+    public static final int DEFAULT_LOG_FETCH_PARALLELISM = 4;
+    public static final int DEFAULT_CONSOLE_LOG_LINES = 50;
+
+    private PollingStrategy pollingStrategy;
+    private int maxConnections = DEFAULT_MAX_CONNECTIONS;
+    private long permitWaitTimeout = DEFAULT_PERMIT_WAIT_TIMEOUT;
+    @Deprecated
+    private transient long connectionTimeout;
+    private long callTimeout = DEFAULT_CALL_TIMEOUT;
+    private long cacheTtl = DEFAULT_CACHE_TTL;
+    private int cacheSize = DEFAULT_CACHE_SIZE;
+    private int logFetchParallelism = DEFAULT_LOG_FETCH_PARALLELISM;
+    private boolean archiveLogs;
+    private int consoleLogLines = DEFAULT_CONSOLE_LOG_LINES;
+    private Secret webhookToken;
+    private List<RapidDeployServer> servers = new ArrayList<RapidDeployServer>();
+
+    public RapidDeployGlobalConfiguration() {
+        load();
+        // The wait for a free connection slot was saved as the connection timeout by the previous versions
+        if (connectionTimeout > 0) {
+            permitWaitTimeout = connectionTimeout;
+            connectionTimeout = 0;
+        }
+    }
+
+    public static RapidDeployGlobalConfiguration get() {
+        return GlobalConfiguration.all().get(RapidDeployGlobalConfiguration.class);
+    }
+
+    public PollingStrategy getPollingStrategy() {
+        if (pollingStrategy == null || pollingStrategy instanceof GlobalPollingStrategy) {
+            return new BackoffPollingStrategy();
+        }
+        return pollingStrategy;
+    }
+
+    @DataBoundSetter
+    public void setPollingStrategy(final PollingStrategy pollingStrategy) {
+        this.pollingStrategy = pollingStrategy;
+    }
+
+    /** Maximum number of concurrent connections to a single RapidDeploy server **/
+    public int getMaxConnections() {
+        return maxConnections > 0 ? maxConnections : DEFAULT_MAX_CONNECTIONS;
+    }
+
+    @DataBoundSetter
+    public void setMaxConnections(final int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    /** Maximum seconds a call waits for a free connection slot of a RapidDeploy server, not a timeout of the HTTP connection itself **/
+    public long getPermitWaitTimeout() {
+        return permitWaitTimeout > 0 ? permitWaitTimeout : DEFAULT_PERMIT_WAIT_TIMEOUT;
+    }
+
+    @DataBoundSetter
+    public void setPermitWaitTimeout(final long permitWaitTimeout) {
+        this.permitWaitTimeout = permitWaitTimeout;
+    }
+
+    /** Maximum seconds a caller waits for the answer to a call made to a RapidDeploy server **/
+    public long getCallTimeout() {
+        return callTimeout > 0 ? callTimeout : DEFAULT_CALL_TIMEOUT;
+    }
+
+    @DataBoundSetter
+    public void setCallTimeout(final long callTimeout) {
+        this.callTimeout = callTimeout;
+    }
+
+    /** Seconds the lists retrieved from RapidDeploy are kept in the cache **/
+    public long getCacheTtl() {
+        return cacheTtl >= 0 ? cacheTtl : DEFAULT_CACHE_TTL;
+    }
+
+    @DataBoundSetter
+    public void setCacheTtl(final long cacheTtl) {
+        this.cacheTtl = cacheTtl;
+    }
+
+    /** Maximum number of lists kept in the cache **/
+    public int getCacheSize() {
+        return cacheSize > 0 ? cacheSize : DEFAULT_CACHE_SIZE;
+    }
+
+    @DataBoundSetter
+    public void setCacheSize(final int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    /** Maximum number of individual job logs retrieved at the same time for a single job plan **/
+    public int getLogFetchParallelism() {
+        return logFetchParallelism > 0 ? logFetchParallelism : DEFAULT_LOG_FETCH_PARALLELISM;
+    }
+
+    @DataBoundSetter
+    public void setLogFetchParallelism(final int logFetchParallelism) {
+        this.logFetchParallelism = logFetchParallelism;
+    }
+
+    /** Whether the full job logs are written to files in the build directory instead of the console **/
+    public boolean isArchiveLogs() {
+        return archiveLogs;
+    }
+
+    @DataBoundSetter
+    public void setArchiveLogs(final boolean archiveLogs) {
+        this.archiveLogs = archiveLogs;
+    }
+
+    /** Number of lines shown in the console from the start and the end of an archived log **/
+    public int getConsoleLogLines() {
+        return consoleLogLines >= 0 ? consoleLogLines : DEFAULT_CONSOLE_LOG_LINES;
+    }
+
+    @DataBoundSetter
+    public void setConsoleLogLines(final int consoleLogLines) {
+        this.consoleLogLines = consoleLogLines;
+    }
+
+    /** Token the RapidDeploy server has to send to notify job status changes, the notifications are disabled if empty **/
+    public Secret getWebhookToken() {
+        return webhookToken;
+    }
+
+    @DataBoundSetter
+    public void setWebhookToken(final Secret webhookToken) {
+        this.webhookToken = webhookToken;
+    }
+
+    /** RapidDeploy servers the build steps can reference by ID **/
+    public List<RapidDeployServer> getServers() {
+        return servers != null ? Collections.unmodifiableList(servers) : Collections.<RapidDeployServer> emptyList();
+    }
+
+    @DataBoundSetter
+    public void setServers(final List<RapidDeployServer> servers) {
+        this.servers = servers != null ? new ArrayList<RapidDeployServer>(servers) : new ArrayList<RapidDeployServer>();
+    }
+
+    /**
+     * @return the server with the given ID, or <code>null</code> if there is none.
+     */
+    public RapidDeployServer getServer(final String id) {
+        for (final RapidDeployServer server : getServers()) {
+            if (server.getId().equals(id)) {
+                return server;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the first server with the given URL, ignoring a trailing slash, or <code>null</code> if there is none.
+     */
+    public RapidDeployServer getServerByUrl(final String url) {
+        final String normalizedUrl = StringUtils.removeEnd(StringUtils.trimToEmpty(url), "/");
+        for (final RapidDeployServer server : getServers()) {
+            if (StringUtils.removeEnd(server.getUrl(), "/").equalsIgnoreCase(normalizedUrl)) {
+                return server;
+            }
+        }
+        return null;
+    }
+
+    /** The global default can not point to itself **/
+    public List<Descriptor<PollingStrategy>> getPollingStrategyDescriptors() {
+        final List<Descriptor<PollingStrategy>> descriptors = new ArrayList<Descriptor<PollingStrategy>>();
+        for (final Descriptor<PollingStrategy> descriptor : PollingStrategy.all()) {
+            if (!(descriptor instanceof GlobalPollingStrategy.DescriptorImpl)) {
+                descriptors.add(descriptor);
+            }
+        }
+        return descriptors;
+    }
+
+    @Override
+    public boolean configure(final StaplerRequest req, final JSONObject json) throws FormException {
+        pollingStrategy = null;
+        servers = new ArrayList<RapidDeployServer>();
+        req.bindJSON(this, json);
+        save();
+        RapidDeployClient.reset();
+        RapidDeployMetadataCache.get().clear();
+        return true;
+    }
+}
@@ -0,0 +1,206 @@
+package com.midvision.rapiddeploy.plugin.jenkins;
+
+import org.apache.commons.lang.StringUtils;
+import org.jenkinsci.plugins.plaincredentials.StringCredentials;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.interceptor.RequirePOST;
+
+import com.cloudbees.plugins.credentials.CredentialsMatchers;
+import com.cloudbees.plugins.credentials.CredentialsProvider;
+import com.cloudbees.plugins.credentials.common.StandardListBoxModel;
+import com.cloudbees.plugins.credentials.domains.URIRequirementBuilder;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.PollingStrategy;
+
+import hudson.AbortException;
+import hudson.Extension;
+import hudson.model.AbstractDescribableImpl;
+import hudson.model.Descriptor;
+import hudson.model.Item;
+import hudson.model.Run;
+import hudson.security.ACL;
+import hudson.util.FormValidation;
+import hudson.util.ListBoxModel;
+import jenkins.model.Jenkins;
+
+/**
+ * RapidDeploy server defined once in the global configuration and referenced by ID from the build steps. The authentication token is read from
+ * a Jenkins secret text credential, and the server can override the global connection and polling settings. Every step using the server shares
+ * its client, its cache entries and its batched status checks.
+ */
+public class RapidDeployServer extends AbstractDescribableImpl<RapidDeployServer> {
+
+    private final String id;
+    private final String name;
+    private final String url;
+    private final String credentialsId;
+    private int maxConnections;
+    private long permitWaitTimeout;
+    @Deprecated
+    private transient long connectionTimeout;
+    private long callTimeout;
+    private PollingStrategy pollingStrategy;
+
+    @DataBoundConstructor
+    public RapidDeployServer(final String id, final String name, final String url, final String credentialsId) {
+        this.id = StringUtils.trimToEmpty(id);
+        this.name = StringUtils.trimToNull(name);
+        this.url = StringUtils.trimToEmpty(url);
+        this.credentialsId = StringUtils.trimToNull(credentialsId);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getCredentialsId() {
+        return credentialsId;
+    }
+
+    /** Maximum number of concurrent connections to the server, 0 to use the global setting **/
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    @DataBoundSetter
+    public void setMaxConnections(final int maxConnections) {
+        this.maxConnections = Math.max(0, maxConnections);
+    }
+
+    /** Maximum seconds a call waits for a free connection slot of the server, 0 to use the global setting **/
+    public long getPermitWaitTimeout() {
+        return permitWaitTimeout;
+    }
+
+    @DataBoundSetter
+    public void setPermitWaitTimeout(final long permitWaitTimeout) {
+        this.permitWaitTimeout = Math.max(0L, permitWaitTimeout);
+    }
+
+    /** Maximum seconds a caller waits for the answer to a call made to the server, 0 to use the global setting **/
+    public long getCallTimeout() {
+        return callTimeout;
+    }
+
+    @DataBoundSetter
+    public void setCallTimeout(final long callTimeout) {
+        this.callTimeout = Math.max(0L, callTimeout);
+    }
+
+    /** The wait for a free connection slot was saved as the connection timeout by the previous versions **/
+    protected Object readResolve() {
+        if (connectionTimeout > 0) {
+            permitWaitTimeout = connectionTimeout;
+            connectionTimeout = 0;
+        }
+        return this;
+    }
+
+    /** Polling strategy of the steps using the server that do not set their own, <code>null</code> to use the global one **/
+    public PollingStrategy getPollingStrategy() {
+        return pollingStrategy;
+    }
+
+    @DataBoundSetter
+    public void setPollingStrategy(final PollingStrategy pollingStrategy) {
+        this.pollingStrategy = pollingStrategy;
+    }
+
+    public String getDisplayName() {
+        return (name != null ? name : id) + " (" + url + ")";
+    }
+
+    /**
+     * @return the authentication token of the server, available to the given build. The use of the credential is tracked against the build.
+     */
+    public String getAuthenticationToken(final Run<?, ?> build) throws AbortException {
+        if (credentialsId == null) {
+            throw new AbortException("No credential is set for the RapidDeploy server " + id + ".");
+        }
+        final StringCredentials credentials = CredentialsProvider.findCredentialById(credentialsId, StringCredentials.class, build,
+                URIRequirementBuilder.fromUri(url).build());
+        if (credentials == null) {
+            throw new AbortException("The credential " + credentialsId + " of the RapidDeploy server " + id + " was not found.");
+        }
+        CredentialsProvider.track(build, credentials);
+        return credentials.getSecret().getPlainText();
+    }
+
+    /**
+     * @return the authentication token of the server, available to the given item, or <code>null</code> if it can not be found. Used to fill
+     *         the configuration pages.
+     */
+    public String getAuthenticationToken(final Item item) {
+        if (credentialsId == null) {
+            return null;
+        }
+        final StringCredentials credentials = CredentialsMatchers.firstOrNull(
+                CredentialsProvider.lookupCredentials(StringCredentials.class, item, ACL.SYSTEM, URIRequirementBuilder.fromUri(url).build()),
+                CredentialsMatchers.withId(credentialsId));
+        return credentials != null ? credentials.getSecret().getPlainText() : null;
+    }
+
+    /**
+     * @return the servers to choose from in a build step, the first option keeping the server URL and token set in the step.
+     */
+    public static ListBoxModel fillServerIdItems() {
+        final ListBoxModel items = new ListBoxModel();
+        items.add("Server URL and token below", "");
+        final RapidDeployGlobalConfiguration configuration = RapidDeployGlobalConfiguration.get();
+        if (configuration != null) {
+            for (final RapidDeployServer server : configuration.getServers()) {
+                items.add(server.getDisplayName(), server.getId());
+            }
+        }
+        return items;
+    }
+
+    @Extension
+    public static final class DescriptorImpl extends Descriptor<RapidDeployServer> {
+
+        @Override
+        public String getDisplayName() {
+            return "RapidDeploy server";
+        }
+
+        @RequirePOST
+        public FormValidation doCheckId(@QueryParameter final String value) {
+            Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+            if (StringUtils.isBlank(value)) {
+                return FormValidation.error(RapidDeployConnectorProxy.NOT_EMPTY_MESSAGE);
+            }
+            return FormValidation.ok();
+        }
+
+        @RequirePOST
+        public FormValidation doCheckUrl(@QueryParameter final String value) {
+            Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+            if (StringUtils.isBlank(value)) {
+                return FormValidation.error(RapidDeployConnectorProxy.NOT_EMPTY_MESSAGE);
+            } else if (!value.startsWith("http://") && !value.startsWith("https://")) {
+                return FormValidation.warning(RapidDeployConnectorProxy.NO_PROTOCOL_MESSAGE);
+            }
+            return FormValidation.ok();
+        }
+
+        @RequirePOST
+        public ListBoxModel doFillCredentialsIdItems(@QueryParameter final String url, @QueryParameter final String credentialsId) {
+            if (!Jenkins.get().hasPermission(Jenkins.ADMINISTER)) {
+                return new StandardListBoxModel().includeCurrentValue(credentialsId);
+            }
+            return new StandardListBoxModel().includeEmptyValue()
+                    .includeMatchingAs(ACL.SYSTEM, Jenkins.get(), StringCredentials.class, URIRequirementBuilder.fromUri(url).build(),
+                            CredentialsMatchers.always())
+                    .includeCurrentValue(credentialsId);
+        }
+    }
+}
@@ -1,29 +1,21 @@
 package com.midvision.rapiddeploy.plugin.jenkins.buildstep;
 
-import java.io.IOException;
-
-import javax.servlet.ServletException;
-
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
-import org.kohsuke.stapler.AncestorInPath;
 import org.kohsuke.stapler.DataBoundConstructor;
-import org.kohsuke.stapler.QueryParameter;
-import org.kohsuke.stapler.interceptor.RequirePOST;
+import org.kohsuke.stapler.DataBoundSetter;
 
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnection;
 import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy;
+import com.midvision.rapiddeploy.plugin.jenkins.descriptor.RapidDeployJobPlanRunnerDescriptor;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.PollingStrategy;
 
+import hudson.AbortException;
 import hudson.Extension;
 import hudson.Launcher;
+import hudson.Util;
 import hudson.model.AbstractBuild;
-import hudson.model.AbstractProject;
 import hudson.model.BuildListener;
-import hudson.model.Item;
-import hudson.tasks.BuildStepDescriptor;
 import hudson.tasks.BuildStepMonitor;
 import hudson.tasks.Builder;
-import hudson.util.FormValidation;
-import hudson.util.ListBoxModel;
 
 public class RapidDeployJobPlanRunner extends Builder {
 
@@ -33,8 +25,8 @@ public class RapidDeployJobPlanRunner extends Builder {
 	private final Boolean asynchronousJob;
 	private final Boolean showIndividualLogs;
 	private final Boolean showFullLog;
-
-	private static final Log logger = LogFactory.getLog(RapidDeployJobPlanRunner.class);
+	private PollingStrategy pollingStrategy;
+	private String serverId;
 
 	@DataBoundConstructor
 	public RapidDeployJobPlanRunner(final String serverUrl, final String authenticationToken, final String jobPlan, final Boolean asynchronousJob,
@@ -50,7 +42,15 @@ public class RapidDeployJobPlanRunner extends Builder {
 
 	@Override
 	public boolean perform(final AbstractBuild<?, ?> build, final Launcher launcher, final BuildListener listener) {
-		return RapidDeployConnectorProxy.performJobPlanRun(listener, serverUrl, authenticationToken, jobPlan, asynchronousJob, showIndividualLogs, showFullLog);
+		final RapidDeployConnection connection;
+		try {
+			connection = RapidDeployConnection.resolve(serverId, serverUrl, authenticationToken, build);
+		} catch (final AbortException e) {
+			listener.getLogger().println(e.getMessage());
+			return false;
+		}
+		return RapidDeployConnectorProxy.performJobPlanRun(build, listener, connection.getServerUrl(), connection.getAuthenticationToken(),
+				jobPlan, asynchronousJob, showIndividualLogs, showFullLog, connection.getPollingStrategy(pollingStrategy));
 	}
 
 	public String getServerUrl() {
@@ -77,6 +77,25 @@ public class RapidDeployJobPlanRunner extends Builder {
 		return showFullLog;
 	}
 
+	public PollingStrategy getPollingStrategy() {
+		return pollingStrategy;
+	}
+
+	@DataBoundSetter
+	public void setPollingStrategy(final PollingStrategy pollingStrategy) {
+		this.pollingStrategy = pollingStrategy;
+	}
+
+	/** ID of the RapidDeploy server of the global configuration to use instead of the server URL and authentication token **/
+	public String getServerId() {
+		return serverId;
+	}
+
+	@DataBoundSetter
+	public void setServerId(final String serverId) {
+		this.serverId = Util.fixEmptyAndTrim(serverId);
+	}
+
 	public BuildStepMonitor getRequiredMonitorService() {
 		return BuildStepMonitor.NONE;
 	}
@@ -85,102 +104,11 @@ public class RapidDeployJobPlanRunner extends Builder {
 	 * Descriptor for {@link RapidDeployJobPlanRunner}. Used as a singleton. The class is marked as public so that it can be accessed from views.
 	 */
 	@Extension
-	public static final class DescriptorImpl extends BuildStepDescriptor<Builder> {
-
-		final private RapidDeployConnectorProxy rdProxy = new RapidDeployConnectorProxy();
+	public static final class DescriptorImpl extends RapidDeployJobPlanRunnerDescriptor<Builder> {
 
 		public DescriptorImpl() {
 			super(RapidDeployJobPlanRunner.class);
 			load();
 		}
-
-		@SuppressWarnings("rawtypes")
-		@Override
-		public boolean isApplicable(final Class<? extends AbstractProject> aClass) {
-			// Indicates that this builder can be used with all kinds of project
-			// types
-			return true;
-		}
-
-		/**
-		 * This human readable name is used in the configuration screen.
-		 */
-		@Override
-		public String getDisplayName() {
-			return "RapidDeploy job plan runner";
-		}
-
-		/** SERVER URL FIELD **/
-		@RequirePOST
-		public FormValidation doCheckServerUrl(@QueryParameter final String value, @AncestorInPath final Item item) throws IOException, ServletException {
-			logger.debug("doCheckServerUrl");
-			if (item == null) {
-				return FormValidation.ok();
-			}
-			if (!item.hasPermission(Item.CONFIGURE)) {
-				return FormValidation.warning(RapidDeployConnectorProxy.INSUFFICIENT_PERMISSIONS_MESSAGE);
-			}
-			rdProxy.setNewConnection(true);
-			if (value.length() == 0) {
-				return FormValidation.error(RapidDeployConnectorProxy.NOT_EMPTY_MESSAGE);
-			} else if (!value.startsWith("http://") && !value.startsWith("https://")) {
-				return FormValidation.warning(RapidDeployConnectorProxy.NO_PROTOCOL_MESSAGE);
-			}
-			return FormValidation.ok();
-		}
-
-		/** AUTHENTICATION TOKEN FIELD **/
-		@RequirePOST
-		public FormValidation doCheckAuthenticationToken(@QueryParameter final String value, @AncestorInPath final Item item)
-				throws IOException, ServletException {
-			logger.debug("doCheckAuthenticationToken");
-			if (item == null) {
-				return FormValidation.ok();
-			}
-			if (!item.hasPermission(Item.CONFIGURE)) {
-				return FormValidation.warning(RapidDeployConnectorProxy.INSUFFICIENT_PERMISSIONS_MESSAGE);
-			}
-			rdProxy.setNewConnection(true);
-			if (value.length() == 0) {
-				return FormValidation.error(RapidDeployConnectorProxy.NOT_EMPTY_MESSAGE);
-			}
-			return FormValidation.ok();
-		}
-
-		/** LOAD JOB PLANS BUTTON **/
-		@RequirePOST
-		public FormValidation doLoadJobPlans(@QueryParameter("serverUrl") final String serverUrl,
-				@QueryParameter("authenticationToken") final String authenticationToken, @AncestorInPath final Item item) throws IOException, ServletException {
-			logger.debug("doLoadJobPlans");
-			if (item == null) {
-				return FormValidation.ok();
-			}
-			if (!item.hasPermission(Item.CONFIGURE)) {
-				return FormValidation.warning(RapidDeployConnectorProxy.INSUFFICIENT_PERMISSIONS_MESSAGE);
-			}
-			rdProxy.setNewConnection(true);
-			if (rdProxy.getJobPlans(serverUrl, authenticationToken).isEmpty()) {
-				return FormValidation.error(RapidDeployConnectorProxy.CONNECTION_BAD_MESSAGE);
-			}
-			return FormValidation.ok();
-		}
-
-		/** JOB PLANS FIELD **/
-		@RequirePOST
-		public ListBoxModel doFillJobPlanItems(@QueryParameter("serverUrl") final String serverUrl,
-				@QueryParameter("authenticationToken") final String authenticationToken, @AncestorInPath final Item item) {
-			logger.debug("doFillJobPlans");
-			final ListBoxModel listBoxItems = new ListBoxModel();
-			if (item == null) {
-				return listBoxItems;
-			}
-			if (!item.hasPermission(Item.CONFIGURE)) {
-				return listBoxItems.add("No items retrieved. " + RapidDeployConnectorProxy.INSUFFICIENT_PERMISSIONS_MESSAGE);
-			}
-			for (final String jobPlan : rdProxy.getJobPlans(serverUrl, authenticationToken)) {
-				listBoxItems.add(jobPlan);
-			}
-			return listBoxItems;
-		}
 	}
 }
@@ -0,0 +1,93 @@
+package com.midvision.rapiddeploy.plugin.jenkins.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+
+/**
+ * A page of one of the lists retrieved from a RapidDeploy server, restricted to the values starting with a given prefix. A page with no values
+ * and the loading flag set is returned while the list is still being retrieved.
+ */
+public final class ListPage {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    private final List<String> values;
+    private final int total;
+    private final int offset;
+    private final int limit;
+    private final boolean loading;
+
+    private ListPage(final List<String> values, final int total, final int offset, final int limit, final boolean loading) {
+        this.values = values;
+        this.total = total;
+        this.offset = offset;
+        this.limit = limit;
+        this.loading = loading;
+    }
+
+    /**
+     * @param allValues the whole list, or <code>null</code> if it is still loading.
+     * @param prefix only the values starting with it, ignoring case, are included. All values are included if empty.
+     */
+    public static ListPage of(final List<String> allValues, final String prefix, final int offset, final int limit) {
+        final int pageOffset = Math.max(0, offset);
+        final int pageLimit = limit > 0 ? Math.min(limit, MAX_LIMIT) : DEFAULT_LIMIT;
+        if (allValues == null) {
+            return new ListPage(Collections.<String> emptyList(), 0, pageOffset, pageLimit, true);
+        }
+        final String lowerCasePrefix = prefix != null ? prefix.trim().toLowerCase(Locale.ENGLISH) : "";
+        final List<String> values = new ArrayList<String>();
+        int total = 0;
+        for (final String value : allValues) {
+            if (lowerCasePrefix.isEmpty() || value.toLowerCase(Locale.ENGLISH).startsWith(lowerCasePrefix)) {
+                if (total >= pageOffset && values.size() < pageLimit) {
+                    values.add(value);
+                }
+                total++;
+            }
+        }
+        return new ListPage(values, total, pageOffset, pageLimit, false);
+    }
+
+    public List<String> getValues() {
+        return values;
+    }
+
+    /** Number of values matching the prefix, across all pages **/
+    public int getTotal() {
+        return total;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public boolean isLoading() {
+        return loading;
+    }
+
+    public boolean hasMore() {
+        return offset + values.size() < total;
+    }
+
+    public JSONObject toJSON() {
+        final JSONObject json = new JSONObject();
+        json.put("values", JSONArray.fromObject(values));
+        json.put("total", total);
+        json.put("offset", offset);
+        json.put("limit", limit);
+        json.put("hasMore", hasMore());
+        json.put("loading", loading);
+        return json;
+    }
+}
@@ -0,0 +1,322 @@
+package com.midvision.rapiddeploy.plugin.jenkins.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployExecutors;
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployGlobalConfiguration;
+
+import hudson.Util;
+import jenkins.model.Jenkins;
+
+/**
+ * Cache of the lists retrieved from RapidDeploy servers to fill the configuration pages: projects, targets, deployment packages and job plans.
+ * Entries are keyed by server, credentials, resource and project/target, expire after a configurable time and the least recently used ones are
+ * evicted when the cache is full. The cache is safe to use from any number of concurrent configuration page requests.
+ * <p>
+ * Every refresh starts a new generation of the cache. A load started in an older generation still answers the callers waiting for it, but its
+ * list is not stored: it may have been read from the server before the change the refresh was made for.
+ */
+public final class RapidDeployMetadataCache {
+
+    private static final Log LOG = LogFactory.getLog(RapidDeployMetadataCache.class);
+
+    private static final RapidDeployMetadataCache INSTANCE = new RapidDeployMetadataCache();
+
+    public enum Resource {
+        PROJECTS, TARGETS, PACKAGES, JOB_PLANS
+    }
+
+    private final ConcurrentMap<Key, Entry> entries = new ConcurrentHashMap<Key, Entry>();
+    private final ConcurrentMap<Key, CompletableFuture<List<String>>> loads = new ConcurrentHashMap<Key, CompletableFuture<List<String>>>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    /** Bumped by every refresh, guarded by the cache lock **/
+    private long generation;
+
+    private RapidDeployMetadataCache() {
+    }
+
+    public static RapidDeployMetadataCache get() {
+        return INSTANCE;
+    }
+
+    public static Key key(final Resource resource, final String serverUrl, final String authenticationToken, final String project,
+            final String target) {
+        return new Key(resource, serverUrl, authenticationToken, project, target);
+    }
+
+    /**
+     * Returns the cached list for the given key, calling the loader if there is no valid entry. Failed loads are not cached.
+     * <p>
+     * Entries are never modified once created: a load swaps the whole entry, so concurrent readers always see either the previous or the new list.
+     * Concurrent callers missing the same key share a single load and get the same result or failure.
+     */
+    public List<String> get(final Key key, final Callable<List<String>> loader) throws Exception {
+        final Entry entry = entries.get(key);
+        if (entry != null && entry.expiryTime > System.currentTimeMillis()) {
+            hits.incrementAndGet();
+            entry.lastAccessTime = System.currentTimeMillis();
+            return entry.values;
+        }
+        misses.incrementAndGet();
+        final CompletableFuture<List<String>> load = new CompletableFuture<List<String>>();
+        final CompletableFuture<List<String>> inFlightLoad = loads.putIfAbsent(key, load);
+        if (inFlightLoad != null) {
+            coalesced.incrementAndGet();
+            LOG.debug("Waiting for the load in progress of " + key);
+            return await(inFlightLoad);
+        }
+        LOG.debug("Cache miss for " + key);
+        runLoad(key, loader, load, getGeneration());
+        return await(load);
+    }
+
+    /**
+     * Same as {@link #get(Key, Callable)}, but a missing list is loaded on the worker pool and the caller waits for it at most the given time.
+     *
+     * @return the list, or <code>null</code> if it is still loading. The load goes on in the background and a later call gets its result.
+     */
+    public List<String> get(final Key key, final Callable<List<String>> loader, final long timeoutMillis) throws Exception {
+        final Entry entry = entries.get(key);
+        if (entry != null && entry.expiryTime > System.currentTimeMillis()) {
+            hits.incrementAndGet();
+            entry.lastAccessTime = System.currentTimeMillis();
+            return entry.values;
+        }
+        misses.incrementAndGet();
+        final CompletableFuture<List<String>> load = new CompletableFuture<List<String>>();
+        final CompletableFuture<List<String>> inFlightLoad = loads.putIfAbsent(key, load);
+        if (inFlightLoad != null) {
+            coalesced.incrementAndGet();
+            return await(inFlightLoad, timeoutMillis);
+        }
+        LOG.debug("Cache miss for " + key + ", loading it in the background");
+        final long loadGeneration = getGeneration();
+        try {
+            RapidDeployExecutors.workers().execute(new Runnable() {
+                @Override
+                public void run() {
+                    runLoad(key, loader, load, loadGeneration);
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            loads.remove(key, load);
+            throw e;
+        }
+        return await(load, timeoutMillis);
+    }
+
+    private void runLoad(final Key key, final Callable<List<String>> loader, final CompletableFuture<List<String>> load,
+            final long loadGeneration) {
+        try {
+            final List<String> values = Collections.unmodifiableList(new ArrayList<String>(loader.call()));
+            if (store(key, new Entry(values, System.currentTimeMillis() + getTtl() * 1000L), loadGeneration)) {
+                evictIfFull();
+            } else {
+                LOG.debug("Dropping the list of " + key + " loaded before a refresh");
+            }
+            load.complete(values);
+        } catch (final Exception e) {
+            load.completeExceptionally(e);
+        } finally {
+            loads.remove(key, load);
+        }
+    }
+
+    private synchronized long getGeneration() {
+        return generation;
+    }
+
+    /** Checked and stored under the lock, so a refresh can not come in between **/
+    private synchronized boolean store(final Key key, final Entry entry, final long loadGeneration) {
+        if (loadGeneration != generation) {
+            return false;
+        }
+        entries.put(key, entry);
+        return true;
+    }
+
+    private static List<String> await(final CompletableFuture<List<String>> load) throws Exception {
+        try {
+            return load.get();
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static List<String> await(final CompletableFuture<List<String>> load, final long timeoutMillis) throws Exception {
+        try {
+            return load.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (final TimeoutException e) {
+            return null;
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Drops every entry of the given server and credentials, so the next calls retrieve fresh lists. Entries of other servers or credentials
+     * are not affected, though their loads in progress are not stored either.
+     */
+    public synchronized void refresh(final String serverUrl, final String authenticationToken) {
+        generation++;
+        final Key serverKey = new Key(null, serverUrl, authenticationToken, null, null);
+        entries.keySet().removeIf(key -> key.isSameServer(serverKey));
+        // The next calls do not wait for the loads in progress, they start new ones
+        loads.keySet().removeIf(key -> key.isSameServer(serverKey));
+    }
+
+    public synchronized void refresh(final Key key) {
+        generation++;
+        entries.remove(key);
+        loads.remove(key);
+    }
+
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+        loads.clear();
+    }
+
+    /** Drops the least recently used entries, expired ones first, until the cache is back to its maximum size **/
+    private void evictIfFull() {
+        final int maxSize = getMaxSize();
+        if (entries.size() <= maxSize) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        final List<Map.Entry<Key, Entry>> candidates = new ArrayList<Map.Entry<Key, Entry>>(entries.entrySet());
+        candidates.sort(Comparator.comparingLong(candidate -> candidate.getValue().expiryTime > now ? candidate.getValue().lastAccessTime : 0L));
+        for (final Map.Entry<Key, Entry> candidate : candidates) {
+            if (entries.size() <= maxSize) {
+                break;
+            }
+            if (entries.remove(candidate.getKey(), candidate.getValue())) {
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    public int getSize() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /** Number of misses that waited for a load already in progress instead of calling RapidDeploy **/
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    public double getHitRatio() {
+        final long total = hits.get() + misses.get();
+        return total == 0 ? 0 : (double) hits.get() / total;
+    }
+
+    private static long getTtl() {
+        if (Jenkins.getInstanceOrNull() == null) {
+            return RapidDeployGlobalConfiguration.DEFAULT_CACHE_TTL;
+        }
+        return RapidDeployGlobalConfiguration.get().getCacheTtl();
+    }
+
+    private static int getMaxSize() {
+        if (Jenkins.getInstanceOrNull() == null) {
+            return RapidDeployGlobalConfiguration.DEFAULT_CACHE_SIZE;
+        }
+        return RapidDeployGlobalConfiguration.get().getCacheSize();
+    }
+
+    /** Identifies a cached list, the credentials are only kept as a digest **/
+    public static final class Key {
+        private final Resource resource;
+        private final String serverUrl;
+        private final String credential;
+        private final String project;
+        private final String target;
+
+        private Key(final Resource resource, final String serverUrl, final String authenticationToken, final String project, final String target) {
+            this.resource = resource;
+            this.serverUrl = StringUtils.removeEnd(StringUtils.trimToEmpty(serverUrl), "/");
+            this.credential = Util.getDigestOf(StringUtils.defaultString(authenticationToken));
+            this.project = project;
+            this.target = target;
+        }
+
+        private boolean isSameServer(final Key other) {
+            return serverUrl.equals(other.serverUrl) && credential.equals(other.credential);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return resource == other.resource && isSameServer(other) && StringUtils.equals(project, other.project)
+                    && StringUtils.equals(target, other.target);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(new Object[] { resource, serverUrl, credential, project, target });
+        }
+
+        @Override
+        public String toString() {
+            return resource + " " + serverUrl + (project != null ? " " + project : "") + (target != null ? " " + target : "");
+        }
+    }
+
+    private static final class Entry {
+        private final List<String> values;
+        private final long expiryTime;
+        private volatile long lastAccessTime;
+
+        private Entry(final List<String> values, final long expiryTime) {
+            this.values = values;
+            this.expiryTime = expiryTime;
+            this.lastAccessTime = System.currentTimeMillis();
+        }
+    }
+}
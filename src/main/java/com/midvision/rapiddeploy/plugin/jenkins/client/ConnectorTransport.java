@@ -0,0 +1,82 @@
+package com.midvision.rapiddeploy.plugin.jenkins.client;
+
+import java.util.List;
+import java.util.Map;
+
+import com.midvision.rapiddeploy.connector.RapidDeployConnector;
+
+/**
+ * Transport of the RapidDeploy connector library, used unless another one is installed.
+ */
+public class ConnectorTransport implements RapidDeployTransport {
+
+    @Override
+    public List<String> listProjects(final String serverUrl, final String authenticationToken) throws Exception {
+        return RapidDeployConnector.invokeRapidDeployListProjects(authenticationToken, serverUrl);
+    }
+
+    @Override
+    public List<String> listTargets(final String serverUrl, final String authenticationToken, final String project) throws Exception {
+        return RapidDeployConnector.invokeRapidDeployListTargets(authenticationToken, serverUrl, project);
+    }
+
+    @Override
+    public List<String> listPackages(final String serverUrl, final String authenticationToken, final String project) throws Exception {
+        return RapidDeployConnector.invokeRapidDeployListPackages(authenticationToken, serverUrl, project);
+    }
+
+    @Override
+    public List<String> listPackages(final String serverUrl, final String authenticationToken, final String project, final String server,
+            final String installation, final String configuration) throws Exception {
+        return RapidDeployConnector.invokeRapidDeployListPackages(authenticationToken, serverUrl, project, server, installation, configuration);
+    }
+
+    @Override
+    public Map<String, String> listJobPlans(final String serverUrl, final String authenticationToken) throws Exception {
+        return RapidDeployConnector.extractJobPlansFromXml(RapidDeployConnector.invokeRapidDeployJobPlans(authenticationToken, serverUrl));
+    }
+
+    @Override
+    public String buildPackage(final String serverUrl, final String authenticationToken, final String project, final String packageName,
+            final String archiveExtension) throws Exception {
+        return RapidDeployConnector.invokeRapidDeployBuildPackage(authenticationToken, serverUrl, project, packageName, archiveExtension, false,
+                true);
+    }
+
+    @Override
+    public String deploy(final String serverUrl, final String authenticationToken, final String project, final String target,
+            final String packageName, final Map<String, String> dataDictionary) throws Exception {
+        return RapidDeployConnector.invokeRapidDeployDeploymentPollOutput(authenticationToken, serverUrl, project, target, packageName, false, true,
+                dataDictionary);
+    }
+
+    @Override
+    public String runJobPlan(final String serverUrl, final String authenticationToken, final String jobPlanId) throws Exception {
+        return RapidDeployConnector.invokeRapidDeployJobPlanPollOutput(authenticationToken, serverUrl, jobPlanId, true);
+    }
+
+    @Override
+    public String pollJobDetails(final String serverUrl, final String authenticationToken, final String jobId) throws Exception {
+        return RapidDeployConnector.pollRapidDeployJobDetails(authenticationToken, serverUrl, jobId);
+    }
+
+    @Override
+    public String pollJobLog(final String serverUrl, final String authenticationToken, final String jobId) throws Exception {
+        return RapidDeployConnector.pollRapidDeployJobLog(authenticationToken, serverUrl, jobId);
+    }
+
+    @Override
+    public String extractJobId(final String jobRequestOutput) throws Exception {
+        return RapidDeployConnector.extractJobId(jobRequestOutput);
+    }
+
+    @Override
+    public String extractJobStatus(final String jobDetails) throws Exception {
+        return RapidDeployConnector.extractJobStatus(jobDetails);
+    }
+
+    @Override
+    public List<String> extractIncludedJobIds(final String jobDetails) throws Exception {
+        return RapidDeployConnector.extractIncludedJobIdsUnderPipelineJob(jobDetails);
+    }
+}
@@ -0,0 +1,306 @@
+package com.midvision.rapiddeploy.plugin.jenkins.client;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployExecutors;
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployGlobalConfiguration;
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployServer;
+import com.midvision.rapiddeploy.plugin.jenkins.metrics.RapidDeployMetrics;
+import com.midvision.rapiddeploy.plugin.jenkins.metrics.RapidDeployMetrics.Operation;
+
+import jenkins.model.Jenkins;
+
+/**
+ * Long-lived client of a single RapidDeploy server. Every call the plugin makes to RapidDeploy goes through the client of its server, which
+ * limits the number of concurrent connections opened against it and bounds the time a caller waits for a free connection slot. The limit only
+ * gates the calls: it is not a connection pool and the wait does not cover the HTTP connection itself.
+ * <p>
+ * The HTTP connections themselves are opened by the RapidDeploy connector library, which does not accept an external connection manager nor
+ * connect and read timeouts. The client runs each call on the call pool instead and stops waiting for it after the call timeout, freeing its
+ * connection slot. The connection of a call given up on stays open until the server answers or closes it.
+ */
+public final class RapidDeployClient {
+
+    private static final Log LOG = LogFactory.getLog(RapidDeployClient.class);
+
+    private static final ConcurrentMap<String, RapidDeployClient> CLIENTS = new ConcurrentHashMap<String, RapidDeployClient>();
+
+    private static volatile RapidDeployTransport defaultTransport = new ConnectorTransport();
+
+    private final String serverUrl;
+    private final ConnectionSlots connections;
+    private volatile RapidDeployTransport transport;
+    private volatile long permitWaitTimeout;
+    private volatile long callTimeout;
+
+    private RapidDeployClient(final String serverUrl) {
+        this.serverUrl = serverUrl;
+        this.connections = new ConnectionSlots();
+        configure();
+    }
+
+    /**
+     * @return the shared client of the given RapidDeploy server.
+     */
+    public static RapidDeployClient forServer(final String serverUrl) {
+        final String key = normalize(serverUrl);
+        RapidDeployClient client = CLIENTS.get(key);
+        if (client == null) {
+            final RapidDeployClient newClient = new RapidDeployClient(key);
+            client = CLIENTS.putIfAbsent(key, newClient);
+            if (client == null) {
+                client = newClient;
+            }
+        }
+        return client;
+    }
+
+    /**
+     * Applies the current connection settings and transport to every client. The clients are kept, so the calls already holding a connection
+     * slot release it to the resized limit instead of to a discarded one.
+     */
+    public static void reset() {
+        for (final RapidDeployClient client : CLIENTS.values()) {
+            client.configure();
+        }
+    }
+
+    /**
+     * Installs the transport used by every client. Meant for running the plugin against a simulated RapidDeploy server.
+     */
+    public static void setTransport(final RapidDeployTransport transport) {
+        defaultTransport = transport != null ? transport : new ConnectorTransport();
+        reset();
+    }
+
+    public static RapidDeployTransport getTransport() {
+        return defaultTransport;
+    }
+
+    private synchronized void configure() {
+        transport = defaultTransport;
+        if (Jenkins.getInstanceOrNull() == null) {
+            connections.setLimit(RapidDeployGlobalConfiguration.DEFAULT_MAX_CONNECTIONS);
+            permitWaitTimeout = RapidDeployGlobalConfiguration.DEFAULT_PERMIT_WAIT_TIMEOUT;
+            callTimeout = RapidDeployGlobalConfiguration.DEFAULT_CALL_TIMEOUT;
+            return;
+        }
+        final RapidDeployGlobalConfiguration configuration = RapidDeployGlobalConfiguration.get();
+        // A server defined in the global configuration may override the connection settings
+        final RapidDeployServer server = configuration.getServerByUrl(serverUrl);
+        connections.setLimit(server != null && server.getMaxConnections() > 0 ? server.getMaxConnections() : configuration.getMaxConnections());
+        permitWaitTimeout = server != null && server.getPermitWaitTimeout() > 0 ? server.getPermitWaitTimeout()
+                : configuration.getPermitWaitTimeout();
+        callTimeout = server != null && server.getCallTimeout() > 0 ? server.getCallTimeout() : configuration.getCallTimeout();
+    }
+
+    static String normalize(final String serverUrl) {
+        final String url = StringUtils.trimToEmpty(serverUrl);
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    public String getServerUrl() {
+        return serverUrl;
+    }
+
+    public int getMaxConnections() {
+        return connections.getLimit();
+    }
+
+    public int getActiveConnections() {
+        return connections.getLimit() - connections.availablePermits();
+    }
+
+    /***********************/
+    /***** LIST CALLS ******/
+    /***********************/
+
+    public List<String> listProjects(final String authenticationToken) throws Exception {
+        return execute(Operation.LIST_PROJECTS, () -> transport.listProjects(serverUrl, authenticationToken));
+    }
+
+    public List<String> listTargets(final String authenticationToken, final String project) throws Exception {
+        return execute(Operation.LIST_TARGETS, () -> transport.listTargets(serverUrl, authenticationToken, project));
+    }
+
+    public List<String> listPackages(final String authenticationToken, final String project) throws Exception {
+        return execute(Operation.LIST_PACKAGES, () -> transport.listPackages(serverUrl, authenticationToken, project));
+    }
+
+    public List<String> listPackages(final String authenticationToken, final String project, final String server, final String installation,
+            final String configuration) throws Exception {
+        return execute(Operation.LIST_PACKAGES,
+                () -> transport.listPackages(serverUrl, authenticationToken, project, server, installation, configuration));
+    }
+
+    /**
+     * @return the job plans, the key being the job plan ID and the value its description.
+     */
+    public Map<String, String> listJobPlans(final String authenticationToken) throws Exception {
+        return execute(Operation.LIST_JOB_PLANS, () -> transport.listJobPlans(serverUrl, authenticationToken));
+    }
+
+    /***********************/
+    /****** JOB CALLS ******/
+    /***********************/
+
+    public String buildPackage(final String authenticationToken, final String project, final String packageName, final String archiveExtension)
+            throws Exception {
+        return execute(Operation.BUILD_PACKAGE,
+                () -> transport.buildPackage(serverUrl, authenticationToken, project, packageName, archiveExtension));
+    }
+
+    public String deploy(final String authenticationToken, final String project, final String target, final String packageName,
+            final Map<String, String> dataDictionary) throws Exception {
+        return execute(Operation.DEPLOY, () -> transport.deploy(serverUrl, authenticationToken, project, target, packageName, dataDictionary));
+    }
+
+    public String runJobPlan(final String authenticationToken, final String jobPlanId) throws Exception {
+        return execute(Operation.RUN_JOB_PLAN, () -> transport.runJobPlan(serverUrl, authenticationToken, jobPlanId));
+    }
+
+    public String pollJobDetails(final String authenticationToken, final String jobId) throws Exception {
+        return execute(Operation.POLL_JOB_DETAILS, () -> transport.pollJobDetails(serverUrl, authenticationToken, jobId));
+    }
+
+    public String pollJobLog(final String authenticationToken, final String jobId) throws Exception {
+        return execute(Operation.POLL_JOB_LOG, () -> transport.pollJobLog(serverUrl, authenticationToken, jobId));
+    }
+
+    /**
+     * Writes the log of a job to the given writer, without keeping it.
+     *
+     * @return the number of characters written.
+     */
+    public long writeJobLog(final String authenticationToken, final String jobId, final Writer writer) throws Exception {
+        return execute(Operation.POLL_JOB_LOG, () -> {
+            final CountingWriter countingWriter = new CountingWriter(writer);
+            transport.writeJobLog(serverUrl, authenticationToken, jobId, countingWriter);
+            return countingWriter.count;
+        });
+    }
+
+    /***********************/
+    /***** AUX METHODS *****/
+    /***********************/
+
+    public String extractJobId(final String jobRequestOutput) throws Exception {
+        return transport.extractJobId(jobRequestOutput);
+    }
+
+    public String extractJobStatus(final String jobDetails) throws Exception {
+        return transport.extractJobStatus(jobDetails);
+    }
+
+    public List<String> extractIncludedJobIds(final String jobDetails) throws Exception {
+        return transport.extractIncludedJobIds(jobDetails);
+    }
+
+    private <T> T execute(final Operation operation, final Callable<T> call) throws Exception {
+        if (!connections.tryAcquire(permitWaitTimeout, TimeUnit.SECONDS)) {
+            throw new RapidDeployClientException("Timed out after " + permitWaitTimeout + " seconds waiting for a free connection slot to "
+                    + serverUrl + " (" + connections.getLimit() + " connections in use)");
+        }
+        final long start = System.nanoTime();
+        T response = null;
+        boolean failed = true;
+        try {
+            response = await(RapidDeployExecutors.calls().submit(call));
+            failed = false;
+            return response;
+        } finally {
+            connections.release();
+            RapidDeployMetrics.get().recordCall(operation, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), response, failed);
+            LOG.trace("Connections in use for " + serverUrl + ": " + getActiveConnections());
+        }
+    }
+
+    private <T> T await(final Future<T> call) throws Exception {
+        try {
+            return call.get(callTimeout, TimeUnit.SECONDS);
+        } catch (final TimeoutException e) {
+            call.cancel(true);
+            throw new RapidDeployClientException("No answer from " + serverUrl + " after " + callTimeout + " seconds");
+        } catch (final InterruptedException e) {
+            call.cancel(true);
+            throw e;
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw (Exception) e.getCause();
+        }
+    }
+
+    /** Counts the characters of a streamed response, for the metrics **/
+    private static final class CountingWriter extends FilterWriter {
+
+        private long count;
+
+        CountingWriter(final Writer writer) {
+            super(writer);
+        }
+
+        @Override
+        public void write(final int c) throws IOException {
+            super.write(c);
+            count++;
+        }
+
+        @Override
+        public void write(final char[] cbuf, final int off, final int len) throws IOException {
+            super.write(cbuf, off, len);
+            count += len;
+        }
+
+        @Override
+        public void write(final String str, final int off, final int len) throws IOException {
+            super.write(str, off, len);
+            count += len;
+        }
+    }
+
+    /**
+     * Connection slots of a server, whose number can be changed while calls hold some of them. Lowering the limit takes the slots back as they
+     * are released.
+     */
+    private static final class ConnectionSlots extends Semaphore {
+
+        private static final long serialVersionUID = 1L;
+
+        private int limit;
+
+        ConnectionSlots() {
+            super(0, true);
+        }
+
+        synchronized int getLimit() {
+            return limit;
+        }
+
+        synchronized void setLimit(final int newLimit) {
+            if (newLimit > limit) {
+                release(newLimit - limit);
+            } else if (newLimit < limit) {
+                reducePermits(limit - newLimit);
+            }
+            limit = newLimit;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.midvision.rapiddeploy.plugin.jenkins.client;
+
+/** Raised when a call to a RapidDeploy server could not be made. **/
+public class RapidDeployClientException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    public RapidDeployClientException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,56 @@
+package com.midvision.rapiddeploy.plugin.jenkins.client;
+
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Carries the calls of the {@link RapidDeployClient} to a RapidDeploy server and reads the responses. The default transport goes through the
+ * RapidDeploy connector library; another one can be installed with {@link RapidDeployClient#setTransport}, for instance to run the plugin
+ * against a simulated server.
+ */
+public interface RapidDeployTransport {
+
+    List<String> listProjects(String serverUrl, String authenticationToken) throws Exception;
+
+    List<String> listTargets(String serverUrl, String authenticationToken, String project) throws Exception;
+
+    List<String> listPackages(String serverUrl, String authenticationToken, String project) throws Exception;
+
+    List<String> listPackages(String serverUrl, String authenticationToken, String project, String server, String installation,
+            String configuration) throws Exception;
+
+    /**
+     * @return the job plans, the key being the job plan ID and the value its description.
+     */
+    Map<String, String> listJobPlans(String serverUrl, String authenticationToken) throws Exception;
+
+    String buildPackage(String serverUrl, String authenticationToken, String project, String packageName, String archiveExtension)
+            throws Exception;
+
+    String deploy(String serverUrl, String authenticationToken, String project, String target, String packageName,
+            Map<String, String> dataDictionary) throws Exception;
+
+    String runJobPlan(String serverUrl, String authenticationToken, String jobPlanId) throws Exception;
+
+    String pollJobDetails(String serverUrl, String authenticationToken, String jobId) throws Exception;
+
+    String pollJobLog(String serverUrl, String authenticationToken, String jobId) throws Exception;
+
+    /**
+     * Writes the log of a job to the given writer. The RapidDeploy connector library only returns the whole log, so by default it is retrieved
+     * with {@link #pollJobLog} and written at once; a transport reading the response as it arrives overrides it.
+     */
+    default void writeJobLog(final String serverUrl, final String authenticationToken, final String jobId, final Writer writer) throws Exception {
+        final String log = pollJobLog(serverUrl, authenticationToken, jobId);
+        if (log != null) {
+            writer.write(log);
+        }
+    }
+
+    String extractJobId(String jobRequestOutput) throws Exception;
+
+    String extractJobStatus(String jobDetails) throws Exception;
+
+    List<String> extractIncludedJobIds(String jobDetails) throws Exception;
+}
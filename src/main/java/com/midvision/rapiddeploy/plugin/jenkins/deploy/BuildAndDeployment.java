@@ -0,0 +1,199 @@
+package com.midvision.rapiddeploy.plugin.jenkins.deploy;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang.StringUtils;
+
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy;
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployExecutors;
+import com.midvision.rapiddeploy.plugin.jenkins.client.RapidDeployClient;
+import com.midvision.rapiddeploy.plugin.jenkins.log.JobLogTail;
+import com.midvision.rapiddeploy.plugin.jenkins.log.Logger;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.JobResult;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.PollingStrategy;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.RapidDeployJobMonitor;
+import com.midvision.rapiddeploy.plugin.jenkins.timing.JobTiming;
+import com.midvision.rapiddeploy.plugin.jenkins.timing.RapidDeployTimingAction;
+
+import hudson.AbortException;
+import hudson.model.Run;
+
+/**
+ * Builds a deployment package and deploys it to one or more targets. The deployments are requested on the request pool as soon as the package
+ * build job reaches the COMPLETED status, so no poll interval is spent between the build and the deployments, and the package deployed is the
+ * one built rather than whatever <code>LATEST</code> resolves to at that time. Without a package name, the build fails the run if the RapidDeploy
+ * server does not report the name of the package built.
+ */
+public class BuildAndDeployment {
+
+    /** Package name element of the job details, if the RapidDeploy server reports it **/
+    private static final Pattern PACKAGE_NAME_PATTERN = Pattern.compile("<(packageName|deploymentPackageName)>\\s*([^<]+?)\\s*</\\1>");
+
+    private final Logger logger;
+    private final String serverUrl;
+    private final String authenticationToken;
+    private final String project;
+    private final String packageName;
+    private final String archiveExtension;
+    private final boolean showFullLog;
+    private final Map<String, String> dataDictionary;
+    private final PollingStrategy pollingStrategy;
+    private final int maxInFlight;
+    private final boolean failFast;
+
+    private volatile CompletableFuture<JobResult> buildJob;
+    private volatile MultiTargetDeployment deployment;
+    private volatile boolean cancelled;
+    private volatile String buildJobId;
+    private volatile String deployedPackageName;
+    private volatile Run<?, ?> build;
+
+    public BuildAndDeployment(final Logger logger, final String serverUrl, final String authenticationToken, final String project,
+            final String packageName, final String archiveExtension, final boolean showFullLog, final Map<String, String> dataDictionary,
+            final PollingStrategy pollingStrategy, final int maxInFlight, final boolean failFast) {
+        this.logger = logger;
+        this.serverUrl = serverUrl;
+        this.authenticationToken = authenticationToken;
+        this.project = project;
+        this.packageName = StringUtils.trimToEmpty(packageName);
+        this.archiveExtension = archiveExtension;
+        this.showFullLog = showFullLog;
+        this.dataDictionary = dataDictionary;
+        this.pollingStrategy = pollingStrategy;
+        this.maxInFlight = maxInFlight;
+        this.failFast = failFast;
+    }
+
+    /**
+     * Sets the build whose page shows the timing of the jobs, none by default.
+     */
+    public void setBuild(final Run<?, ?> build) {
+        this.build = build;
+    }
+
+    /**
+     * Requests the package build. Called from a request thread, the returned future completes once every deployment finished.
+     */
+    public CompletableFuture<Map<String, TargetResult>> run(final List<String> targets) throws Exception {
+        logger.println("Invoking RapidDeploy deployment package builder...");
+        logger.println("  > Server URL: " + serverUrl);
+        logger.println("  > Project: " + project);
+        logger.println("  > Package name: " + packageName);
+        logger.println("  > Archive extension: " + archiveExtension);
+        logger.println("  > Targets: " + targets);
+        logger.println();
+        final JobTiming timing = RapidDeployTimingAction.start(build, "Package build of project " + project);
+        try {
+            final String jobRequestOutput = RapidDeployClient.forServer(serverUrl).buildPackage(authenticationToken, project, packageName,
+                    archiveExtension);
+            buildJobId = RapidDeployConnectorProxy.extractJobId(logger, serverUrl, jobRequestOutput);
+        } catch (final Exception e) {
+            timing.finished(null);
+            throw e;
+        }
+        timing.requestAnswered(buildJobId);
+        final JobLogTail logTail = showFullLog ? new JobLogTail(buildJobId) : null;
+        buildJob = RapidDeployJobMonitor.get().monitor(logger, serverUrl, authenticationToken, buildJobId, pollingStrategy, logTail, timing);
+        buildJob.whenComplete((result, error) -> {
+            if (error != null) {
+                timing.finished(null);
+            }
+        });
+        if (cancelled) {
+            buildJob.cancel(true);
+        }
+        // Composed on the request pool: printing the build log and requesting the deployments must not hold up the monitor thread
+        return buildJob.thenComposeAsync(result -> {
+            if (!result.isSuccess()) {
+                try {
+                    // Prints the rest of the build log and throws the job failure
+                    RapidDeployConnectorProxy.reportJobResult(logger, serverUrl, authenticationToken, result, false, logTail, null, timing);
+                } catch (final Exception e) {
+                    logger.println(timing.getSummary());
+                    throw new CompletionException(e);
+                }
+            }
+            if (cancelled) {
+                throw new CancellationException();
+            }
+            deployedPackageName = resolvePackageName(result);
+            if (deployedPackageName == null) {
+                printBuildLog(result, logTail, timing);
+                throw new CompletionException(new AbortException("The name of the package built is not included in the details of the RapidDeploy "
+                        + "job [" + buildJobId + "], set the package name of the step to deploy the package built."));
+            }
+            logger.println("Package " + deployedPackageName + " built, deploying it to " + targets.size() + " target(s)...");
+            final MultiTargetDeployment newDeployment = new MultiTargetDeployment(logger, serverUrl, authenticationToken, project,
+                    deployedPackageName, dataDictionary, pollingStrategy, maxInFlight, failFast);
+            newDeployment.setBuild(build);
+            deployment = newDeployment;
+            // Checked again once the deployment is published, a concurrent cancel() may not have seen it
+            if (cancelled) {
+                newDeployment.cancel();
+            }
+            final CompletableFuture<Map<String, TargetResult>> deployments = newDeployment.deploy(targets);
+            // The rest of the build log is printed while the deployments are being requested
+            printBuildLog(result, logTail, timing);
+            return deployments;
+        }, RapidDeployExecutors.requests());
+    }
+
+    /** Prints the rest of the log of a successful package build, a failure to retrieve it does not fail the run **/
+    private void printBuildLog(final JobResult result, final JobLogTail logTail, final JobTiming timing) {
+        try {
+            RapidDeployConnectorProxy.reportJobResult(logger, serverUrl, authenticationToken, result, false, logTail, null, timing);
+        } catch (final Exception e) {
+            logger.println("WARNING: Unable to retrieve the package build log: " + e.getMessage());
+        }
+        logger.println(timing.getSummary());
+    }
+
+    public void cancel() {
+        cancelled = true;
+        if (buildJob != null) {
+            buildJob.cancel(true);
+        }
+        if (deployment != null) {
+            deployment.cancel();
+        }
+    }
+
+    public String getBuildJobId() {
+        return buildJobId;
+    }
+
+    /**
+     * @return the name of the package deployed, <code>null</code> until the package is built.
+     */
+    public String getDeployedPackageName() {
+        return deployedPackageName;
+    }
+
+    /**
+     * @return the package name set for the run, or else the one reported in the details of the build job, or <code>null</code> if not reported.
+     *         <code>LATEST</code> is never assumed, it may not be the package built.
+     */
+    private String resolvePackageName(final JobResult result) {
+        if (StringUtils.isNotBlank(packageName)) {
+            return packageName;
+        }
+        return extractPackageName(result.getJobDetails());
+    }
+
+    /**
+     * @return the name of the package reported in the details of a package build job, or <code>null</code> if not reported.
+     */
+    public static String extractPackageName(final String jobDetails) {
+        if (jobDetails == null) {
+            return null;
+        }
+        final Matcher matcher = PACKAGE_NAME_PATTERN.matcher(jobDetails);
+        return matcher.find() ? matcher.group(2) : null;
+    }
+}
@@ -0,0 +1,225 @@
+package com.midvision.rapiddeploy.plugin.jenkins.deploy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.regex.Pattern;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy;
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployExecutors;
+import com.midvision.rapiddeploy.plugin.jenkins.client.RapidDeployClient;
+import com.midvision.rapiddeploy.plugin.jenkins.log.Logger;
+import com.midvision.rapiddeploy.plugin.jenkins.log.PrefixedLogger;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.JobResult;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.PollingStrategy;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.RapidDeployJobMonitor;
+import com.midvision.rapiddeploy.plugin.jenkins.timing.JobTiming;
+import com.midvision.rapiddeploy.plugin.jenkins.timing.RapidDeployTimingAction;
+
+import hudson.model.Run;
+
+/**
+ * Deploys a project package to several targets, with at most a given number of deployments running at the same time. The jobs are followed by
+ * the shared {@link RapidDeployJobMonitor}, so the number of targets does not change the number of threads used.
+ * <p>
+ * In fail-fast mode, the first failed target stops the deployments not yet requested and the monitoring of the running ones; the jobs already
+ * requested keep running on the RapidDeploy server. Otherwise every target is deployed whatever the result of the others.
+ */
+public class MultiTargetDeployment {
+
+    private static final Log LOG = LogFactory.getLog(MultiTargetDeployment.class);
+
+    private final Logger logger;
+    private final String serverUrl;
+    private final String authenticationToken;
+    private final String project;
+    private final String packageName;
+    private final Map<String, String> dataDictionary;
+    private final PollingStrategy pollingStrategy;
+    private final int maxInFlight;
+    private final boolean failFast;
+
+    private final LinkedList<String> pendingTargets = new LinkedList<String>();
+    private final Map<String, TargetResult> results = new LinkedHashMap<String, TargetResult>();
+    private final Map<String, CompletableFuture<JobResult>> runningJobs = new LinkedHashMap<String, CompletableFuture<JobResult>>();
+    private final CompletableFuture<Map<String, TargetResult>> result = new CompletableFuture<Map<String, TargetResult>>();
+    private volatile Run<?, ?> build;
+    private int inFlight;
+    private boolean stopped;
+
+    public MultiTargetDeployment(final Logger logger, final String serverUrl, final String authenticationToken, final String project,
+            final String packageName, final Map<String, String> dataDictionary, final PollingStrategy pollingStrategy, final int maxInFlight,
+            final boolean failFast) {
+        this.logger = logger;
+        this.serverUrl = serverUrl;
+        this.authenticationToken = authenticationToken;
+        this.project = project;
+        this.packageName = packageName;
+        this.dataDictionary = dataDictionary != null ? dataDictionary : Collections.<String, String> emptyMap();
+        this.pollingStrategy = pollingStrategy;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.failFast = failFast;
+    }
+
+    /**
+     * Sets the build whose page shows the timing of the jobs, none by default.
+     */
+    public void setBuild(final Run<?, ?> build) {
+        this.build = build;
+    }
+
+    /**
+     * @return the targets of the project whose name matches the given regular expression. The target list is read through the metadata cache.
+     */
+    public static List<String> resolveTargets(final String serverUrl, final String authenticationToken, final String project,
+            final String targetPattern) throws Exception {
+        final Pattern pattern = Pattern.compile(targetPattern);
+        final List<String> targets = new ArrayList<String>();
+        for (final String target : new RapidDeployConnectorProxy().getTargets(serverUrl, authenticationToken, project)) {
+            if (pattern.matcher(target).matches()) {
+                targets.add(target);
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * Starts the deployments. The returned future completes, with the result of every target in the given order, once no deployment is running.
+     */
+    public CompletableFuture<Map<String, TargetResult>> deploy(final List<String> targets) {
+        synchronized (this) {
+            for (final String target : targets) {
+                if (!results.containsKey(target) && !pendingTargets.contains(target)) {
+                    pendingTargets.add(target);
+                    results.put(target, null);
+                }
+            }
+            logger.println("Deploying project " + project + " to " + pendingTargets.size() + " target(s), at most " + maxInFlight
+                    + " at the same time...");
+        }
+        startNext();
+        return result;
+    }
+
+    /**
+     * Stops requesting deployments and stops monitoring the running ones, the jobs already requested keep running on the RapidDeploy server.
+     */
+    public void cancel() {
+        final List<CompletableFuture<JobResult>> jobs;
+        synchronized (this) {
+            stopped = true;
+            jobs = new ArrayList<CompletableFuture<JobResult>>(runningJobs.values());
+        }
+        for (final CompletableFuture<JobResult> job : jobs) {
+            job.cancel(true);
+        }
+        startNext();
+    }
+
+    private void startNext() {
+        final List<String> targets = new ArrayList<String>();
+        synchronized (this) {
+            while (!stopped && inFlight < maxInFlight && !pendingTargets.isEmpty()) {
+                targets.add(pendingTargets.removeFirst());
+                inFlight++;
+            }
+            if (stopped) {
+                for (final String target : pendingTargets) {
+                    results.put(target, new TargetResult(target, null, TargetResult.NOT_STARTED, null));
+                }
+                pendingTargets.clear();
+            }
+            if (inFlight == 0 && pendingTargets.isEmpty()) {
+                result.complete(Collections.unmodifiableMap(new LinkedHashMap<String, TargetResult>(results)));
+                return;
+            }
+        }
+        for (final String target : targets) {
+            RapidDeployExecutors.requests().execute(new Runnable() {
+                @Override
+                public void run() {
+                    requestDeployment(target);
+                }
+            });
+        }
+    }
+
+    private void requestDeployment(final String target) {
+        synchronized (this) {
+            if (stopped) {
+                finished(target, new TargetResult(target, null, TargetResult.NOT_STARTED, null));
+                return;
+            }
+        }
+        final Logger targetLogger = new PrefixedLogger(logger, "[" + target + "] ");
+        final JobTiming timing = RapidDeployTimingAction.start(build, "Deployment of project " + project + " to " + target);
+        final String jobId;
+        try {
+            final RapidDeployClient client = RapidDeployClient.forServer(serverUrl);
+            final String jobRequestOutput = client.deploy(authenticationToken, project, target, packageName,
+                    new LinkedHashMap<String, String>(dataDictionary));
+            jobId = client.extractJobId(jobRequestOutput);
+            if (jobId == null) {
+                throw new IllegalStateException("Could not retrieve job ID");
+            }
+            targetLogger.println(">>>  RapidDeploy job requested [" + jobId + "] <<<");
+            timing.requestAnswered(jobId);
+        } catch (final Exception e) {
+            LOG.debug("Deployment to " + target + " failed", e);
+            timing.finished(null);
+            finished(target, new TargetResult(target, null, TargetResult.ERROR, e.getMessage()));
+            return;
+        }
+        final CompletableFuture<JobResult> job = RapidDeployJobMonitor.get().monitor(targetLogger, serverUrl, authenticationToken, jobId,
+                pollingStrategy, null, timing);
+        synchronized (this) {
+            runningJobs.put(target, job);
+            if (stopped) {
+                job.cancel(true);
+            }
+        }
+        job.whenComplete((jobResult, error) -> {
+            synchronized (this) {
+                runningJobs.remove(target);
+            }
+            timing.finished(null);
+            targetLogger.println(timing.getSummary());
+            if (jobResult != null) {
+                finished(target, new TargetResult(target, jobId, jobResult.getJobStatus(), null));
+            } else if (error instanceof CancellationException) {
+                finished(target, new TargetResult(target, jobId, TargetResult.ABANDONED, null));
+            } else {
+                final Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                finished(target, new TargetResult(target, jobId, TargetResult.ERROR, cause.getMessage()));
+            }
+        });
+    }
+
+    private void finished(final String target, final TargetResult targetResult) {
+        logger.println("Deployment finished: " + targetResult);
+        final boolean stop;
+        synchronized (this) {
+            results.put(target, targetResult);
+            inFlight--;
+            if (failFast && !targetResult.isSuccess() && !stopped) {
+                logger.println("Deployment to " + target + " failed, no more deployments will be requested.");
+                stopped = true;
+            }
+            stop = stopped;
+        }
+        if (stop) {
+            cancel();
+        } else {
+            startNext();
+        }
+    }
+}
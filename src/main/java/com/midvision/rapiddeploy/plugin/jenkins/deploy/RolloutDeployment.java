@@ -0,0 +1,178 @@
+package com.midvision.rapiddeploy.plugin.jenkins.deploy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import com.midvision.rapiddeploy.plugin.jenkins.log.Logger;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.PollingStrategy;
+
+import hudson.model.Run;
+
+/**
+ * Deploys a project package to its targets in successive waves: an optional canary wave, which must complete on every target, followed by waves
+ * of growing size. Each wave is a {@link MultiTargetDeployment} with a limited number of deployments running at the same time, and the next wave
+ * only starts once the previous one finished. The rollout is aborted as soon as the total number of failed targets exceeds the allowed failures.
+ */
+public class RolloutDeployment {
+
+    /** Abort reason of a rollout stopped by {@link #cancel()} **/
+    public static final String CANCELLED = "the rollout was cancelled";
+
+    private final Logger logger;
+    private final String serverUrl;
+    private final String authenticationToken;
+    private final String project;
+    private final String packageName;
+    private final Map<String, String> dataDictionary;
+    private final PollingStrategy pollingStrategy;
+    private final int maxParallelism;
+    private final int maxFailures;
+
+    private final List<WaveResult> waveResults = new ArrayList<WaveResult>();
+    private final CompletableFuture<RolloutResult> result = new CompletableFuture<RolloutResult>();
+    private List<List<String>> waves;
+    private boolean canary;
+    private int failures;
+    private MultiTargetDeployment currentWave;
+    private boolean cancelled;
+    private volatile Run<?, ?> build;
+
+    public RolloutDeployment(final Logger logger, final String serverUrl, final String authenticationToken, final String project,
+            final String packageName, final Map<String, String> dataDictionary, final PollingStrategy pollingStrategy, final int maxParallelism,
+            final int maxFailures) {
+        this.logger = logger;
+        this.serverUrl = serverUrl;
+        this.authenticationToken = authenticationToken;
+        this.project = project;
+        this.packageName = packageName;
+        this.dataDictionary = dataDictionary;
+        this.pollingStrategy = pollingStrategy;
+        this.maxParallelism = Math.max(1, maxParallelism);
+        this.maxFailures = Math.max(0, maxFailures);
+    }
+
+    /**
+     * Sets the build whose page shows the timing of the jobs, none by default.
+     */
+    public void setBuild(final Run<?, ?> build) {
+        this.build = build;
+    }
+
+    /**
+     * Splits the targets in waves. The first wave holds the canary targets, if any. The size of the following waves is taken from the given
+     * sizes, the last one being repeated, or otherwise grows from the canary size by the given factor.
+     */
+    public static List<List<String>> planWaves(final List<String> targets, final int canarySize, final List<Integer> waveSizes,
+            final double waveGrowth) {
+        final List<List<String>> waves = new ArrayList<List<String>>();
+        int next = 0;
+        if (canarySize > 0 && !targets.isEmpty()) {
+            next = Math.min(canarySize, targets.size());
+            waves.add(new ArrayList<String>(targets.subList(0, next)));
+        }
+        int size = Math.max(1, canarySize);
+        while (next < targets.size()) {
+            if (waveSizes != null && !waveSizes.isEmpty()) {
+                size = Math.max(1, waveSizes.get(Math.min(waves.size() - (canarySize > 0 ? 1 : 0), waveSizes.size() - 1)));
+            } else if (next > 0) {
+                size = Math.max(size + 1, (int) Math.ceil(size * Math.max(1.0, waveGrowth)));
+            }
+            final int end = Math.min(next + size, targets.size());
+            waves.add(new ArrayList<String>(targets.subList(next, end)));
+            next = end;
+        }
+        return waves;
+    }
+
+    /**
+     * Starts the rollout of the given waves, the first one being a canary wave if requested.
+     */
+    public CompletableFuture<RolloutResult> rollout(final List<List<String>> plannedWaves, final boolean withCanary) {
+        this.waves = plannedWaves;
+        this.canary = withCanary;
+        logger.println("Rolling out project " + project + " in " + waves.size() + " wave(s), at most " + maxParallelism
+                + " deployments at the same time, up to " + maxFailures + " failed target(s) allowed...");
+        runWave(0);
+        return result;
+    }
+
+    /**
+     * Stops the rollout: no more deployments are requested and the running ones are no longer monitored.
+     */
+    public void cancel() {
+        final MultiTargetDeployment wave;
+        synchronized (this) {
+            cancelled = true;
+            wave = currentWave;
+        }
+        if (wave != null) {
+            wave.cancel();
+        }
+    }
+
+    private void runWave(final int index) {
+        if (index >= waves.size()) {
+            finish(index, null);
+            return;
+        }
+        final boolean canaryWave = canary && index == 0;
+        final MultiTargetDeployment wave = new MultiTargetDeployment(logger, serverUrl, authenticationToken, project, packageName, dataDictionary,
+                pollingStrategy, maxParallelism, false);
+        wave.setBuild(build);
+        final CompletableFuture<Map<String, TargetResult>> deployment;
+        // Started under the lock, so a concurrent cancel() either prevents the wave or cancels it once started
+        synchronized (this) {
+            if (cancelled) {
+                deployment = null;
+            } else {
+                logger.println("Starting wave " + (index + 1) + " of " + waves.size() + (canaryWave ? " (canary)" : "") + ": " + waves.get(index));
+                currentWave = wave;
+                deployment = wave.deploy(waves.get(index));
+            }
+        }
+        if (deployment == null) {
+            finish(index, CANCELLED);
+            return;
+        }
+        deployment.whenComplete((results, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+                return;
+            }
+            final WaveResult waveResult = new WaveResult(index + 1, canaryWave, results);
+            waveResults.add(waveResult);
+            logger.println(waveResult);
+            final int waveFailures = waveResult.getFailedTargets().size();
+            failures += waveFailures;
+            if (isCancelled()) {
+                // The targets of a cancelled wave are abandoned, not failed
+                finish(index + 1, CANCELLED);
+            } else if (canaryWave && waveFailures > 0) {
+                finish(index + 1, "the canary wave failed");
+            } else if (failures > maxFailures) {
+                finish(index + 1, failures + " failed target(s), more than the " + maxFailures + " allowed");
+            } else {
+                runWave(index + 1);
+            }
+        });
+    }
+
+    private synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    private void finish(final int nextWave, final String abortReason) {
+        final List<String> skippedTargets = new ArrayList<String>();
+        for (final List<String> wave : waves.subList(Math.min(nextWave, waves.size()), waves.size())) {
+            skippedTargets.addAll(wave);
+        }
+        final RolloutResult rolloutResult = new RolloutResult(waveResults, skippedTargets, abortReason);
+        logger.println("Rollout summary:");
+        for (final String line : rolloutResult.getSummary()) {
+            logger.println("  " + line);
+        }
+        result.complete(rolloutResult);
+    }
+}
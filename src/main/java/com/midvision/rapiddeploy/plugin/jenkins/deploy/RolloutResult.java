@@ -0,0 +1,92 @@
+package com.midvision.rapiddeploy.plugin.jenkins.deploy;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Outcome of a rollout: the result of every wave run and the targets left out if the rollout was aborted. **/
+public class RolloutResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<WaveResult> waves;
+    private final List<String> skippedTargets;
+    private final String abortReason;
+
+    public RolloutResult(final List<WaveResult> waves, final List<String> skippedTargets, final String abortReason) {
+        this.waves = Collections.unmodifiableList(new ArrayList<WaveResult>(waves));
+        this.skippedTargets = Collections.unmodifiableList(new ArrayList<String>(skippedTargets));
+        this.abortReason = abortReason;
+    }
+
+    public List<WaveResult> getWaves() {
+        return waves;
+    }
+
+    public List<String> getSkippedTargets() {
+        return skippedTargets;
+    }
+
+    public boolean isAborted() {
+        return abortReason != null;
+    }
+
+    public String getAbortReason() {
+        return abortReason;
+    }
+
+    public List<String> getFailedTargets() {
+        final List<String> failedTargets = new ArrayList<String>();
+        for (final WaveResult wave : waves) {
+            failedTargets.addAll(wave.getFailedTargets());
+        }
+        return failedTargets;
+    }
+
+    /**
+     * @return the lines of the summary report printed at the end of the rollout.
+     */
+    public List<String> getSummary() {
+        final List<String> summary = new ArrayList<String>();
+        int deployed = 0;
+        for (final WaveResult wave : waves) {
+            summary.add(wave.toString());
+            deployed += wave.getResults().size();
+        }
+        final int failed = getFailedTargets().size();
+        summary.add("Total: " + (deployed - failed) + " succeeded, " + failed + " failed, " + skippedTargets.size() + " not deployed");
+        if (isAborted()) {
+            summary.add("Rollout aborted: " + abortReason);
+        }
+        return summary;
+    }
+
+    /**
+     * @return the result as plain maps and lists, the value returned to Pipeline scripts.
+     */
+    public Map<String, Object> toMap() {
+        final List<Map<String, Object>> waveMaps = new ArrayList<Map<String, Object>>();
+        final Map<String, Map<String, Object>> targets = new LinkedHashMap<String, Map<String, Object>>();
+        for (final WaveResult wave : waves) {
+            final Map<String, Object> waveMap = new LinkedHashMap<String, Object>();
+            waveMap.put("wave", wave.getNumber());
+            waveMap.put("canary", wave.isCanary());
+            waveMap.put("targets", new ArrayList<String>(wave.getResults().keySet()));
+            waveMap.put("failedTargets", wave.getFailedTargets());
+            waveMaps.add(waveMap);
+            for (final TargetResult targetResult : wave.getResults().values()) {
+                targets.put(targetResult.getTarget(), targetResult.toMap());
+            }
+        }
+        final Map<String, Object> map = new LinkedHashMap<String, Object>();
+        map.put("waves", waveMaps);
+        map.put("results", targets);
+        map.put("skippedTargets", new ArrayList<String>(skippedTargets));
+        map.put("aborted", isAborted());
+        map.put("abortReason", abortReason);
+        return map;
+    }
+}
@@ -0,0 +1,71 @@
+package com.midvision.rapiddeploy.plugin.jenkins.deploy;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy;
+
+/** Outcome of the deployment of a project to a single target. **/
+public class TargetResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Status of a target whose deployment was never requested **/
+    public static final String NOT_STARTED = "NOT_STARTED";
+
+    /** Status of a target whose job was requested but is no longer monitored, the job may still be running **/
+    public static final String ABANDONED = "ABANDONED";
+
+    /** Status of a target whose deployment could not be requested or monitored **/
+    public static final String ERROR = "ERROR";
+
+    private final String target;
+    private final String jobId;
+    private final String status;
+    private final String error;
+
+    public TargetResult(final String target, final String jobId, final String status, final String error) {
+        this.target = target;
+        this.jobId = jobId;
+        this.status = status;
+        this.error = error;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public boolean isSuccess() {
+        return RapidDeployConnectorProxy.COMPLETED.equals(status);
+    }
+
+    /**
+     * @return the result as a plain map, the value returned to Pipeline scripts.
+     */
+    public Map<String, Object> toMap() {
+        final Map<String, Object> map = new LinkedHashMap<String, Object>();
+        map.put("jobId", jobId);
+        map.put("status", status);
+        map.put("success", isSuccess());
+        map.put("error", error);
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return target + ": " + status + (jobId != null ? " (job " + jobId + ")" : "") + (error != null ? " - " + error : "");
+    }
+}
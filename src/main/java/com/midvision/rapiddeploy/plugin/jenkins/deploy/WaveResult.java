@@ -0,0 +1,53 @@
+package com.midvision.rapiddeploy.plugin.jenkins.deploy;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Outcome of a single wave of a rollout. **/
+public class WaveResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int number;
+    private final boolean canary;
+    private final Map<String, TargetResult> results;
+
+    public WaveResult(final int number, final boolean canary, final Map<String, TargetResult> results) {
+        this.number = number;
+        this.canary = canary;
+        this.results = Collections.unmodifiableMap(new LinkedHashMap<String, TargetResult>(results));
+    }
+
+    public int getNumber() {
+        return number;
+    }
+
+    public boolean isCanary() {
+        return canary;
+    }
+
+    public Map<String, TargetResult> getResults() {
+        return results;
+    }
+
+    public List<String> getFailedTargets() {
+        final List<String> failedTargets = new ArrayList<String>();
+        for (final TargetResult targetResult : results.values()) {
+            if (!targetResult.isSuccess()) {
+                failedTargets.add(targetResult.getTarget());
+            }
+        }
+        return failedTargets;
+    }
+
+    @Override
+    public String toString() {
+        final int failed = getFailedTargets().size();
+        return "Wave " + number + (canary ? " (canary)" : "") + ": " + (results.size() - failed) + " succeeded, " + failed + " failed"
+                + (failed > 0 ? " " + getFailedTargets() : "");
+    }
+}
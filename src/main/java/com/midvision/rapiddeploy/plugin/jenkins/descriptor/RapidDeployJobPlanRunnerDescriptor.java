@@ -0,0 +1,89 @@
+package com.midvision.rapiddeploy.plugin.jenkins.descriptor;
+
+import java.io.IOException;
+
+import javax.servlet.ServletException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.kohsuke.stapler.AncestorInPath;
+import org.kohsuke.stapler.HttpResponse;
+import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.interceptor.RequirePOST;
+
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnection;
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy;
+
+import hudson.model.Describable;
+import hudson.model.Item;
+import hudson.tasks.BuildStep;
+import hudson.util.FormValidation;
+import hudson.util.HttpResponses;
+import hudson.util.ListBoxModel;
+
+/**
+ * Descriptor of the RapidDeploy job plan run build step and post-build action.
+ */
+public abstract class RapidDeployJobPlanRunnerDescriptor<T extends BuildStep & Describable<T>> extends RapidDeployStepDescriptor<T> {
+
+    private static final Log LOG = LogFactory.getLog(RapidDeployJobPlanRunnerDescriptor.class);
+
+    protected RapidDeployJobPlanRunnerDescriptor(final Class<? extends T> clazz) {
+        super(clazz);
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "RapidDeploy job plan runner";
+    }
+
+    /** LOAD JOB PLANS BUTTON **/
+    @RequirePOST
+    public FormValidation doLoadJobPlans(@QueryParameter("serverId") final String serverId, @QueryParameter("serverUrl") final String formServerUrl,
+            @QueryParameter("authenticationToken") final String formAuthenticationToken, @AncestorInPath final Item item)
+            throws IOException, ServletException {
+        LOG.debug("doLoadJobPlans");
+        if (item == null) {
+            return FormValidation.ok();
+        }
+        if (!item.hasPermission(Item.CONFIGURE)) {
+            return FormValidation.warning(RapidDeployConnectorProxy.INSUFFICIENT_PERMISSIONS_MESSAGE);
+        }
+        final RapidDeployConnection connection = RapidDeployConnection.forForm(serverId, formServerUrl, formAuthenticationToken, item);
+        final String serverUrl = connection.getServerUrl();
+        final String authenticationToken = connection.getAuthenticationToken();
+        rdProxy.refresh(serverUrl, authenticationToken);
+        if (rdProxy.getJobPlans(serverUrl, authenticationToken).isEmpty()) {
+            return FormValidation.error(RapidDeployConnectorProxy.CONNECTION_BAD_MESSAGE);
+        }
+        return FormValidation.ok();
+    }
+
+    /** JOB PLANS FIELD **/
+    @RequirePOST
+    public ListBoxModel doFillJobPlanItems(@QueryParameter("serverId") final String serverId, @QueryParameter("serverUrl") final String formServerUrl,
+            @QueryParameter("authenticationToken") final String formAuthenticationToken, @QueryParameter("jobPlan") final String jobPlan,
+            @AncestorInPath final Item item) {
+        LOG.debug("doFillJobPlans");
+        final ListBoxModel denied = checkFillPermission(item);
+        if (denied != null) {
+            return denied;
+        }
+        final RapidDeployConnection connection = RapidDeployConnection.forForm(serverId, formServerUrl, formAuthenticationToken, item);
+        return toListBoxModel(rdProxy.loadJobPlans(connection.getServerUrl(), connection.getAuthenticationToken()), jobPlan);
+    }
+
+    /** JOB PLAN SEARCH **/
+    @RequirePOST
+    public HttpResponse doSearchJobPlans(@QueryParameter("serverId") final String serverId, @QueryParameter("serverUrl") final String formServerUrl,
+            @QueryParameter("authenticationToken") final String formAuthenticationToken, @QueryParameter("prefix") final String prefix,
+            @QueryParameter("offset") final int offset, @QueryParameter("limit") final int limit, @AncestorInPath final Item item) {
+        LOG.debug("doSearchJobPlans");
+        if (item == null || !item.hasPermission(Item.CONFIGURE)) {
+            return HttpResponses.errorJSON(RapidDeployConnectorProxy.INSUFFICIENT_PERMISSIONS_MESSAGE);
+        }
+        final RapidDeployConnection connection = RapidDeployConnection.forForm(serverId, formServerUrl, formAuthenticationToken, item);
+        return HttpResponses.okJSON(rdProxy.searchJobPlans(connection.getServerUrl(), connection.getAuthenticationToken(), prefix, offset, limit)
+                .toJSON());
+    }
+}
@@ -0,0 +1,103 @@
+package com.midvision.rapiddeploy.plugin.jenkins.descriptor;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.kohsuke.stapler.AncestorInPath;
+import org.kohsuke.stapler.HttpResponse;
+import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.interceptor.RequirePOST;
+
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnection;
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy;
+import com.midvision.rapiddeploy.plugin.jenkins.cache.ListPage;
+
+import hudson.model.Describable;
+import hudson.model.Item;
+import hudson.tasks.BuildStep;
+import hudson.util.ComboBoxModel;
+import hudson.util.HttpResponses;
+import hudson.util.ListBoxModel;
+
+/**
+ * Descriptor of the RapidDeploy project deploy build step and post-build action.
+ */
+public abstract class RapidDeployJobRunnerDescriptor<T extends BuildStep & Describable<T>> extends RapidDeployProjectStepDescriptor<T> {
+
+    private static final Log LOG = LogFactory.getLog(RapidDeployJobRunnerDescriptor.class);
+
+    protected RapidDeployJobRunnerDescriptor(final Class<? extends T> clazz) {
+        super(clazz);
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "RapidDeploy project deploy";
+    }
+
+    /** TARGET FIELD **/
+    @RequirePOST
+    public ListBoxModel doFillTargetItems(@QueryParameter("serverId") final String serverId, @QueryParameter("serverUrl") final String formServerUrl,
+            @QueryParameter("authenticationToken") final String formAuthenticationToken, @QueryParameter("project") final String project,
+            @QueryParameter("target") final String target, @AncestorInPath final Item item) {
+        LOG.debug("doFillTargetItems");
+        final ListBoxModel denied = checkFillPermission(item);
+        if (denied != null) {
+            return denied;
+        }
+        final RapidDeployConnection connection = RapidDeployConnection.forForm(serverId, formServerUrl, formAuthenticationToken, item);
+        return toListBoxModel(rdProxy.loadTargets(connection.getServerUrl(), connection.getAuthenticationToken(), project), target);
+    }
+
+    /** TARGET SEARCH **/
+    @RequirePOST
+    public HttpResponse doSearchTargets(@QueryParameter("serverId") final String serverId, @QueryParameter("serverUrl") final String formServerUrl,
+            @QueryParameter("authenticationToken") final String formAuthenticationToken, @QueryParameter("project") final String project,
+            @QueryParameter("prefix") final String prefix, @QueryParameter("offset") final int offset, @QueryParameter("limit") final int limit,
+            @AncestorInPath final Item item) {
+        LOG.debug("doSearchTargets");
+        if (item == null || !item.hasPermission(Item.CONFIGURE)) {
+            return HttpResponses.errorJSON(RapidDeployConnectorProxy.INSUFFICIENT_PERMISSIONS_MESSAGE);
+        }
+        final RapidDeployConnection connection = RapidDeployConnection.forForm(serverId, formServerUrl, formAuthenticationToken, item);
+        return HttpResponses.okJSON(rdProxy.searchTargets(connection.getServerUrl(), connection.getAuthenticationToken(), project, prefix, offset,
+                limit).toJSON());
+    }
+
+    /** PACKAGE FIELD **/
+    @RequirePOST
+    public ComboBoxModel doFillPackageNameItems(@QueryParameter("serverId") final String serverId,
+            @QueryParameter("serverUrl") final String formServerUrl, @QueryParameter("authenticationToken") final String formAuthenticationToken,
+            @QueryParameter("project") final String project, @QueryParameter("target") final String target, @AncestorInPath final Item item) {
+        LOG.debug("doFillPackageNameItems");
+        final ComboBoxModel comboBoxItems = new ComboBoxModel();
+        if (item == null) {
+            return comboBoxItems;
+        }
+        if (!item.hasPermission(Item.CONFIGURE)) {
+            comboBoxItems.add("No items retrieved. " + RapidDeployConnectorProxy.INSUFFICIENT_PERMISSIONS_MESSAGE);
+            return comboBoxItems;
+        }
+        final RapidDeployConnection connection = RapidDeployConnection.forForm(serverId, formServerUrl, formAuthenticationToken, item);
+        comboBoxItems.add("LATEST");
+        // Only the first packages are listed, any other name can still be typed or found with searchPackageNames
+        final ListPage packageNames = rdProxy.searchDeploymentPackages(connection.getServerUrl(), connection.getAuthenticationToken(), project,
+                target, null, 0, ListPage.MAX_LIMIT);
+        comboBoxItems.addAll(packageNames.getValues());
+        return comboBoxItems;
+    }
+
+    /** PACKAGE SEARCH **/
+    @RequirePOST
+    public HttpResponse doSearchPackageNames(@QueryParameter("serverId") final String serverId, @QueryParameter("serverUrl") final String formServerUrl,
+            @QueryParameter("authenticationToken") final String formAuthenticationToken, @QueryParameter("project") final String project,
+            @QueryParameter("target") final String target, @QueryParameter("prefix") final String prefix, @QueryParameter("offset") final int offset,
+            @QueryParameter("limit") final int limit, @AncestorInPath final Item item) {
+        LOG.debug("doSearchPackageNames");
+        if (item == null || !item.hasPermission(Item.CONFIGURE)) {
+            return HttpResponses.errorJSON(RapidDeployConnectorProxy.INSUFFICIENT_PERMISSIONS_MESSAGE);
+        }
+        final RapidDeployConnection connection = RapidDeployConnection.forForm(serverId, formServerUrl, formAuthenticationToken, item);
+        return HttpResponses.okJSON(rdProxy.searchDeploymentPackages(connection.getServerUrl(), connection.getAuthenticationToken(), project,
+                target, prefix, offset, limit).toJSON());
+    }
+}
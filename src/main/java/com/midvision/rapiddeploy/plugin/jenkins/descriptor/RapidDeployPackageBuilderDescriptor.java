@@ -0,0 +1,78 @@
+package com.midvision.rapiddeploy.plugin.jenkins.descriptor;
+
+import java.io.IOException;
+
+import javax.servlet.ServletException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.kohsuke.stapler.AncestorInPath;
+import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.interceptor.RequirePOST;
+
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnection;
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy;
+
+import hudson.model.Describable;
+import hudson.model.Item;
+import hudson.tasks.BuildStep;
+import hudson.util.FormValidation;
+import hudson.util.ListBoxModel;
+
+/**
+ * Descriptor of the RapidDeploy deployment package build step and post-build action.
+ */
+public abstract class RapidDeployPackageBuilderDescriptor<T extends BuildStep & Describable<T>> extends RapidDeployProjectStepDescriptor<T> {
+
+    private static final Log LOG = LogFactory.getLog(RapidDeployPackageBuilderDescriptor.class);
+
+    protected RapidDeployPackageBuilderDescriptor(final Class<? extends T> clazz) {
+        super(clazz);
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "RapidDeploy deployment package build";
+    }
+
+    /** SHOW PACKAGES BUTTON **/
+    @RequirePOST
+    public FormValidation doGetPackages(@QueryParameter("serverId") final String serverId, @QueryParameter("serverUrl") final String formServerUrl,
+            @QueryParameter("authenticationToken") final String formAuthenticationToken, @QueryParameter("project") final String project,
+            @AncestorInPath final Item item) throws IOException, ServletException {
+        LOG.debug("doGetPackages");
+        if (item == null) {
+            return FormValidation.ok();
+        }
+        if (!item.hasPermission(Item.CONFIGURE)) {
+            return FormValidation.warning(RapidDeployConnectorProxy.INSUFFICIENT_PERMISSIONS_MESSAGE);
+        }
+        final RapidDeployConnection connection = RapidDeployConnection.forForm(serverId, formServerUrl, formAuthenticationToken, item);
+        final String serverUrl = connection.getServerUrl();
+        final String authenticationToken = connection.getAuthenticationToken();
+        if (rdProxy.getProjects(serverUrl, authenticationToken).contains(project)) {
+            final String packagesTable = rdProxy.createPackagesTable(serverUrl, authenticationToken, project);
+            if (packagesTable != null) {
+                return FormValidation.okWithMarkup(packagesTable);
+            }
+        } else if (rdProxy.getProjects(serverUrl, authenticationToken).isEmpty()) {
+            return FormValidation.error(RapidDeployConnectorProxy.CONNECTION_BAD_MESSAGE);
+        } else {
+            return FormValidation.warning(RapidDeployConnectorProxy.WRONG_PROJECT_MESSAGE);
+        }
+        return FormValidation.warning("No deployment package could be retrieved for '" + project + "'.");
+    }
+
+    /** ARCHIVE EXTENSION FIELD **/
+    public ListBoxModel doFillArchiveExtensionItems() {
+        LOG.debug("doFillArchiveExtensionItems");
+        final ListBoxModel items = new ListBoxModel();
+        items.add("jar");
+        items.add("war");
+        items.add("ear");
+        items.add("tar");
+        items.add("rar");
+        items.add("zip");
+        return items;
+    }
+}
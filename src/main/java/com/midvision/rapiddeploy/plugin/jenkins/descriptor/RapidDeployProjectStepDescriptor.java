@@ -0,0 +1,84 @@
+package com.midvision.rapiddeploy.plugin.jenkins.descriptor;
+
+import java.io.IOException;
+
+import javax.servlet.ServletException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.kohsuke.stapler.AncestorInPath;
+import org.kohsuke.stapler.HttpResponse;
+import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.interceptor.RequirePOST;
+
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnection;
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy;
+
+import hudson.model.Describable;
+import hudson.model.Item;
+import hudson.tasks.BuildStep;
+import hudson.util.FormValidation;
+import hudson.util.HttpResponses;
+import hudson.util.ListBoxModel;
+
+/**
+ * Descriptor of the RapidDeploy build steps working on a project, with the project field of their forms.
+ */
+public abstract class RapidDeployProjectStepDescriptor<T extends BuildStep & Describable<T>> extends RapidDeployStepDescriptor<T> {
+
+    private static final Log LOG = LogFactory.getLog(RapidDeployProjectStepDescriptor.class);
+
+    protected RapidDeployProjectStepDescriptor(final Class<? extends T> clazz) {
+        super(clazz);
+    }
+
+    /** LOAD PROJECTS BUTTON **/
+    @RequirePOST
+    public FormValidation doLoadProjects(@QueryParameter("serverId") final String serverId, @QueryParameter("serverUrl") final String formServerUrl,
+            @QueryParameter("authenticationToken") final String formAuthenticationToken, @AncestorInPath final Item item)
+            throws IOException, ServletException {
+        LOG.debug("doLoadProjects");
+        if (item == null) {
+            return FormValidation.ok();
+        }
+        if (!item.hasPermission(Item.CONFIGURE)) {
+            return FormValidation.warning(RapidDeployConnectorProxy.INSUFFICIENT_PERMISSIONS_MESSAGE);
+        }
+        final RapidDeployConnection connection = RapidDeployConnection.forForm(serverId, formServerUrl, formAuthenticationToken, item);
+        final String serverUrl = connection.getServerUrl();
+        final String authenticationToken = connection.getAuthenticationToken();
+        rdProxy.refresh(serverUrl, authenticationToken);
+        if (rdProxy.getProjects(serverUrl, authenticationToken).isEmpty()) {
+            return FormValidation.error(RapidDeployConnectorProxy.CONNECTION_BAD_MESSAGE);
+        }
+        return FormValidation.ok();
+    }
+
+    /** PROJECT FIELD **/
+    @RequirePOST
+    public ListBoxModel doFillProjectItems(@QueryParameter("serverId") final String serverId, @QueryParameter("serverUrl") final String formServerUrl,
+            @QueryParameter("authenticationToken") final String formAuthenticationToken, @QueryParameter("project") final String project,
+            @AncestorInPath final Item item) {
+        LOG.debug("doFillProjectItems");
+        final ListBoxModel denied = checkFillPermission(item);
+        if (denied != null) {
+            return denied;
+        }
+        final RapidDeployConnection connection = RapidDeployConnection.forForm(serverId, formServerUrl, formAuthenticationToken, item);
+        return toListBoxModel(rdProxy.loadProjects(connection.getServerUrl(), connection.getAuthenticationToken()), project);
+    }
+
+    /** PROJECT SEARCH **/
+    @RequirePOST
+    public HttpResponse doSearchProjects(@QueryParameter("serverId") final String serverId, @QueryParameter("serverUrl") final String formServerUrl,
+            @QueryParameter("authenticationToken") final String formAuthenticationToken, @QueryParameter("prefix") final String prefix,
+            @QueryParameter("offset") final int offset, @QueryParameter("limit") final int limit, @AncestorInPath final Item item) {
+        LOG.debug("doSearchProjects");
+        if (item == null || !item.hasPermission(Item.CONFIGURE)) {
+            return HttpResponses.errorJSON(RapidDeployConnectorProxy.INSUFFICIENT_PERMISSIONS_MESSAGE);
+        }
+        final RapidDeployConnection connection = RapidDeployConnection.forForm(serverId, formServerUrl, formAuthenticationToken, item);
+        return HttpResponses.okJSON(rdProxy.searchProjects(connection.getServerUrl(), connection.getAuthenticationToken(), prefix, offset, limit)
+                .toJSON());
+    }
+}
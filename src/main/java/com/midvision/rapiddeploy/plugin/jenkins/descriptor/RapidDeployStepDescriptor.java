@@ -0,0 +1,132 @@
+package com.midvision.rapiddeploy.plugin.jenkins.descriptor;
+
+import java.io.IOException;
+import java.util.List;
+
+import javax.servlet.ServletException;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.kohsuke.stapler.AncestorInPath;
+import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.interceptor.RequirePOST;
+
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy;
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployServer;
+
+import hudson.Util;
+import hudson.model.AbstractProject;
+import hudson.model.Describable;
+import hudson.model.Item;
+import hudson.tasks.BuildStep;
+import hudson.tasks.BuildStepDescriptor;
+import hudson.util.FormValidation;
+import hudson.util.ListBoxModel;
+
+/**
+ * Base descriptor of the RapidDeploy build steps and post-build actions, with the server fields of their forms. A build step and the matching
+ * post-build action only differ by their extension point, so both register a subclass of the same descriptor.
+ */
+public abstract class RapidDeployStepDescriptor<T extends BuildStep & Describable<T>> extends BuildStepDescriptor<T> {
+
+    private static final Log LOG = LogFactory.getLog(RapidDeployStepDescriptor.class);
+
+    protected final RapidDeployConnectorProxy rdProxy = new RapidDeployConnectorProxy();
+
+    protected RapidDeployStepDescriptor(final Class<? extends T> clazz) {
+        super(clazz);
+    }
+
+    @SuppressWarnings("rawtypes")
+    @Override
+    public boolean isApplicable(final Class<? extends AbstractProject> aClass) {
+        // Indicates that this builder can be used with all kinds of project types
+        return true;
+    }
+
+    /** SERVER FIELD **/
+    @RequirePOST
+    public ListBoxModel doFillServerIdItems(@AncestorInPath final Item item) {
+        if (item == null || !item.hasPermission(Item.CONFIGURE)) {
+            return new ListBoxModel();
+        }
+        return RapidDeployServer.fillServerIdItems();
+    }
+
+    /** SERVER URL FIELD **/
+    @RequirePOST
+    public FormValidation doCheckServerUrl(@QueryParameter final String value, @QueryParameter final String serverId,
+            @AncestorInPath final Item item) throws IOException, ServletException {
+        LOG.debug("doCheckServerUrl");
+        if (item == null) {
+            return FormValidation.ok();
+        }
+        if (!item.hasPermission(Item.CONFIGURE)) {
+            return FormValidation.warning(RapidDeployConnectorProxy.INSUFFICIENT_PERMISSIONS_MESSAGE);
+        }
+        if (Util.fixEmptyAndTrim(serverId) != null) {
+            // The server of the global configuration is used instead
+            return FormValidation.ok();
+        }
+        if (value.length() == 0) {
+            return FormValidation.error(RapidDeployConnectorProxy.NOT_EMPTY_MESSAGE);
+        } else if (!value.startsWith("http://") && !value.startsWith("https://")) {
+            return FormValidation.warning(RapidDeployConnectorProxy.NO_PROTOCOL_MESSAGE);
+        }
+        return FormValidation.ok();
+    }
+
+    /** AUTHENTICATION TOKEN FIELD **/
+    @RequirePOST
+    public FormValidation doCheckAuthenticationToken(@QueryParameter final String value, @QueryParameter final String serverId,
+            @AncestorInPath final Item item) throws IOException, ServletException {
+        LOG.debug("doCheckAuthenticationToken");
+        if (item == null) {
+            return FormValidation.ok();
+        }
+        if (!item.hasPermission(Item.CONFIGURE)) {
+            return FormValidation.warning(RapidDeployConnectorProxy.INSUFFICIENT_PERMISSIONS_MESSAGE);
+        }
+        if (Util.fixEmptyAndTrim(serverId) != null) {
+            // The server of the global configuration is used instead
+            return FormValidation.ok();
+        }
+        if (value.length() == 0) {
+            return FormValidation.error(RapidDeployConnectorProxy.NOT_EMPTY_MESSAGE);
+        }
+        return FormValidation.ok();
+    }
+
+    /**
+     * @param current the value of the field in the form, kept as the selected option while the list is still loading so saving the form meanwhile
+     *            does not clear it.
+     * @return the items of a list retrieved from RapidDeploy, or the current value and a placeholder if the list is still loading.
+     */
+    protected static ListBoxModel toListBoxModel(final List<String> values, final String current) {
+        final ListBoxModel listBoxItems = new ListBoxModel();
+        if (values == null) {
+            if (StringUtils.isNotEmpty(current)) {
+                listBoxItems.add(current, current);
+            }
+            return listBoxItems.add(RapidDeployConnectorProxy.LOADING_MESSAGE, "");
+        }
+        for (final String value : values) {
+            listBoxItems.add(value);
+        }
+        return listBoxItems;
+    }
+
+    /**
+     * @return an empty list if the item is not known, a message if the user can not configure it, <code>null</code> if the list can be filled.
+     */
+    protected static ListBoxModel checkFillPermission(final Item item) {
+        if (item == null) {
+            return new ListBoxModel();
+        }
+        if (!item.hasPermission(Item.CONFIGURE)) {
+            return new ListBoxModel().add("No items retrieved. " + RapidDeployConnectorProxy.INSUFFICIENT_PERMISSIONS_MESSAGE);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,120 @@
+package com.midvision.rapiddeploy.plugin.jenkins.log;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployGlobalConfiguration;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.RapidDeployJobFailedException;
+
+import hudson.model.Run;
+import jenkins.model.Jenkins;
+
+/**
+ * Writes RapidDeploy job logs to compressed files in the build directory instead of the build console, which only shows the first and last lines
+ * of each log, or none of them if the number of console lines is 0. The logs are streamed to the files as they are read. The files are listed in the build page by the {@link RapidDeployLogsAction}.
+ */
+public class JobLogArchive {
+
+    public static final String LOGS_DIR = "rapiddeploy-logs";
+    public static final String LOG_EXTENSION = ".log.gz";
+
+    private final Run<?, ?> build;
+    private final int consoleLines;
+
+    JobLogArchive(final Run<?, ?> build, final int consoleLines) {
+        this.build = build;
+        this.consoleLines = consoleLines;
+    }
+
+    /**
+     * @return the archive of the given build, or <code>null</code> if the logs have to be written to the console.
+     */
+    public static JobLogArchive forBuild(final Run<?, ?> build) {
+        if (build == null || Jenkins.getInstanceOrNull() == null) {
+            return null;
+        }
+        final RapidDeployGlobalConfiguration configuration = RapidDeployGlobalConfiguration.get();
+        if (!configuration.isArchiveLogs()) {
+            return null;
+        }
+        return new JobLogArchive(build, configuration.getConsoleLogLines());
+    }
+
+    public static File getLogsDir(final Run<?, ?> build) {
+        return new File(build.getRootDir(), LOGS_DIR);
+    }
+
+    /**
+     * Streams the log of a job to its file, keeping only its first and last lines.
+     *
+     * @return the first and last lines of the log, to print in the console with {@link #printArchived}.
+     */
+    public LogExcerpt archive(final String jobId, final LogSource log) throws Exception {
+        final File logsDir = getLogsDir(build);
+        if (!logsDir.isDirectory() && !logsDir.mkdirs()) {
+            throw new IOException("Unable to create the directory " + logsDir);
+        }
+        final File logFile = new File(logsDir, jobId + LOG_EXTENSION);
+        final LogExcerpt excerpt = new LogExcerpt(consoleLines, RapidDeployJobFailedException.MAX_EXCERPT_LENGTH);
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(logFile)), StandardCharsets.UTF_8)) {
+            log.writeTo(new TeeWriter(writer, excerpt));
+        }
+        excerpt.close();
+        addAction();
+        return excerpt;
+    }
+
+    /**
+     * Tells the log of a job was archived and prints its first and last lines in the console.
+     */
+    public static void printArchived(final Logger logger, final String jobId, final LogExcerpt excerpt) {
+        logger.println("RapidDeploy job [" + jobId + "] log archived in the build page.");
+        excerpt.print(logger);
+    }
+
+    private void addAction() {
+        synchronized (build) {
+            if (build.getAction(RapidDeployLogsAction.class) == null) {
+                build.addAction(new RapidDeployLogsAction());
+            }
+        }
+    }
+
+    /** Log of a job, written as it is read **/
+    public interface LogSource {
+        void writeTo(Writer writer) throws Exception;
+    }
+
+    /** Writes to the archive and to the excerpt at the same time **/
+    private static final class TeeWriter extends Writer {
+
+        private final Writer archive;
+        private final Writer excerpt;
+
+        private TeeWriter(final Writer archive, final Writer excerpt) {
+            this.archive = archive;
+            this.excerpt = excerpt;
+        }
+
+        @Override
+        public void write(final char[] cbuf, final int off, final int len) throws IOException {
+            archive.write(cbuf, off, len);
+            excerpt.write(cbuf, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            archive.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            // Both are closed by the archive
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.midvision.rapiddeploy.plugin.jenkins.log;
+
+import java.io.Serializable;
+
+/**
+ * Keeps track of the part of a RapidDeploy job log already written to the build console, so every poll of the log only prints the new lines.
+ * Nothing but the offset is kept between polls.
+ */
+public class JobLogTail implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String jobId;
+    private volatile int offset;
+    private volatile boolean finished;
+
+    public JobLogTail(final String jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    /** Number of characters of the log already written to the console **/
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Prints the complete lines added to the log since the last call. A trailing incomplete line is kept for the next call. Nothing is printed
+     * once the job is finished, a log retrieved before the end of the job may arrive after it.
+     */
+    public synchronized void print(final Logger logger, final String log) {
+        if (!finished) {
+            print(logger, log, false);
+        }
+    }
+
+    /**
+     * Prints everything added to the log since the last call, the job being finished.
+     */
+    public synchronized void finish(final Logger logger, final String log) {
+        print(logger, log, true);
+        finished = true;
+    }
+
+    private void print(final Logger logger, final String log, final boolean finished) {
+        if (log == null) {
+            return;
+        }
+        if (log.length() < offset) {
+            // The log is not the one we were following, print it again from the start
+            offset = 0;
+        }
+        int end = log.length();
+        if (!finished) {
+            end = log.lastIndexOf('\n') + 1;
+        }
+        if (end <= offset) {
+            return;
+        }
+        String newLines = log.substring(offset, end);
+        if (newLines.endsWith("\n")) {
+            newLines = newLines.substring(0, newLines.endsWith("\r\n") ? newLines.length() - 2 : newLines.length() - 1);
+        }
+        logger.println(newLines);
+        offset = end;
+    }
+}
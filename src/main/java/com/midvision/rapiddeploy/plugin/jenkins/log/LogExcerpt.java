@@ -0,0 +1,99 @@
+package com.midvision.rapiddeploy.plugin.jenkins.log;
+
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * Keeps the first and last lines of a log written through it, and the end of the log, so the log can be streamed to its archive without being
+ * held in memory. The last line is only complete once the writer is closed.
+ */
+public class LogExcerpt extends Writer {
+
+    private final int lines;
+    private final int endLength;
+    private final List<String> head = new ArrayList<String>();
+    private final Deque<String> tail = new ArrayDeque<String>();
+    private final StringBuilder line = new StringBuilder();
+    private final StringBuilder end = new StringBuilder();
+    private long lineCount;
+
+    /**
+     * @param lines number of lines kept from the start and from the end of the log, none if 0.
+     * @param endLength number of characters kept from the end of the log.
+     */
+    public LogExcerpt(final int lines, final int endLength) {
+        this.lines = Math.max(0, lines);
+        this.endLength = endLength;
+    }
+
+    @Override
+    public void write(final char[] cbuf, final int off, final int len) {
+        end.append(cbuf, off, len);
+        if (end.length() > 2 * endLength) {
+            // One more character than asked is kept, telling the log was longer
+            end.delete(0, end.length() - endLength - 1);
+        }
+        if (lines == 0) {
+            return;
+        }
+        for (int i = off; i < off + len; i++) {
+            if (cbuf[i] == '\n') {
+                endLine();
+            } else {
+                line.append(cbuf[i]);
+            }
+        }
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+        if (line.length() > 0) {
+            endLine();
+        }
+    }
+
+    private void endLine() {
+        final String completeLine = StringUtils.removeEnd(line.toString(), "\r");
+        line.setLength(0);
+        lineCount++;
+        if (head.size() < lines) {
+            head.add(completeLine);
+        } else {
+            tail.addLast(completeLine);
+            if (tail.size() > lines) {
+                tail.removeFirst();
+            }
+        }
+    }
+
+    /**
+     * @return the last characters of the log, one more than asked if the log is longer.
+     */
+    public String getEnd() {
+        return end.toString();
+    }
+
+    /**
+     * Prints the first and last lines of the log, or the whole log if it is not longer than both of them.
+     */
+    public void print(final Logger logger) {
+        if (!head.isEmpty()) {
+            logger.println(StringUtils.join(head, "\n"));
+        }
+        if (lineCount > head.size() + tail.size()) {
+            logger.println("[...] see the archived log for the complete output [...]");
+        }
+        if (!tail.isEmpty()) {
+            logger.println(StringUtils.join(tail, "\n"));
+        }
+    }
+}
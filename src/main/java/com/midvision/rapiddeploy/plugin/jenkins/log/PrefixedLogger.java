@@ -0,0 +1,25 @@
+package com.midvision.rapiddeploy.plugin.jenkins.log;
+
+/**
+ * Prefixes every message, to tell apart the output of jobs running at the same time.
+ */
+public class PrefixedLogger implements Logger {
+
+    private final Logger logger;
+    private final String prefix;
+
+    public PrefixedLogger(final Logger logger, final String prefix) {
+        this.logger = logger;
+        this.prefix = prefix;
+    }
+
+    @Override
+    public void println() {
+        logger.println();
+    }
+
+    @Override
+    public void println(final Object message) {
+        logger.println(prefix + message);
+    }
+}
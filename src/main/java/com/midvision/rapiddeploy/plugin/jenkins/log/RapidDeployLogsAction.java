@@ -0,0 +1,98 @@
+package com.midvision.rapiddeploy.plugin.jenkins.log;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.io.IOUtils;
+import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.StaplerResponse;
+
+import hudson.model.Run;
+import jenkins.model.RunAction2;
+
+/**
+ * Lists the RapidDeploy job logs archived by a build and serves their content.
+ */
+public class RapidDeployLogsAction implements RunAction2 {
+
+    private static final Pattern JOB_ID_PATTERN = Pattern.compile("[\\w.-]+");
+
+    private transient Run<?, ?> run;
+
+    @Override
+    public void onAttached(final Run<?, ?> r) {
+        this.run = r;
+    }
+
+    @Override
+    public void onLoad(final Run<?, ?> r) {
+        this.run = r;
+    }
+
+    public Run<?, ?> getRun() {
+        return run;
+    }
+
+    @Override
+    public String getIconFileName() {
+        return run != null && run.hasPermission(Run.ARTIFACTS) ? "clipboard.png" : null;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "RapidDeploy logs";
+    }
+
+    @Override
+    public String getUrlName() {
+        return JobLogArchive.LOGS_DIR;
+    }
+
+    /**
+     * @return the IDs of the jobs whose log was archived.
+     */
+    public List<String> getJobIds() {
+        final List<String> jobIds = new ArrayList<String>();
+        final File[] logFiles = JobLogArchive.getLogsDir(run).listFiles();
+        if (logFiles != null) {
+            for (final File logFile : logFiles) {
+                if (logFile.getName().endsWith(JobLogArchive.LOG_EXTENSION)) {
+                    jobIds.add(logFile.getName().substring(0, logFile.getName().length() - JobLogArchive.LOG_EXTENSION.length()));
+                }
+            }
+        }
+        Collections.sort(jobIds);
+        return jobIds;
+    }
+
+    public long getSize(final String jobId) {
+        return new File(JobLogArchive.getLogsDir(run), jobId + JobLogArchive.LOG_EXTENSION).length();
+    }
+
+    /**
+     * Serves the uncompressed log of a job, streamed from the archived file.
+     */
+    public void doLog(@QueryParameter final String id, final StaplerResponse rsp) throws IOException, ServletException {
+        run.checkPermission(Run.ARTIFACTS);
+        final File logFile = new File(JobLogArchive.getLogsDir(run), id + JobLogArchive.LOG_EXTENSION);
+        if (id == null || !JOB_ID_PATTERN.matcher(id).matches() || !logFile.isFile()) {
+            rsp.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        rsp.setContentType("text/plain;charset=UTF-8");
+        try (InputStream in = new GZIPInputStream(new FileInputStream(logFile)); OutputStream out = rsp.getOutputStream()) {
+            IOUtils.copy(in, out);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.midvision.rapiddeploy.plugin.jenkins.metrics;
+
+import static com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy.EXECUTING;
+import static com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy.JOB_HALTED;
+import static com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy.REQUESTED;
+import static com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy.SCHEDULED;
+import static com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy.STARTING;
+import static com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy.SUBMITTED;
+import static com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy.TASK_HALTED;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import com.codahale.metrics.Timer;
+import com.midvision.rapiddeploy.plugin.jenkins.metrics.RapidDeployMetrics.Operation;
+import com.midvision.rapiddeploy.plugin.jenkins.metrics.RapidDeployMetrics.OperationMetrics;
+
+import hudson.Extension;
+import jenkins.metrics.api.MetricProvider;
+
+/**
+ * Publishes the {@link RapidDeployMetrics} to the Metrics plugin, under the <code>rapiddeploy.</code> prefix. Only loaded when the Metrics
+ * plugin is installed.
+ * <p>
+ * The latency of the calls is recorded in a timer per operation, so the Metrics plugin computes its own rates and percentiles instead of reading
+ * the coarse buckets kept for the JSON endpoint.
+ */
+@Extension(optional = true)
+public class RapidDeployMetricProvider extends MetricProvider {
+
+    private static final String PREFIX = "rapiddeploy.";
+
+    private final Map<Operation, Timer> latencyTimers = new EnumMap<Operation, Timer>(Operation.class);
+
+    private final MetricSet metricSet = new MetricSet() {
+        @Override
+        public Map<String, Metric> getMetrics() {
+            final RapidDeployMetrics metrics = RapidDeployMetrics.get();
+            final Map<String, Metric> metricMap = new HashMap<String, Metric>();
+            for (final Operation operation : Operation.values()) {
+                final OperationMetrics operationMetrics = metrics.getOperation(operation);
+                final String name = PREFIX + operation.getMetricName() + ".";
+                // The timer also counts the calls
+                metricMap.put(name + "latency", latencyTimers.get(operation));
+                metricMap.put(name + "errors", (Gauge<Long>) operationMetrics::getErrorCount);
+                metricMap.put(name + "bytes", (Gauge<Long>) operationMetrics::getBytes);
+            }
+            metricMap.put(PREFIX + "cache.hitRatio", (Gauge<Double>) metrics::getCacheHitRatio);
+            metricMap.put(PREFIX + "monitoredJobs", (Gauge<Integer>) metrics::getMonitoredJobCount);
+            for (final String jobStatus : new String[] { SUBMITTED, REQUESTED, SCHEDULED, STARTING, EXECUTING, JOB_HALTED, TASK_HALTED }) {
+                metricMap.put(PREFIX + "statusTime." + jobStatus,
+                        (Gauge<Long>) () -> metrics.getStatusTimes().getOrDefault(jobStatus, 0L));
+            }
+            return metricMap;
+        }
+    };
+
+    public RapidDeployMetricProvider() {
+        for (final Operation operation : Operation.values()) {
+            latencyTimers.put(operation, new Timer());
+        }
+        RapidDeployMetrics.get().setCallListener(
+                (operation, latencyMillis, failed) -> latencyTimers.get(operation).update(latencyMillis, TimeUnit.MILLISECONDS));
+    }
+
+    @Override
+    public MetricSet getMetricSet() {
+        return metricSet;
+    }
+}
@@ -0,0 +1,264 @@
+package com.midvision.rapiddeploy.plugin.jenkins.metrics;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.midvision.rapiddeploy.plugin.jenkins.cache.RapidDeployMetadataCache;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.RapidDeployJobMonitor;
+
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+
+/**
+ * Metrics of the calls made to the RapidDeploy servers and of the jobs the plugin waits for, kept since Jenkins started. They are exposed as
+ * JSON by {@link RapidDeployMetricsAction} and through the Metrics plugin when it is installed.
+ */
+public final class RapidDeployMetrics {
+
+    public enum Operation {
+        LIST_PROJECTS("listProjects"), LIST_TARGETS("listTargets"), LIST_PACKAGES("listPackages"), LIST_JOB_PLANS("listJobPlans"),
+        DEPLOY("deploy"), BUILD_PACKAGE("buildPackage"), RUN_JOB_PLAN("runJobPlan"), POLL_JOB_DETAILS("pollJobDetails"),
+        POLL_JOB_LOG("pollJobLog");
+
+        private final String metricName;
+
+        Operation(final String metricName) {
+            this.metricName = metricName;
+        }
+
+        public String getMetricName() {
+            return metricName;
+        }
+    }
+
+    /** Told of every call made to a RapidDeploy server, from the thread that made it **/
+    public interface CallListener {
+        void onCall(Operation operation, long latencyMillis, boolean failed);
+    }
+
+    /** Upper bounds, in milliseconds, of the latency histogram buckets. A last bucket holds the slower calls **/
+    static final long[] LATENCY_BUCKETS = { 10L, 25L, 50L, 100L, 250L, 500L, 1000L, 2500L, 5000L, 10000L, 30000L, 60000L };
+
+    /** Created after the buckets, which the constructor uses **/
+    private static final RapidDeployMetrics INSTANCE = new RapidDeployMetrics();
+
+    private final Map<Operation, OperationMetrics> operations = new EnumMap<Operation, OperationMetrics>(Operation.class);
+    private final ConcurrentMap<String, LongAdder> statusTimes = new ConcurrentHashMap<String, LongAdder>();
+    private volatile CallListener callListener;
+
+    private RapidDeployMetrics() {
+        for (final Operation operation : Operation.values()) {
+            operations.put(operation, new OperationMetrics());
+        }
+    }
+
+    public static RapidDeployMetrics get() {
+        return INSTANCE;
+    }
+
+    public OperationMetrics getOperation(final Operation operation) {
+        return operations.get(operation);
+    }
+
+    /**
+     * Records a call to a RapidDeploy server.
+     *
+     * @param response what the call returned, used to estimate the bytes received. <code>null</code> if the call failed.
+     */
+    public void recordCall(final Operation operation, final long latencyMillis, final Object response, final boolean failed) {
+        operations.get(operation).record(latencyMillis, failed ? 0L : sizeOf(response), failed);
+        final CallListener listener = callListener;
+        if (listener != null) {
+            listener.onCall(operation, latencyMillis, failed);
+        }
+    }
+
+    /**
+     * Sets the listener told of every call, none by default. The Metrics plugin feeds its latency timers from it.
+     */
+    public void setCallListener(final CallListener callListener) {
+        this.callListener = callListener;
+    }
+
+    /**
+     * Adds the time a build waited for a job in a given status, before the job moved to another one.
+     */
+    public void recordStatusTime(final String jobStatus, final long millis) {
+        if (jobStatus == null || millis < 0) {
+            return;
+        }
+        LongAdder time = statusTimes.get(jobStatus);
+        if (time == null) {
+            statusTimes.putIfAbsent(jobStatus, new LongAdder());
+            time = statusTimes.get(jobStatus);
+        }
+        time.add(millis);
+    }
+
+    /** Time the builds waited for their jobs in each status, in milliseconds **/
+    public Map<String, Long> getStatusTimes() {
+        final Map<String, Long> times = new TreeMap<String, Long>();
+        for (final Map.Entry<String, LongAdder> entry : statusTimes.entrySet()) {
+            times.put(entry.getKey(), entry.getValue().sum());
+        }
+        return times;
+    }
+
+    public int getMonitoredJobCount() {
+        return RapidDeployJobMonitor.get().getMonitoredJobCount();
+    }
+
+    public double getCacheHitRatio() {
+        return RapidDeployMetadataCache.get().getHitRatio();
+    }
+
+    public JSONObject toJSON() {
+        final JSONObject json = new JSONObject();
+        final JSONObject operationsJson = new JSONObject();
+        for (final Map.Entry<Operation, OperationMetrics> entry : operations.entrySet()) {
+            operationsJson.put(entry.getKey().getMetricName(), entry.getValue().toJSON());
+        }
+        json.put("operations", operationsJson);
+        final RapidDeployMetadataCache cache = RapidDeployMetadataCache.get();
+        final JSONObject cacheJson = new JSONObject();
+        cacheJson.put("size", cache.getSize());
+        cacheJson.put("hits", cache.getHitCount());
+        cacheJson.put("misses", cache.getMissCount());
+        cacheJson.put("hitRatio", cache.getHitRatio());
+        cacheJson.put("evictions", cache.getEvictionCount());
+        cacheJson.put("coalesced", cache.getCoalescedCount());
+        json.put("cache", cacheJson);
+        json.put("monitoredJobs", getMonitoredJobCount());
+        json.put("statusTimeMillis", JSONObject.fromObject(getStatusTimes()));
+        return json;
+    }
+
+    /**
+     * Estimates the bytes received from the length of the response, as the connector library does not expose the HTTP exchange. The responses
+     * are mostly ASCII, counting characters avoids encoding every job log again.
+     */
+    static long sizeOf(final Object response) {
+        if (response instanceof String) {
+            return ((String) response).length();
+        } else if (response instanceof Collection) {
+            long size = 0L;
+            for (final Object element : (Collection<?>) response) {
+                size += sizeOf(element);
+            }
+            return size;
+        } else if (response instanceof Number) {
+            // Number of characters of a response streamed by the call
+            return ((Number) response).longValue();
+        } else if (response instanceof Map) {
+            long size = 0L;
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) response).entrySet()) {
+                size += sizeOf(entry.getKey()) + sizeOf(entry.getValue());
+            }
+            return size;
+        }
+        return 0L;
+    }
+
+    /**
+     * Counters of a single operation. They are updated without locking, so a reading taken during a call may be off by that call.
+     */
+    public static final class OperationMetrics {
+
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder totalLatency = new LongAdder();
+        private final LongAccumulator maxLatency = new LongAccumulator(Math::max, 0L);
+        private final LongAdder[] latencyBuckets = new LongAdder[LATENCY_BUCKETS.length + 1];
+
+        private OperationMetrics() {
+            for (int i = 0; i < latencyBuckets.length; i++) {
+                latencyBuckets[i] = new LongAdder();
+            }
+        }
+
+        private void record(final long latencyMillis, final long responseBytes, final boolean failed) {
+            calls.increment();
+            if (failed) {
+                errors.increment();
+            }
+            bytes.add(responseBytes);
+            totalLatency.add(latencyMillis);
+            maxLatency.accumulate(latencyMillis);
+            int bucket = 0;
+            while (bucket < LATENCY_BUCKETS.length && latencyMillis > LATENCY_BUCKETS[bucket]) {
+                bucket++;
+            }
+            latencyBuckets[bucket].increment();
+        }
+
+        public long getCallCount() {
+            return calls.sum();
+        }
+
+        public long getErrorCount() {
+            return errors.sum();
+        }
+
+        /** Bytes received, estimated from the responses **/
+        public long getBytes() {
+            return bytes.sum();
+        }
+
+        public double getMeanLatency() {
+            final long count = calls.sum();
+            return count == 0 ? 0 : (double) totalLatency.sum() / count;
+        }
+
+        public long getMaxLatency() {
+            return maxLatency.get();
+        }
+
+        /**
+         * @return the upper bound of the histogram bucket holding the given percentile of the calls, in milliseconds, or the highest latency
+         *         seen if it falls in the last bucket.
+         */
+        public long getLatencyPercentile(final double percentile) {
+            final long count = calls.sum();
+            if (count == 0) {
+                return 0L;
+            }
+            final long rank = (long) Math.ceil(count * percentile / 100.0);
+            long seen = 0L;
+            for (int i = 0; i < LATENCY_BUCKETS.length; i++) {
+                seen += latencyBuckets[i].sum();
+                if (seen >= rank) {
+                    return LATENCY_BUCKETS[i];
+                }
+            }
+            return getMaxLatency();
+        }
+
+        public JSONObject toJSON() {
+            final JSONObject json = new JSONObject();
+            json.put("calls", getCallCount());
+            json.put("errors", getErrorCount());
+            json.put("bytes", getBytes());
+            json.put("meanLatencyMillis", getMeanLatency());
+            json.put("maxLatencyMillis", getMaxLatency());
+            json.put("p50LatencyMillis", getLatencyPercentile(50));
+            json.put("p95LatencyMillis", getLatencyPercentile(95));
+            json.put("p99LatencyMillis", getLatencyPercentile(99));
+            final JSONArray histogram = new JSONArray();
+            for (int i = 0; i < latencyBuckets.length; i++) {
+                final JSONObject bucket = new JSONObject();
+                bucket.put("le", i < LATENCY_BUCKETS.length ? String.valueOf(LATENCY_BUCKETS[i]) : "+Inf");
+                bucket.put("count", latencyBuckets[i].sum());
+                histogram.add(bucket);
+            }
+            json.put("latencyHistogram", histogram);
+            return json;
+        }
+    }
+}
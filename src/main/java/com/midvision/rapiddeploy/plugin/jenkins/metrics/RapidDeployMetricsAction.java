@@ -0,0 +1,37 @@
+package com.midvision.rapiddeploy.plugin.jenkins.metrics;
+
+import org.kohsuke.stapler.HttpResponse;
+
+import hudson.Extension;
+import hudson.model.RootAction;
+import hudson.util.HttpResponses;
+import jenkins.model.Jenkins;
+
+/**
+ * Serves the {@link RapidDeployMetrics} as JSON at <code>/rapiddeploy-metrics/</code>, for administrators only.
+ */
+@Extension
+public class RapidDeployMetricsAction implements RootAction {
+
+    public static final String URL_NAME = "rapiddeploy-metrics";
+
+    @Override
+    public String getIconFileName() {
+        return null;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "RapidDeploy metrics";
+    }
+
+    @Override
+    public String getUrlName() {
+        return URL_NAME;
+    }
+
+    public HttpResponse doIndex() {
+        Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+        return HttpResponses.okJSON(RapidDeployMetrics.get().toJSON());
+    }
+}
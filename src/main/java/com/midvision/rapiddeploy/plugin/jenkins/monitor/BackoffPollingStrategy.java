@@ -0,0 +1,89 @@
+package com.midvision.rapiddeploy.plugin.jenkins.monitor;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.jenkinsci.Symbol;
+import org.kohsuke.stapler.DataBoundConstructor;
+
+import hudson.Extension;
+
+/**
+ * Checks the job status quickly at first and then backs off exponentially, with some jitter so jobs started together do not keep polling the
+ * server at the same time. The interval goes back to the initial one every time the job status changes.
+ */
+public class BackoffPollingStrategy extends PollingStrategy {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final long DEFAULT_INITIAL_INTERVAL = 1000L;
+    public static final long DEFAULT_MAX_INTERVAL = 60000L;
+    public static final double DEFAULT_MULTIPLIER = 2.0;
+    public static final double DEFAULT_JITTER = 0.2;
+
+    private final long initialInterval;
+    private final long maxInterval;
+    private final double multiplier;
+    private final double jitter;
+
+    @DataBoundConstructor
+    public BackoffPollingStrategy(final long initialInterval, final long maxInterval, final double multiplier, final double jitter) {
+        this.initialInterval = initialInterval > 0 ? initialInterval : DEFAULT_INITIAL_INTERVAL;
+        this.maxInterval = Math.max(this.initialInterval, maxInterval > 0 ? maxInterval : DEFAULT_MAX_INTERVAL);
+        this.multiplier = multiplier >= 1 ? multiplier : DEFAULT_MULTIPLIER;
+        this.jitter = jitter >= 0 && jitter < 1 ? jitter : DEFAULT_JITTER;
+    }
+
+    public BackoffPollingStrategy() {
+        this(DEFAULT_INITIAL_INTERVAL, DEFAULT_MAX_INTERVAL, DEFAULT_MULTIPLIER, DEFAULT_JITTER);
+    }
+
+    /** First interval in milliseconds **/
+    public long getInitialInterval() {
+        return initialInterval;
+    }
+
+    /** Longest interval in milliseconds **/
+    public long getMaxInterval() {
+        return maxInterval;
+    }
+
+    public double getMultiplier() {
+        return multiplier;
+    }
+
+    /** Random variation applied to every interval, as a fraction of it **/
+    public double getJitter() {
+        return jitter;
+    }
+
+    @Override
+    public long getFirstInterval() {
+        return withJitter(initialInterval);
+    }
+
+    @Override
+    public long nextInterval(final String jobStatus, final boolean statusChanged, final long previousInterval) {
+        if (statusChanged) {
+            return withJitter(initialInterval);
+        }
+        return withJitter(Math.min(maxInterval, (long) (previousInterval * multiplier)));
+    }
+
+    private long withJitter(final long interval) {
+        if (jitter == 0) {
+            return interval;
+        }
+        final double variation = (ThreadLocalRandom.current().nextDouble() * 2 - 1) * jitter;
+        return Math.min(maxInterval, Math.max(1L, (long) (interval * (1 + variation))));
+    }
+
+    @Extension
+    @Symbol("backoff")
+    public static final class DescriptorImpl extends PollingStrategyDescriptor {
+
+        @Override
+        public String getDisplayName() {
+            return "Exponential backoff";
+        }
+    }
+}
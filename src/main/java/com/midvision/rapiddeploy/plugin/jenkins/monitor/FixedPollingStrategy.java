@@ -0,0 +1,66 @@
+package com.midvision.rapiddeploy.plugin.jenkins.monitor;
+
+import static com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy.JOB_HALTED;
+import static com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy.REQUESTED;
+import static com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy.REQUESTED_EXECUTING;
+import static com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy.REQUESTED_SCHEDULED;
+import static com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy.SCHEDULED;
+import static com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy.TASK_HALTED;
+
+import org.jenkinsci.Symbol;
+import org.kohsuke.stapler.DataBoundConstructor;
+
+import hudson.Extension;
+
+/**
+ * Checks the job status at fixed intervals, the way the plugin always did: every 30 seconds while the job runs and every 5 minutes while it is
+ * halted or scheduled.
+ */
+public class FixedPollingStrategy extends PollingStrategy {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long interval;
+    private final long waitingInterval;
+
+    @DataBoundConstructor
+    public FixedPollingStrategy(final long interval, final long waitingInterval) {
+        this.interval = interval > 0 ? interval : 30;
+        this.waitingInterval = waitingInterval > 0 ? waitingInterval : 300;
+    }
+
+    /** Interval in seconds while the job is running **/
+    public long getInterval() {
+        return interval;
+    }
+
+    /** Interval in seconds while the job is halted or scheduled **/
+    public long getWaitingInterval() {
+        return waitingInterval;
+    }
+
+    @Override
+    public long getFirstInterval() {
+        return interval * 1000L;
+    }
+
+    @Override
+    public long nextInterval(final String jobStatus, final boolean statusChanged, final long previousInterval) {
+        if (jobStatus.equals(REQUESTED) || jobStatus.equals(REQUESTED_SCHEDULED) || jobStatus.equals(REQUESTED_EXECUTING)) {
+            return previousInterval;
+        } else if (jobStatus.equals(JOB_HALTED) || jobStatus.equals(TASK_HALTED) || jobStatus.equals(SCHEDULED)) {
+            return waitingInterval * 1000L;
+        }
+        return interval * 1000L;
+    }
+
+    @Extension
+    @Symbol("fixed")
+    public static final class DescriptorImpl extends PollingStrategyDescriptor {
+
+        @Override
+        public String getDisplayName() {
+            return "Fixed interval";
+        }
+    }
+}
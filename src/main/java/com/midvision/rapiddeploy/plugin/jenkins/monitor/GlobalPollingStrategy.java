@@ -0,0 +1,49 @@
+package com.midvision.rapiddeploy.plugin.jenkins.monitor;
+
+import org.jenkinsci.Symbol;
+import org.kohsuke.stapler.DataBoundConstructor;
+
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployGlobalConfiguration;
+
+import hudson.Extension;
+import jenkins.model.Jenkins;
+
+/**
+ * Uses the polling strategy set in the global RapidDeploy configuration. This is what build steps use unless they override it.
+ */
+public class GlobalPollingStrategy extends PollingStrategy {
+
+    private static final long serialVersionUID = 1L;
+
+    @DataBoundConstructor
+    public GlobalPollingStrategy() {
+    }
+
+    @Override
+    public long getFirstInterval() {
+        return resolve().getFirstInterval();
+    }
+
+    @Override
+    public long nextInterval(final String jobStatus, final boolean statusChanged, final long previousInterval) {
+        return resolve().nextInterval(jobStatus, statusChanged, previousInterval);
+    }
+
+    @Override
+    public PollingStrategy resolve() {
+        if (Jenkins.getInstanceOrNull() == null) {
+            return new BackoffPollingStrategy();
+        }
+        return RapidDeployGlobalConfiguration.get().getPollingStrategy();
+    }
+
+    @Extension(ordinal = 100)
+    @Symbol("global")
+    public static final class DescriptorImpl extends PollingStrategyDescriptor {
+
+        @Override
+        public String getDisplayName() {
+            return "Global default";
+        }
+    }
+}
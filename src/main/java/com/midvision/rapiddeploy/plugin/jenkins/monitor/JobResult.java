@@ -0,0 +1,37 @@
+package com.midvision.rapiddeploy.plugin.jenkins.monitor;
+
+import java.io.Serializable;
+
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy;
+
+/** Final state of a RapidDeploy job, as seen by the last status poll. **/
+public class JobResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String jobId;
+    private final String jobStatus;
+    private final String jobDetails;
+
+    public JobResult(final String jobId, final String jobStatus, final String jobDetails) {
+        this.jobId = jobId;
+        this.jobStatus = jobStatus;
+        this.jobDetails = jobDetails;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public String getJobStatus() {
+        return jobStatus;
+    }
+
+    public String getJobDetails() {
+        return jobDetails;
+    }
+
+    public boolean isSuccess() {
+        return RapidDeployConnectorProxy.COMPLETED.equals(jobStatus);
+    }
+}
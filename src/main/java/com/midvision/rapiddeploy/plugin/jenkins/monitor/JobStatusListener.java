@@ -0,0 +1,12 @@
+package com.midvision.rapiddeploy.plugin.jenkins.monitor;
+
+/**
+ * Notified by the {@link RapidDeployJobMonitor} every time the status of a monitored job changes, so the caller can persist how far the job got.
+ */
+public interface JobStatusListener {
+
+    /**
+     * Called from a worker thread, it must not block.
+     */
+    void onStatusChange(String jobId, String jobStatus);
+}
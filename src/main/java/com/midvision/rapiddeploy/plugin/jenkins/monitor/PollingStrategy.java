@@ -0,0 +1,45 @@
+package com.midvision.rapiddeploy.plugin.jenkins.monitor;
+
+import java.io.Serializable;
+
+import hudson.DescriptorExtensionList;
+import hudson.ExtensionPoint;
+import hudson.model.AbstractDescribableImpl;
+import hudson.model.Descriptor;
+import jenkins.model.Jenkins;
+
+/**
+ * Decides how long the {@link RapidDeployJobMonitor} waits between two status checks of a RapidDeploy job. A strategy can be set globally and
+ * overridden on every build step.
+ */
+public abstract class PollingStrategy extends AbstractDescribableImpl<PollingStrategy> implements ExtensionPoint, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * @return the milliseconds to wait before the first status check of a job.
+     */
+    public abstract long getFirstInterval();
+
+    /**
+     * @param jobStatus the status returned by the last check, always a non final status.
+     * @param statusChanged whether the status is different from the one returned by the previous check.
+     * @param previousInterval the milliseconds waited before the last check.
+     * @return the milliseconds to wait before the next status check.
+     */
+    public abstract long nextInterval(String jobStatus, boolean statusChanged, long previousInterval);
+
+    /**
+     * Strategy that is actually applied, resolving any indirection to the global configuration.
+     */
+    public PollingStrategy resolve() {
+        return this;
+    }
+
+    public static DescriptorExtensionList<PollingStrategy, Descriptor<PollingStrategy>> all() {
+        return Jenkins.get().getDescriptorList(PollingStrategy.class);
+    }
+
+    public abstract static class PollingStrategyDescriptor extends Descriptor<PollingStrategy> {
+    }
+}
@@ -0,0 +1,76 @@
+package com.midvision.rapiddeploy.plugin.jenkins.monitor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import hudson.AbortException;
+
+/**
+ * Thrown when a RapidDeploy job finishes with a status other than COMPLETED. The exception only references the job logs through their URLs and
+ * carries a short excerpt of the end of the log, so it stays small whatever the size of the log.
+ */
+public class RapidDeployJobFailedException extends AbortException {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Maximum number of characters of the log kept in the exception **/
+    public static final int MAX_EXCERPT_LENGTH = 2000;
+
+    private final String jobId;
+    private final String jobStatus;
+    private final List<String> logUrls;
+    private final String logExcerpt;
+
+    public RapidDeployJobFailedException(final String jobId, final String jobStatus, final List<String> logUrls, final String logExcerpt) {
+        super(buildMessage(jobId, jobStatus, logUrls, logExcerpt));
+        this.jobId = jobId;
+        this.jobStatus = jobStatus;
+        this.logUrls = Collections.unmodifiableList(new ArrayList<String>(logUrls));
+        this.logExcerpt = logExcerpt;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public String getJobStatus() {
+        return jobStatus;
+    }
+
+    public List<String> getLogUrls() {
+        return logUrls;
+    }
+
+    /**
+     * @return the last lines of the job log, or <code>null</code> if the log was not retrieved.
+     */
+    public String getLogExcerpt() {
+        return logExcerpt;
+    }
+
+    /**
+     * @return the end of the given log, at most {@link #MAX_EXCERPT_LENGTH} characters long and starting at the beginning of a line.
+     */
+    public static String excerpt(final String log) {
+        if (log == null || log.length() <= MAX_EXCERPT_LENGTH) {
+            return log;
+        }
+        final int start = log.length() - MAX_EXCERPT_LENGTH;
+        final int lineStart = log.indexOf('\n', start);
+        return "[...]" + (lineStart < 0 ? log.substring(start) : log.substring(lineStart));
+    }
+
+    private static String buildMessage(final String jobId, final String jobStatus, final List<String> logUrls, final String logExcerpt) {
+        final StringBuilder message = new StringBuilder();
+        message.append("RapidDeploy job [").append(jobId).append("] failed with status ").append(jobStatus).append('.');
+        if (logExcerpt != null) {
+            message.append(System.lineSeparator()).append("Last lines of the job log:").append(System.lineSeparator()).append(logExcerpt);
+        }
+        message.append(System.lineSeparator()).append("You can check the RapidDeploy logs here: ");
+        for (final String logUrl : logUrls) {
+            message.append(System.lineSeparator()).append("  ").append(logUrl);
+        }
+        return message.toString();
+    }
+}
@@ -0,0 +1,477 @@
+package com.midvision.rapiddeploy.plugin.jenkins.monitor;
+
+import static com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy.BATCHED;
+import static com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy.EXECUTING;
+import static com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy.JOB_HALTED;
+import static com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy.REQUESTED;
+import static com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy.REQUESTED_EXECUTING;
+import static com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy.REQUESTED_SCHEDULED;
+import static com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy.RESUMING;
+import static com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy.SCHEDULED;
+import static com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy.STARTING;
+import static com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy.SUBMITTED;
+import static com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy.TASK_HALTED;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployExecutors;
+import com.midvision.rapiddeploy.plugin.jenkins.client.RapidDeployClient;
+import com.midvision.rapiddeploy.plugin.jenkins.log.JobLogTail;
+import com.midvision.rapiddeploy.plugin.jenkins.log.Logger;
+import com.midvision.rapiddeploy.plugin.jenkins.metrics.RapidDeployMetrics;
+
+import hudson.Util;
+
+/**
+ * Keeps track of every RapidDeploy job a build is waiting for. A single scheduler tick collects the jobs that are due for a status check and the
+ * polls run on the shared worker pool, one task per RapidDeploy server, so no executor thread is kept busy sleeping while the job runs on the
+ * RapidDeploy server.
+ */
+public final class RapidDeployJobMonitor {
+
+    private static final Log LOG = LogFactory.getLog(RapidDeployJobMonitor.class);
+
+    private static final RapidDeployJobMonitor INSTANCE = new RapidDeployJobMonitor();
+
+    /** Value returned by {@link #onStatus} when the job reached a final status **/
+    public static final long FINISHED = -1L;
+
+    /** Longest wait for a scheduled job, in case it is rescheduled or cancelled **/
+    static final long MAX_SCHEDULED_INTERVAL = 3600000L;
+
+    private static final Pattern SCHEDULED_START_TIME_PATTERN = Pattern
+            .compile("<(scheduledStartTime|scheduledTime|scheduledDate)>\\s*(\\d+)\\s*</\\1>");
+
+    /** Number of status checks in a row that may fail before the monitoring of a job fails **/
+    static final int MAX_POLL_ERRORS = Integer.getInteger(RapidDeployJobMonitor.class.getName() + ".maxPollErrors", 5);
+
+    /** Longest wait before checking again a job whose status check failed, in milliseconds **/
+    static final long MAX_POLL_RETRY_INTERVAL = 300000L;
+
+    /** How often the scheduler looks for jobs that are due for a status check **/
+    static final long TICK_INTERVAL = 250L;
+
+    /** Shortest time between two retrievals of the log of a running job, in milliseconds **/
+    static final long LOG_TAIL_INTERVAL = Long.getLong(RapidDeployJobMonitor.class.getName() + ".logTailInterval", 10000L);
+
+    /** Log length, in characters, adding another {@link #LOG_TAIL_INTERVAL} to the wait before the next retrieval of the log **/
+    static final int LOG_TAIL_CHARS_PER_INTERVAL = Integer.getInteger(RapidDeployJobMonitor.class.getName() + ".logTailCharsPerInterval", 262144);
+
+    /** Longest time between two retrievals of the log of a running job, however long the log is, in milliseconds **/
+    static final long MAX_LOG_TAIL_INTERVAL = Long.getLong(RapidDeployJobMonitor.class.getName() + ".maxLogTailInterval", 300000L);
+
+    private final Set<MonitoredJob> jobs = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean ticking = new AtomicBoolean();
+
+    private RapidDeployJobMonitor() {
+    }
+
+    public static RapidDeployJobMonitor get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts monitoring a RapidDeploy job. The returned future completes once the job reaches a final status; cancelling it stops the monitoring.
+     */
+    public CompletableFuture<JobResult> monitor(final Logger logger, final String serverUrl, final String authenticationToken, final String jobId,
+            final PollingStrategy pollingStrategy) {
+        return monitor(logger, serverUrl, authenticationToken, jobId, pollingStrategy, null);
+    }
+
+    /**
+     * Starts monitoring a RapidDeploy job, writing the new lines of its log to the build console on every status check while the job runs.
+     */
+    public CompletableFuture<JobResult> monitor(final Logger logger, final String serverUrl, final String authenticationToken, final String jobId,
+            final PollingStrategy pollingStrategy, final JobLogTail logTail) {
+        return monitor(logger, serverUrl, authenticationToken, jobId, pollingStrategy, logTail, null);
+    }
+
+    /**
+     * Starts monitoring a RapidDeploy job, notifying the given listener of every status change.
+     */
+    public CompletableFuture<JobResult> monitor(final Logger logger, final String serverUrl, final String authenticationToken, final String jobId,
+            final PollingStrategy pollingStrategy, final JobLogTail logTail, final JobStatusListener statusListener) {
+        final PollingStrategy strategy = (pollingStrategy != null ? pollingStrategy : new GlobalPollingStrategy()).resolve();
+        final MonitoredJob job = new MonitoredJob(logger, serverUrl, authenticationToken, jobId, strategy, logTail, statusListener);
+        jobs.add(job);
+        job.result.whenComplete((result, error) -> forget(job));
+        final long firstInterval = strategy.getFirstInterval();
+        logger.println("Checking job status, first check in " + Util.getTimeSpanString(firstInterval) + "...");
+        schedule(job, firstInterval);
+        startTicking();
+        return job.result;
+    }
+
+    /**
+     * Brings forward the next status check of a job, when the RapidDeploy server or a relay reports that its status changed. The pushed status is
+     * not trusted, the job details are polled as usual.
+     *
+     * @param serverUrl the RapidDeploy server running the job, or <code>null</code> to match the job ID on any server.
+     * @return the number of builds waiting for the job.
+     */
+    public int wakeUp(final String serverUrl, final String jobId) {
+        final String normalizedServerUrl = serverUrl != null ? StringUtils.removeEnd(serverUrl.trim(), "/") : null;
+        int waiters = 0;
+        for (final MonitoredJob job : jobs) {
+            if (job.jobId.equals(jobId) && (normalizedServerUrl == null
+                    || normalizedServerUrl.equalsIgnoreCase(StringUtils.removeEnd(job.serverKey.serverUrl, "/")))) {
+                // If a check is already running, the flag makes the next one immediate
+                job.wakeUpRequested = true;
+                job.nextPollTime = 0L;
+                waiters++;
+            }
+        }
+        return waiters;
+    }
+
+    public int getMonitoredJobCount() {
+        return jobs.size();
+    }
+
+    /**
+     * Logs the given job status and decides when the job has to be checked again.
+     *
+     * @return the milliseconds to wait before the next check, or {@link #FINISHED} if the status is a final one.
+     */
+    public static long onStatus(final Logger logger, final PollingStrategy strategy, final String jobStatus, final String previousStatus,
+            final String jobDetails, final long previousInterval) {
+        logger.println("Job status: " + jobStatus);
+        if (isFinished(jobStatus)) {
+            logger.println("Job finished with status: " + jobStatus);
+            return FINISHED;
+        }
+        long interval = strategy.nextInterval(jobStatus, !jobStatus.equals(previousStatus), previousInterval);
+        if (isRunning(jobStatus)) {
+            logger.println("Job running, next check in " + Util.getTimeSpanString(interval) + "...");
+        } else if (isRequested(jobStatus)) {
+            logger.println("Job in a REQUESTED state. Approval may be required in RapidDeploy to continue with the execution, next check in "
+                    + Util.getTimeSpanString(interval) + "...");
+        } else if (isHalted(jobStatus)) {
+            logger.println("Job in a HALTED state, next check in " + Util.getTimeSpanString(interval) + "...");
+            logger.println("Printing out job details: ");
+            logger.println(jobDetails);
+        } else {
+            // No need to check a scheduled job before the time it is expected to start
+            final Long scheduledStartTime = extractScheduledStartTime(jobDetails);
+            if (scheduledStartTime != null) {
+                interval = Math.max(interval, Math.min(scheduledStartTime - System.currentTimeMillis(), MAX_SCHEDULED_INTERVAL));
+            }
+            logger.println("Job in a SCHEDULED state, the execution will start in a future date, next check in " + Util.getTimeSpanString(interval)
+                    + "...");
+            logger.println("Printing out job details: ");
+            logger.println(jobDetails);
+        }
+        return interval;
+    }
+
+    public static boolean isRunning(final String jobStatus) {
+        return jobStatus.equals(SUBMITTED) || jobStatus.equals(STARTING) || jobStatus.equals(EXECUTING) || jobStatus.equals(BATCHED)
+                || jobStatus.equals(RESUMING);
+    }
+
+    public static boolean isRequested(final String jobStatus) {
+        return jobStatus.equals(REQUESTED) || jobStatus.equals(REQUESTED_SCHEDULED) || jobStatus.equals(REQUESTED_EXECUTING);
+    }
+
+    public static boolean isHalted(final String jobStatus) {
+        return jobStatus.equals(JOB_HALTED) || jobStatus.equals(TASK_HALTED);
+    }
+
+    public static boolean isFinished(final String jobStatus) {
+        return !isRunning(jobStatus) && !isRequested(jobStatus) && !isHalted(jobStatus) && !jobStatus.equals(SCHEDULED);
+    }
+
+    /**
+     * @return the time, in milliseconds since the epoch, a scheduled job is expected to start, or <code>null</code> if the job details do not
+     *         include it.
+     */
+    public static Long extractScheduledStartTime(final String jobDetails) {
+        if (jobDetails == null) {
+            return null;
+        }
+        final Matcher matcher = SCHEDULED_START_TIME_PATTERN.matcher(jobDetails);
+        if (matcher.find()) {
+            try {
+                return Long.valueOf(matcher.group(2));
+            } catch (final NumberFormatException e) {
+                LOG.debug("Invalid scheduled start time: " + matcher.group(2));
+            }
+        }
+        return null;
+    }
+
+    private void schedule(final MonitoredJob job, final long delay) {
+        job.interval = delay;
+        reschedule(job, delay);
+    }
+
+    private void reschedule(final MonitoredJob job, final long delay) {
+        job.nextPollTime = System.currentTimeMillis() + (job.wakeUpRequested ? 0L : delay);
+        job.polling = false;
+    }
+
+    private void startTicking() {
+        if (ticking.compareAndSet(false, true)) {
+            RapidDeployExecutors.scheduler().scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        tick();
+                    } catch (final RuntimeException e) {
+                        // An exception would cancel the periodic task and leave every build waiting forever
+                        LOG.error("Unexpected error while checking the RapidDeploy jobs: " + e.getMessage(), e);
+                    }
+                }
+            }, TICK_INTERVAL, TICK_INTERVAL, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Collects the jobs whose next check is due and hands them to the worker pool, grouped by RapidDeploy server and authentication token so each
+     * server is polled by a single task per tick.
+     */
+    private void tick() {
+        final long now = System.currentTimeMillis();
+        final Map<ServerKey, List<MonitoredJob>> dueJobs = new HashMap<ServerKey, List<MonitoredJob>>();
+        for (final MonitoredJob job : jobs) {
+            if (!job.polling && !job.result.isDone() && job.nextPollTime <= now) {
+                job.polling = true;
+                job.wakeUpRequested = false;
+                List<MonitoredJob> serverJobs = dueJobs.get(job.serverKey);
+                if (serverJobs == null) {
+                    serverJobs = new ArrayList<MonitoredJob>();
+                    dueJobs.put(job.serverKey, serverJobs);
+                }
+                serverJobs.add(job);
+            }
+        }
+        for (final Entry<ServerKey, List<MonitoredJob>> serverJobs : dueJobs.entrySet()) {
+            RapidDeployExecutors.workers().execute(new Runnable() {
+                @Override
+                public void run() {
+                    pollServer(serverJobs.getKey(), serverJobs.getValue());
+                }
+            });
+        }
+    }
+
+    /**
+     * Polls every due job of a single server. The RapidDeploy API only returns the details of one job per request, so the requests are made one
+     * after the other and each job ID is requested only once per tick, even if several builds are waiting for it.
+     */
+    private void pollServer(final ServerKey serverKey, final List<MonitoredJob> serverJobs) {
+        final Map<String, List<MonitoredJob>> waitersByJobId = new LinkedHashMap<String, List<MonitoredJob>>();
+        for (final MonitoredJob job : serverJobs) {
+            List<MonitoredJob> waiters = waitersByJobId.get(job.jobId);
+            if (waiters == null) {
+                waiters = new ArrayList<MonitoredJob>();
+                waitersByJobId.put(job.jobId, waiters);
+            }
+            waiters.add(job);
+        }
+        LOG.debug("Polling " + waitersByJobId.size() + " job(s) for " + serverJobs.size() + " waiter(s) on " + serverKey.serverUrl);
+        final RapidDeployClient client = RapidDeployClient.forServer(serverKey.serverUrl);
+        for (final Entry<String, List<MonitoredJob>> waiters : waitersByJobId.entrySet()) {
+            try {
+                final String jobDetails = client.pollJobDetails(serverKey.authenticationToken, waiters.getKey());
+                final String jobStatus = client.extractJobStatus(jobDetails);
+                for (final MonitoredJob job : waiters.getValue()) {
+                    dispatch(job, jobStatus, jobDetails);
+                }
+                tailLog(client, serverKey, waiters.getKey(), waiters.getValue(), jobStatus);
+            } catch (final Exception e) {
+                LOG.warn("Unable to check the status of the RapidDeploy job " + waiters.getKey() + ": " + e.getMessage());
+                for (final MonitoredJob job : waiters.getValue()) {
+                    retry(job, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the new lines of the log of a running job to the console of every build following it. The RapidDeploy API only returns the whole
+     * log, so it is requested once for all of them and only the part after each build's offset is printed. The log is retrieved on the log
+     * fetcher pool and never while the previous retrieval is still running, so a long log does not hold up the status checks of the other jobs
+     * of the server. The longer the log, the longer the wait before the next retrieval, see {@link #nextLogTailInterval(int)}.
+     */
+    private void tailLog(final RapidDeployClient client, final ServerKey serverKey, final String jobId, final List<MonitoredJob> waiters,
+            final String jobStatus) {
+        if (!isRunning(jobStatus) && !isHalted(jobStatus)) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        final List<MonitoredJob> followers = new ArrayList<MonitoredJob>();
+        for (final MonitoredJob job : waiters) {
+            if (job.logTail != null && !job.result.isDone() && now >= job.nextLogFetchTime && job.logFetching.compareAndSet(false, true)) {
+                // Pushed back once the length of the log is known
+                job.nextLogFetchTime = now + LOG_TAIL_INTERVAL;
+                followers.add(job);
+            }
+        }
+        if (followers.isEmpty()) {
+            return;
+        }
+        RapidDeployExecutors.logFetchers().execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    final String log = client.pollJobLog(serverKey.authenticationToken, jobId);
+                    final long nextLogFetchTime = System.currentTimeMillis() + nextLogTailInterval(log != null ? log.length() : 0);
+                    for (final MonitoredJob job : followers) {
+                        job.logTail.print(job.logger, log);
+                        job.nextLogFetchTime = nextLogFetchTime;
+                    }
+                } catch (final Exception e) {
+                    // The log is printed again at the end of the job, a failed poll only delays it
+                    LOG.debug("Unable to retrieve the log of the RapidDeploy job " + jobId + ": " + e.getMessage());
+                } finally {
+                    for (final MonitoredJob job : followers) {
+                        job.logFetching.set(false);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * @return the milliseconds to wait before retrieving again a log of the given length. Every retrieval downloads the whole log, so the wait
+     *         grows by {@link #LOG_TAIL_INTERVAL} for every {@link #LOG_TAIL_CHARS_PER_INTERVAL} characters, up to {@link #MAX_LOG_TAIL_INTERVAL}.
+     */
+    static long nextLogTailInterval(final int logLength) {
+        final long interval = LOG_TAIL_INTERVAL * (1L + logLength / Math.max(1, LOG_TAIL_CHARS_PER_INTERVAL));
+        return Math.min(interval, Math.max(LOG_TAIL_INTERVAL, MAX_LOG_TAIL_INTERVAL));
+    }
+
+    /**
+     * Checks the job again after a failed status check, waiting twice as long after each failure in a row. The monitoring fails once
+     * {@link #MAX_POLL_ERRORS} checks in a row have failed.
+     */
+    private void retry(final MonitoredJob job, final Exception error) {
+        if (job.result.isDone()) {
+            return;
+        }
+        job.pollErrors++;
+        if (job.pollErrors >= MAX_POLL_ERRORS) {
+            job.result.completeExceptionally(error);
+            return;
+        }
+        final long retryInterval = Math.min(Math.max(job.interval, TICK_INTERVAL) << (job.pollErrors - 1), MAX_POLL_RETRY_INTERVAL);
+        job.logger.println("Unable to check the job status: " + error.getMessage() + ", next check in " + Util.getTimeSpanString(retryInterval)
+                + " (failure " + job.pollErrors + " of " + MAX_POLL_ERRORS + ")...");
+        // The interval of the polling strategy is kept for the next successful check
+        reschedule(job, retryInterval);
+    }
+
+    private void dispatch(final MonitoredJob job, final String jobStatus, final String jobDetails) {
+        if (job.result.isDone()) {
+            return;
+        }
+        job.pollErrors = 0;
+        try {
+            final long nextInterval = onStatus(job.logger, job.strategy, jobStatus, job.lastStatus, jobDetails, job.interval);
+            if (!jobStatus.equals(job.lastStatus)) {
+                final long now = System.currentTimeMillis();
+                RapidDeployMetrics.get().recordStatusTime(job.lastStatus, now - job.lastStatusTime);
+                job.lastStatusTime = now;
+                if (job.statusListener != null) {
+                    notifyStatusChange(job, jobStatus);
+                }
+            }
+            job.lastStatus = jobStatus;
+            if (nextInterval == FINISHED) {
+                job.result.complete(new JobResult(job.jobId, jobStatus, jobDetails));
+            } else {
+                schedule(job, nextInterval);
+            }
+        } catch (final Exception e) {
+            job.result.completeExceptionally(e);
+        }
+    }
+
+    private static void notifyStatusChange(final MonitoredJob job, final String jobStatus) {
+        try {
+            job.statusListener.onStatusChange(job.jobId, jobStatus);
+        } catch (final RuntimeException e) {
+            // The listener only records the progress of the job, it must not stop the monitoring
+            LOG.warn("Unable to record the status of the RapidDeploy job " + job.jobId + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void forget(final MonitoredJob job) {
+        jobs.remove(job);
+    }
+
+    /** RapidDeploy server and credentials used to poll a job, jobs sharing them are polled together **/
+    private static final class ServerKey {
+        private final String serverUrl;
+        private final String authenticationToken;
+
+        private ServerKey(final String serverUrl, final String authenticationToken) {
+            this.serverUrl = serverUrl;
+            this.authenticationToken = authenticationToken;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ServerKey)) {
+                return false;
+            }
+            final ServerKey other = (ServerKey) obj;
+            return StringUtils.equals(serverUrl, other.serverUrl) && StringUtils.equals(authenticationToken, other.authenticationToken);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(new Object[] { serverUrl, authenticationToken });
+        }
+    }
+
+    private static final class MonitoredJob {
+        private final Logger logger;
+        private final ServerKey serverKey;
+        private final String jobId;
+        private final PollingStrategy strategy;
+        private final JobLogTail logTail;
+        private final JobStatusListener statusListener;
+        private final CompletableFuture<JobResult> result = new CompletableFuture<JobResult>();
+        private volatile String lastStatus;
+        private volatile long lastStatusTime = System.currentTimeMillis();
+        private volatile long interval;
+        private volatile int pollErrors;
+        private volatile long nextPollTime;
+        private volatile boolean polling;
+        private volatile boolean wakeUpRequested;
+        private final AtomicBoolean logFetching = new AtomicBoolean();
+        private volatile long nextLogFetchTime;
+
+        private MonitoredJob(final Logger logger, final String serverUrl, final String authenticationToken, final String jobId,
+                final PollingStrategy strategy, final JobLogTail logTail, final JobStatusListener statusListener) {
+            this.logger = logger;
+            this.serverKey = new ServerKey(serverUrl, authenticationToken);
+            this.jobId = jobId;
+            this.strategy = strategy;
+            this.logTail = logTail;
+            this.statusListener = statusListener;
+        }
+    }
+}
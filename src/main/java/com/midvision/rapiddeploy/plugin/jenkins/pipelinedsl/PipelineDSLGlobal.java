@@ -1,17 +1,35 @@
 package com.midvision.rapiddeploy.plugin.jenkins.pipelinedsl;
 
-import java.io.InputStreamReader;
-import java.io.Reader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.apache.commons.io.IOUtils;
 import org.jenkinsci.plugins.workflow.cps.CpsScript;
 import org.jenkinsci.plugins.workflow.cps.CpsThread;
 import org.jenkinsci.plugins.workflow.cps.GlobalVariable;
 
 import groovy.lang.Binding;
+import groovy.lang.GroovyClassLoader;
 import groovy.lang.GroovyCodeSource;
 
 public abstract class PipelineDSLGlobal extends GlobalVariable {
 
+	/** Source of the DSL scripts, read once from the plugin resources **/
+	private static final Map<String, String> SOURCES = new ConcurrentHashMap<String, String>();
+
+	/**
+	 * DSL classes compiled by each Pipeline shell class loader. The classes are CPS transformed by the shell, so they can not be shared between
+	 * executions; they are weakly referenced to let the class loader be collected with its execution.
+	 */
+	private static final Map<ClassLoader, Map<String, WeakReference<Class<?>>>> CLASSES = new WeakHashMap<ClassLoader, Map<String, WeakReference<Class<?>>>>();
+
 	public abstract String getFunctionName();
 
 	@Override
@@ -28,18 +46,49 @@ public abstract class PipelineDSLGlobal extends GlobalVariable {
 			throw new IllegalStateException("Expected to be called from CpsThread");
 		}
 
-		final ClassLoader cl = getClass().getClassLoader();
+		final Object pipelineDSL = getDSLClass(c.getExecution().getShell().getClassLoader()).newInstance();
+		binding.setVariable(getName(), pipelineDSL);
 
-		final String scriptPath = "dsl/" + getFunctionName() + ".groovy";
-		final Reader r = new InputStreamReader(cl.getResourceAsStream(scriptPath), "UTF-8");
+		return pipelineDSL;
+	}
 
-		final GroovyCodeSource gsc = new GroovyCodeSource(r, getFunctionName() + ".groovy", cl.getResource(scriptPath).getFile());
-		gsc.setCachable(true);
+	private Class<?> getDSLClass(final GroovyClassLoader shellClassLoader) throws IOException {
+		synchronized (CLASSES) {
+			Map<String, WeakReference<Class<?>>> classes = CLASSES.get(shellClassLoader);
+			if (classes == null) {
+				classes = new HashMap<String, WeakReference<Class<?>>>();
+				CLASSES.put(shellClassLoader, classes);
+			}
+			final WeakReference<Class<?>> cachedClass = classes.get(getFunctionName());
+			Class<?> dslClass = cachedClass != null ? cachedClass.get() : null;
+			if (dslClass == null) {
+				final ClassLoader cl = getClass().getClassLoader();
+				final String scriptPath = getScriptPath();
+				final GroovyCodeSource gsc = new GroovyCodeSource(getSource(), getFunctionName() + ".groovy", cl.getResource(scriptPath).getFile());
+				gsc.setCachable(true);
+				dslClass = shellClassLoader.parseClass(gsc);
+				classes.put(getFunctionName(), new WeakReference<Class<?>>(dslClass));
+			}
+			return dslClass;
+		}
+	}
 
-		final Object pipelineDSL = c.getExecution().getShell().getClassLoader().parseClass(gsc).newInstance();
-		binding.setVariable(getName(), pipelineDSL);
-		r.close();
+	private String getSource() throws IOException {
+		String source = SOURCES.get(getFunctionName());
+		if (source == null) {
+			final URL resource = getClass().getClassLoader().getResource(getScriptPath());
+			if (resource == null) {
+				throw new IOException("Unable to find the DSL script " + getScriptPath());
+			}
+			try (InputStream in = resource.openStream()) {
+				source = IOUtils.toString(in, StandardCharsets.UTF_8);
+			}
+			SOURCES.put(getFunctionName(), source);
+		}
+		return source;
+	}
 
-		return pipelineDSL;
+	private String getScriptPath() {
+		return "dsl/" + getFunctionName() + ".groovy";
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,224 @@
+package com.midvision.rapiddeploy.plugin.jenkins.pipelinestep;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.commons.lang.StringUtils;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnection;
+import com.midvision.rapiddeploy.plugin.jenkins.deploy.BuildAndDeployment;
+import com.midvision.rapiddeploy.plugin.jenkins.deploy.TargetResult;
+import com.midvision.rapiddeploy.plugin.jenkins.log.Logger;
+
+import hudson.AbortException;
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+
+/**
+ * Builds a RapidDeploy deployment package and deploys it to one or more targets as soon as the build completes. The step returns the
+ * <code>packageName</code> deployed, the <code>buildJobId</code> and the <code>results</code> per target; it fails if the package build fails
+ * or, without a package name, if the server does not report the name of the package built, and like <code>rapidDeployMultiTargetDeploy</code>
+ * if a deployment fails in fail-fast mode.
+ */
+public class RapidDeployBuildAndDeployStep extends RapidDeployTargetsStep {
+
+    private String packageName = "";
+    private String archiveExtension = "jar";
+    private boolean showFullLog = true;
+    private String target;
+    private int maxInFlight = RapidDeployMultiTargetDeployStep.DEFAULT_MAX_IN_FLIGHT;
+    private boolean failFast = true;
+
+    @DataBoundConstructor
+    public RapidDeployBuildAndDeployStep(final String serverUrl, final String authToken, final String project) {
+        super(serverUrl, authToken, project);
+    }
+
+    public String getPackageName() {
+        return packageName;
+    }
+
+    @DataBoundSetter
+    public void setPackageName(final String packageName) {
+        this.packageName = StringUtils.defaultString(packageName);
+    }
+
+    public String getArchiveExtension() {
+        return archiveExtension;
+    }
+
+    @DataBoundSetter
+    public void setArchiveExtension(final String archiveExtension) {
+        this.archiveExtension = StringUtils.isBlank(archiveExtension) ? "jar" : archiveExtension;
+    }
+
+    public boolean isShowFullLog() {
+        return showFullLog;
+    }
+
+    @DataBoundSetter
+    public void setShowFullLog(final boolean showFullLog) {
+        this.showFullLog = showFullLog;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    @DataBoundSetter
+    public void setTarget(final String target) {
+        this.target = StringUtils.trimToNull(target);
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    @DataBoundSetter
+    public void setMaxInFlight(final int maxInFlight) {
+        this.maxInFlight = maxInFlight > 0 ? maxInFlight : RapidDeployMultiTargetDeployStep.DEFAULT_MAX_IN_FLIGHT;
+    }
+
+    public boolean isFailFast() {
+        return failFast;
+    }
+
+    @DataBoundSetter
+    public void setFailFast(final boolean failFast) {
+        this.failFast = failFast;
+    }
+
+    /**
+     * @return the single target first, then the listed ones.
+     */
+    @Override
+    List<String> listTargets() {
+        final List<String> targets = new ArrayList<String>();
+        if (target != null) {
+            targets.add(target);
+        }
+        for (final String listedTarget : getTargets()) {
+            if (!targets.contains(listedTarget)) {
+                targets.add(listedTarget);
+            }
+        }
+        return targets;
+    }
+
+    @Override
+    void checkTargets() throws AbortException {
+        if (target == null && getTargets().isEmpty() && getTargetPattern() == null) {
+            throw new AbortException("Either target, targets or targetPattern must be set.");
+        }
+    }
+
+    @Override
+    protected StepExecution newExecution(final StepContext context, final RapidDeployConnection connection) {
+        return new Execution(context, this, connection);
+    }
+
+    private static final class Execution extends RapidDeployTargetsStepExecution<BuildAndDeployment, Map<String, TargetResult>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String packageName;
+        private final String archiveExtension;
+        private final boolean showFullLog;
+        private final int maxInFlight;
+        private final boolean failFast;
+
+        private Execution(final StepContext context, final RapidDeployBuildAndDeployStep step, final RapidDeployConnection connection) {
+            super(context, step, connection);
+            this.packageName = step.getPackageName();
+            this.archiveExtension = step.getArchiveExtension();
+            this.showFullLog = step.isShowFullLog();
+            this.maxInFlight = step.getMaxInFlight();
+            this.failFast = step.isFailFast();
+        }
+
+        @Override
+        protected BuildAndDeployment newDeployment(final Logger logger, final Run<?, ?> build) {
+            final BuildAndDeployment run = new BuildAndDeployment(logger, serverUrl, authToken, project, packageName, archiveExtension, showFullLog,
+                    dictionary, pollingStrategy, maxInFlight, failFast);
+            run.setBuild(build);
+            return run;
+        }
+
+        @Override
+        protected CompletableFuture<Map<String, TargetResult>> deploy(final BuildAndDeployment run, final List<String> deploymentTargets)
+                throws Exception {
+            // The targets are resolved before the build, a wrong pattern must not leave an unused package behind
+            if (deploymentTargets.isEmpty()) {
+                throw new AbortException("No target matches '" + targetPattern + "'.");
+            }
+            return run.run(deploymentTargets);
+        }
+
+        @Override
+        protected void cancel(final BuildAndDeployment run) {
+            run.cancel();
+        }
+
+        @Override
+        protected Object complete(final Logger logger, final BuildAndDeployment run, final Map<String, TargetResult> results)
+                throws AbortException {
+            final List<String> failedTargets = getFailedTargets(results);
+            logger.println("Deployed package " + run.getDeployedPackageName() + " to " + (results.size() - failedTargets.size()) + " of "
+                    + results.size() + " target(s).");
+            reportFailedTargets(logger, results, failFast);
+            final Map<String, Object> result = new LinkedHashMap<String, Object>();
+            result.put("packageName", run.getDeployedPackageName());
+            result.put("buildJobId", run.getBuildJobId());
+            result.put("results", toMap(results));
+            return result;
+        }
+
+        @Override
+        protected String getRestartMessage() {
+            return "Jenkins was restarted while building and deploying the package, "
+                    + "please check the status of the jobs on the RapidDeploy server.";
+        }
+
+        @Override
+        public String getStatus() {
+            final BuildAndDeployment run = getDeployment();
+            if (run == null || run.getBuildJobId() == null) {
+                return "Requesting the RapidDeploy package build";
+            } else if (run.getDeployedPackageName() == null) {
+                return "Waiting for the RapidDeploy package build job [" + run.getBuildJobId() + "]";
+            }
+            return "Deploying the RapidDeploy package " + run.getDeployedPackageName();
+        }
+    }
+
+    @Extension
+    public static final class DescriptorImpl extends StepDescriptor {
+
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            return new HashSet<Class<?>>(Arrays.asList(Run.class, TaskListener.class));
+        }
+
+        @Override
+        public String getFunctionName() {
+            return "rapidDeployBuildAndDeploy";
+        }
+
+        @Override
+        public String getDisplayName() {
+            return "RapidDeploy package build and deploy";
+        }
+    }
+}
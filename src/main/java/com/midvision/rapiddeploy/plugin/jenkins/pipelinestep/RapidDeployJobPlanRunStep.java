@@ -0,0 +1,173 @@
+package com.midvision.rapiddeploy.plugin.jenkins.pipelinestep;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.jenkinsci.plugins.workflow.steps.Step;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnection;
+import com.midvision.rapiddeploy.plugin.jenkins.client.RapidDeployClient;
+import com.midvision.rapiddeploy.plugin.jenkins.log.Logger;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.PollingStrategy;
+
+import hudson.Extension;
+import hudson.Util;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+
+/**
+ * Pipeline step behind the <code>rdJobPlanRun</code> DSL: runs a RapidDeploy job plan.
+ */
+public class RapidDeployJobPlanRunStep extends Step {
+
+    private final String serverUrl;
+    private final String authToken;
+    private final String jobPlanId;
+    private boolean asynchronous;
+    private boolean showIndividualLogs;
+    private boolean showFullLog;
+    private PollingStrategy pollingStrategy;
+    private String serverId;
+
+    @DataBoundConstructor
+    public RapidDeployJobPlanRunStep(final String serverUrl, final String authToken, final String jobPlanId) {
+        this.serverUrl = serverUrl;
+        this.authToken = authToken;
+        this.jobPlanId = jobPlanId;
+    }
+
+    public String getServerUrl() {
+        return serverUrl;
+    }
+
+    public String getAuthToken() {
+        return authToken;
+    }
+
+    public String getJobPlanId() {
+        return jobPlanId;
+    }
+
+    public boolean isAsynchronous() {
+        return asynchronous;
+    }
+
+    @DataBoundSetter
+    public void setAsynchronous(final boolean asynchronous) {
+        this.asynchronous = asynchronous;
+    }
+
+    public boolean isShowIndividualLogs() {
+        return showIndividualLogs;
+    }
+
+    @DataBoundSetter
+    public void setShowIndividualLogs(final boolean showIndividualLogs) {
+        this.showIndividualLogs = showIndividualLogs;
+    }
+
+    public boolean isShowFullLog() {
+        return showFullLog;
+    }
+
+    @DataBoundSetter
+    public void setShowFullLog(final boolean showFullLog) {
+        this.showFullLog = showFullLog;
+    }
+
+    public PollingStrategy getPollingStrategy() {
+        return pollingStrategy;
+    }
+
+    @DataBoundSetter
+    public void setPollingStrategy(final PollingStrategy pollingStrategy) {
+        this.pollingStrategy = pollingStrategy;
+    }
+
+    /**
+     * @return the ID of the RapidDeploy server of the global configuration to connect to. When set, the server URL and authentication token of
+     *         the step are not used and can be left empty.
+     */
+    public String getServerId() {
+        return serverId;
+    }
+
+    @DataBoundSetter
+    public void setServerId(final String serverId) {
+        this.serverId = Util.fixEmptyAndTrim(serverId);
+    }
+
+    @Override
+    public StepExecution start(final StepContext context) throws Exception {
+        final RapidDeployConnection connection = RapidDeployConnection.resolve(serverId, serverUrl, authToken, context.get(Run.class));
+        return new Execution(context, this, connection);
+    }
+
+    private static final class Execution extends RapidDeployStepExecution {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String jobPlanId;
+        private final boolean asynchronous;
+        private final boolean showIndividualLogs;
+        private final boolean showFullLog;
+
+        private Execution(final StepContext context, final RapidDeployJobPlanRunStep step, final RapidDeployConnection connection) {
+            super(context, step.getServerId(), step.getAuthToken(), connection, step.getPollingStrategy());
+            this.jobPlanId = step.getJobPlanId();
+            this.asynchronous = step.isAsynchronous();
+            this.showIndividualLogs = step.isShowIndividualLogs();
+            this.showFullLog = step.isShowFullLog();
+        }
+
+        @Override
+        protected String invoke(final Logger logger) throws Exception {
+            return RapidDeployClient.forServer(serverUrl).runJobPlan(authToken, jobPlanId);
+        }
+
+        @Override
+        protected String getJobDescription() {
+            return "Job plan " + jobPlanId;
+        }
+
+        @Override
+        protected boolean isAsynchronous() {
+            return asynchronous;
+        }
+
+        @Override
+        protected boolean isShowIndividualLogs() {
+            return showIndividualLogs;
+        }
+
+        @Override
+        protected boolean isShowFullLog() {
+            return showFullLog;
+        }
+    }
+
+    @Extension
+    public static final class DescriptorImpl extends StepDescriptor {
+
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            return new HashSet<Class<?>>(Arrays.asList(Run.class, TaskListener.class));
+        }
+
+        @Override
+        public String getFunctionName() {
+            return "rapidDeployJobPlanRun";
+        }
+
+        @Override
+        public String getDisplayName() {
+            return "RapidDeploy job plan runner";
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.midvision.rapiddeploy.plugin.jenkins.pipelinestep;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.jenkinsci.plugins.workflow.steps.Step;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnection;
+import com.midvision.rapiddeploy.plugin.jenkins.log.Logger;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.PollingStrategy;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.RapidDeployJobMonitor;
+
+import hudson.Extension;
+import hudson.Util;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+
+/**
+ * Waits for a RapidDeploy job to finish without holding the CPS VM thread or an executor: the step returns immediately and the Pipeline is resumed
+ * by the {@link RapidDeployJobMonitor} once the job reaches a final status.
+ */
+public class RapidDeployJobStatusStep extends Step {
+
+    private final String serverUrl;
+    private final String authToken;
+    private final String jobRequestOutput;
+    private boolean showIndividualLogs;
+    private boolean showFullLog;
+    private PollingStrategy pollingStrategy;
+    private String serverId;
+
+    @DataBoundConstructor
+    public RapidDeployJobStatusStep(final String serverUrl, final String authToken, final String jobRequestOutput) {
+        this.serverUrl = serverUrl;
+        this.authToken = authToken;
+        this.jobRequestOutput = jobRequestOutput;
+    }
+
+    public String getServerUrl() {
+        return serverUrl;
+    }
+
+    public String getAuthToken() {
+        return authToken;
+    }
+
+    public String getJobRequestOutput() {
+        return jobRequestOutput;
+    }
+
+    public boolean isShowIndividualLogs() {
+        return showIndividualLogs;
+    }
+
+    @DataBoundSetter
+    public void setShowIndividualLogs(final boolean showIndividualLogs) {
+        this.showIndividualLogs = showIndividualLogs;
+    }
+
+    public boolean isShowFullLog() {
+        return showFullLog;
+    }
+
+    @DataBoundSetter
+    public void setShowFullLog(final boolean showFullLog) {
+        this.showFullLog = showFullLog;
+    }
+
+    public PollingStrategy getPollingStrategy() {
+        return pollingStrategy;
+    }
+
+    @DataBoundSetter
+    public void setPollingStrategy(final PollingStrategy pollingStrategy) {
+        this.pollingStrategy = pollingStrategy;
+    }
+
+    /**
+     * @return the ID of the RapidDeploy server of the global configuration to connect to. When set, the server URL and authentication token of
+     *         the step are not used and can be left empty.
+     */
+    public String getServerId() {
+        return serverId;
+    }
+
+    @DataBoundSetter
+    public void setServerId(final String serverId) {
+        this.serverId = Util.fixEmptyAndTrim(serverId);
+    }
+
+    @Override
+    public StepExecution start(final StepContext context) throws Exception {
+        final RapidDeployConnection connection = RapidDeployConnection.resolve(serverId, serverUrl, authToken, context.get(Run.class));
+        return new Execution(context, this, connection);
+    }
+
+    private static final class Execution extends RapidDeployStepExecution {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String jobRequestOutput;
+        private final boolean showIndividualLogs;
+        private final boolean showFullLog;
+
+        private Execution(final StepContext context, final RapidDeployJobStatusStep step, final RapidDeployConnection connection) {
+            super(context, step.getServerId(), step.getAuthToken(), connection, step.getPollingStrategy());
+            this.jobRequestOutput = step.getJobRequestOutput();
+            this.showIndividualLogs = step.isShowIndividualLogs();
+            this.showFullLog = step.isShowFullLog();
+        }
+
+        @Override
+        protected String invoke(final Logger logger) {
+            // The job was already requested, only its status has to be checked
+            return jobRequestOutput;
+        }
+
+        @Override
+        protected String getJobDescription() {
+            // The request was sent by an earlier step, the timing starts when the status is first checked
+            return "Status of a job requested earlier";
+        }
+
+        @Override
+        protected boolean isShowIndividualLogs() {
+            return showIndividualLogs;
+        }
+
+        @Override
+        protected boolean isShowFullLog() {
+            return showFullLog;
+        }
+    }
+
+    @Extension
+    public static final class DescriptorImpl extends StepDescriptor {
+
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            return new HashSet<Class<?>>(Arrays.asList(Run.class, TaskListener.class));
+        }
+
+        @Override
+        public String getFunctionName() {
+            return "rapidDeployJobStatus";
+        }
+
+        @Override
+        public String getDisplayName() {
+            return "Wait for a RapidDeploy job to finish";
+        }
+    }
+}
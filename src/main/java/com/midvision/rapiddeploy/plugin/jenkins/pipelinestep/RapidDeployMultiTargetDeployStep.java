@@ -0,0 +1,152 @@
+package com.midvision.rapiddeploy.plugin.jenkins.pipelinestep;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.commons.lang.StringUtils;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnection;
+import com.midvision.rapiddeploy.plugin.jenkins.deploy.MultiTargetDeployment;
+import com.midvision.rapiddeploy.plugin.jenkins.deploy.TargetResult;
+import com.midvision.rapiddeploy.plugin.jenkins.log.Logger;
+
+import hudson.AbortException;
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+
+/**
+ * Deploys a RapidDeploy project to several targets, given as a list or as a regular expression matched against the targets of the project, with
+ * at most <code>maxInFlight</code> deployments running at the same time.
+ * <p>
+ * The step returns a map from each target to its result (<code>jobId</code>, <code>status</code>, <code>success</code> and <code>error</code>).
+ * With <code>failFast</code>, the first failed target stops the rollout and fails the step; otherwise every target is deployed and the script
+ * decides what to do with the failed ones.
+ */
+public class RapidDeployMultiTargetDeployStep extends RapidDeployTargetsStep {
+
+    public static final int DEFAULT_MAX_IN_FLIGHT = 5;
+
+    private String deploymentPackageName = "LATEST";
+    private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+    private boolean failFast;
+
+    @DataBoundConstructor
+    public RapidDeployMultiTargetDeployStep(final String serverUrl, final String authToken, final String project) {
+        super(serverUrl, authToken, project);
+    }
+
+    public String getDeploymentPackageName() {
+        return deploymentPackageName;
+    }
+
+    @DataBoundSetter
+    public void setDeploymentPackageName(final String deploymentPackageName) {
+        this.deploymentPackageName = StringUtils.isBlank(deploymentPackageName) ? "LATEST" : deploymentPackageName;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    @DataBoundSetter
+    public void setMaxInFlight(final int maxInFlight) {
+        this.maxInFlight = maxInFlight > 0 ? maxInFlight : DEFAULT_MAX_IN_FLIGHT;
+    }
+
+    public boolean isFailFast() {
+        return failFast;
+    }
+
+    @DataBoundSetter
+    public void setFailFast(final boolean failFast) {
+        this.failFast = failFast;
+    }
+
+    @Override
+    protected StepExecution newExecution(final StepContext context, final RapidDeployConnection connection) {
+        return new Execution(context, this, connection);
+    }
+
+    private static final class Execution extends RapidDeployTargetsStepExecution<MultiTargetDeployment, Map<String, TargetResult>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String deploymentPackageName;
+        private final int maxInFlight;
+        private final boolean failFast;
+
+        private Execution(final StepContext context, final RapidDeployMultiTargetDeployStep step, final RapidDeployConnection connection) {
+            super(context, step, connection);
+            this.deploymentPackageName = step.getDeploymentPackageName();
+            this.maxInFlight = step.getMaxInFlight();
+            this.failFast = step.isFailFast();
+        }
+
+        @Override
+        protected MultiTargetDeployment newDeployment(final Logger logger, final Run<?, ?> build) {
+            final MultiTargetDeployment deployment = new MultiTargetDeployment(logger, serverUrl, authToken, project, deploymentPackageName,
+                    dictionary, pollingStrategy, maxInFlight, failFast);
+            deployment.setBuild(build);
+            return deployment;
+        }
+
+        @Override
+        protected CompletableFuture<Map<String, TargetResult>> deploy(final MultiTargetDeployment deployment, final List<String> deploymentTargets) {
+            return deployment.deploy(deploymentTargets);
+        }
+
+        @Override
+        protected void cancel(final MultiTargetDeployment deployment) {
+            deployment.cancel();
+        }
+
+        @Override
+        protected Object complete(final Logger logger, final MultiTargetDeployment deployment, final Map<String, TargetResult> results)
+                throws AbortException {
+            final List<String> failedTargets = getFailedTargets(results);
+            logger.println("Deployed " + (results.size() - failedTargets.size()) + " of " + results.size() + " target(s).");
+            reportFailedTargets(logger, results, failFast);
+            return toMap(results);
+        }
+
+        @Override
+        protected String getRestartMessage() {
+            return "Jenkins was restarted while deploying to several targets, "
+                    + "please check the status of the deployments on the RapidDeploy server.";
+        }
+
+        @Override
+        public String getStatus() {
+            return getDeployment() == null ? "Resolving the RapidDeploy targets" : "Deploying to several RapidDeploy targets";
+        }
+    }
+
+    @Extension
+    public static final class DescriptorImpl extends StepDescriptor {
+
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            return new HashSet<Class<?>>(Arrays.asList(Run.class, TaskListener.class));
+        }
+
+        @Override
+        public String getFunctionName() {
+            return "rapidDeployMultiTargetDeploy";
+        }
+
+        @Override
+        public String getDisplayName() {
+            return "RapidDeploy project deploy to several targets";
+        }
+    }
+}
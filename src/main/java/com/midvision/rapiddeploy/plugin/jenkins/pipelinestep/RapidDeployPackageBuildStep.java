@@ -0,0 +1,157 @@
+package com.midvision.rapiddeploy.plugin.jenkins.pipelinestep;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.commons.lang.StringUtils;
+import org.jenkinsci.plugins.workflow.steps.Step;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnection;
+import com.midvision.rapiddeploy.plugin.jenkins.client.RapidDeployClient;
+import com.midvision.rapiddeploy.plugin.jenkins.log.Logger;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.PollingStrategy;
+
+import hudson.Extension;
+import hudson.Util;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+
+/**
+ * Pipeline step behind the <code>rdPackageBuild</code> DSL: creates a new deployment package of a RapidDeploy project.
+ */
+public class RapidDeployPackageBuildStep extends Step {
+
+    private final String serverUrl;
+    private final String authToken;
+    private final String project;
+    private String packageName = "";
+    private String archiveExtension = "jar";
+    private PollingStrategy pollingStrategy;
+    private String serverId;
+
+    @DataBoundConstructor
+    public RapidDeployPackageBuildStep(final String serverUrl, final String authToken, final String project) {
+        this.serverUrl = serverUrl;
+        this.authToken = authToken;
+        this.project = project;
+    }
+
+    public String getServerUrl() {
+        return serverUrl;
+    }
+
+    public String getAuthToken() {
+        return authToken;
+    }
+
+    public String getProject() {
+        return project;
+    }
+
+    public String getPackageName() {
+        return packageName;
+    }
+
+    @DataBoundSetter
+    public void setPackageName(final String packageName) {
+        this.packageName = StringUtils.defaultString(packageName);
+    }
+
+    public String getArchiveExtension() {
+        return archiveExtension;
+    }
+
+    @DataBoundSetter
+    public void setArchiveExtension(final String archiveExtension) {
+        this.archiveExtension = StringUtils.isBlank(archiveExtension) ? "jar" : archiveExtension;
+    }
+
+    public PollingStrategy getPollingStrategy() {
+        return pollingStrategy;
+    }
+
+    @DataBoundSetter
+    public void setPollingStrategy(final PollingStrategy pollingStrategy) {
+        this.pollingStrategy = pollingStrategy;
+    }
+
+    /**
+     * @return the ID of the RapidDeploy server of the global configuration to connect to. When set, the server URL and authentication token of
+     *         the step are not used and can be left empty.
+     */
+    public String getServerId() {
+        return serverId;
+    }
+
+    @DataBoundSetter
+    public void setServerId(final String serverId) {
+        this.serverId = Util.fixEmptyAndTrim(serverId);
+    }
+
+    @Override
+    public StepExecution start(final StepContext context) throws Exception {
+        final RapidDeployConnection connection = RapidDeployConnection.resolve(serverId, serverUrl, authToken, context.get(Run.class));
+        return new Execution(context, this, connection);
+    }
+
+    private static final class Execution extends RapidDeployStepExecution {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String project;
+        private final String packageName;
+        private final String archiveExtension;
+
+        private Execution(final StepContext context, final RapidDeployPackageBuildStep step, final RapidDeployConnection connection) {
+            super(context, step.getServerId(), step.getAuthToken(), connection, step.getPollingStrategy());
+            this.project = step.getProject();
+            this.packageName = step.getPackageName();
+            this.archiveExtension = step.getArchiveExtension();
+        }
+
+        @Override
+        protected String invoke(final Logger logger) throws Exception {
+            return RapidDeployClient.forServer(serverUrl).buildPackage(authToken, project, packageName, archiveExtension);
+        }
+
+        @Override
+        protected String getJobDescription() {
+            return "Package build of project " + project;
+        }
+
+        @Override
+        protected boolean isShowIndividualLogs() {
+            return false;
+        }
+
+        @Override
+        protected boolean isShowFullLog() {
+            return true;
+        }
+    }
+
+    @Extension
+    public static final class DescriptorImpl extends StepDescriptor {
+
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            return new HashSet<Class<?>>(Arrays.asList(Run.class, TaskListener.class));
+        }
+
+        @Override
+        public String getFunctionName() {
+            return "rapidDeployPackageBuild";
+        }
+
+        @Override
+        public String getDisplayName() {
+            return "RapidDeploy deployment package build";
+        }
+    }
+}
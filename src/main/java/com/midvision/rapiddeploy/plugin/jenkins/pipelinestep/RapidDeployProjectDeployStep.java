@@ -0,0 +1,205 @@
+package com.midvision.rapiddeploy.plugin.jenkins.pipelinestep;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.apache.commons.lang.StringUtils;
+import org.jenkinsci.plugins.workflow.steps.Step;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnection;
+import com.midvision.rapiddeploy.plugin.jenkins.client.RapidDeployClient;
+import com.midvision.rapiddeploy.plugin.jenkins.log.Logger;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.PollingStrategy;
+
+import hudson.Extension;
+import hudson.Util;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+
+/**
+ * Pipeline step behind the <code>rdProjectDeploy</code> DSL: deploys a RapidDeploy project to a target.
+ */
+public class RapidDeployProjectDeployStep extends Step {
+
+    private final String serverUrl;
+    private final String authToken;
+    private final String project;
+    private final String target;
+    private String deploymentPackageName = "LATEST";
+    private boolean asynchronous;
+    private boolean showFullLog;
+    private Map<String, String> dictionary = Collections.emptyMap();
+    private PollingStrategy pollingStrategy;
+    private String serverId;
+
+    @DataBoundConstructor
+    public RapidDeployProjectDeployStep(final String serverUrl, final String authToken, final String project, final String target) {
+        this.serverUrl = serverUrl;
+        this.authToken = authToken;
+        this.project = project;
+        this.target = target;
+    }
+
+    public String getServerUrl() {
+        return serverUrl;
+    }
+
+    public String getAuthToken() {
+        return authToken;
+    }
+
+    public String getProject() {
+        return project;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public String getDeploymentPackageName() {
+        return deploymentPackageName;
+    }
+
+    @DataBoundSetter
+    public void setDeploymentPackageName(final String deploymentPackageName) {
+        this.deploymentPackageName = StringUtils.isBlank(deploymentPackageName) ? "LATEST" : deploymentPackageName;
+    }
+
+    public boolean isAsynchronous() {
+        return asynchronous;
+    }
+
+    @DataBoundSetter
+    public void setAsynchronous(final boolean asynchronous) {
+        this.asynchronous = asynchronous;
+    }
+
+    public boolean isShowFullLog() {
+        return showFullLog;
+    }
+
+    @DataBoundSetter
+    public void setShowFullLog(final boolean showFullLog) {
+        this.showFullLog = showFullLog;
+    }
+
+    public Map<String, String> getDictionary() {
+        return dictionary;
+    }
+
+    @DataBoundSetter
+    public void setDictionary(final Map<?, ?> dictionary) {
+        // Values coming from a Pipeline script are usually GStrings
+        final Map<String, String> stringDictionary = new LinkedHashMap<String, String>();
+        if (dictionary != null) {
+            for (final Entry<?, ?> entry : dictionary.entrySet()) {
+                stringDictionary.put(String.valueOf(entry.getKey()), String.valueOf(entry.getValue()));
+            }
+        }
+        this.dictionary = stringDictionary;
+    }
+
+    public PollingStrategy getPollingStrategy() {
+        return pollingStrategy;
+    }
+
+    @DataBoundSetter
+    public void setPollingStrategy(final PollingStrategy pollingStrategy) {
+        this.pollingStrategy = pollingStrategy;
+    }
+
+    /**
+     * @return the ID of the RapidDeploy server of the global configuration to connect to. When set, the server URL and authentication token of
+     *         the step are not used and can be left empty.
+     */
+    public String getServerId() {
+        return serverId;
+    }
+
+    @DataBoundSetter
+    public void setServerId(final String serverId) {
+        this.serverId = Util.fixEmptyAndTrim(serverId);
+    }
+
+    @Override
+    public StepExecution start(final StepContext context) throws Exception {
+        final RapidDeployConnection connection = RapidDeployConnection.resolve(serverId, serverUrl, authToken, context.get(Run.class));
+        return new Execution(context, this, connection);
+    }
+
+    private static final class Execution extends RapidDeployStepExecution {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String project;
+        private final String target;
+        private final String deploymentPackageName;
+        private final boolean asynchronous;
+        private final boolean showFullLog;
+        private final LinkedHashMap<String, String> dictionary;
+
+        private Execution(final StepContext context, final RapidDeployProjectDeployStep step, final RapidDeployConnection connection) {
+            super(context, step.getServerId(), step.getAuthToken(), connection, step.getPollingStrategy());
+            this.project = step.getProject();
+            this.target = step.getTarget();
+            this.deploymentPackageName = step.getDeploymentPackageName();
+            this.asynchronous = step.isAsynchronous();
+            this.showFullLog = step.isShowFullLog();
+            this.dictionary = new LinkedHashMap<String, String>(step.getDictionary());
+        }
+
+        @Override
+        protected String invoke(final Logger logger) throws Exception {
+            return RapidDeployClient.forServer(serverUrl).deploy(authToken, project, target, deploymentPackageName, dictionary);
+        }
+
+        @Override
+        protected String getJobDescription() {
+            return "Deployment of project " + project + " to " + target;
+        }
+
+        @Override
+        protected boolean isAsynchronous() {
+            return asynchronous;
+        }
+
+        @Override
+        protected boolean isShowIndividualLogs() {
+            return false;
+        }
+
+        @Override
+        protected boolean isShowFullLog() {
+            return showFullLog;
+        }
+    }
+
+    @Extension
+    public static final class DescriptorImpl extends StepDescriptor {
+
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            return new HashSet<Class<?>>(Arrays.asList(Run.class, TaskListener.class));
+        }
+
+        @Override
+        public String getFunctionName() {
+            return "rapidDeployProjectDeploy";
+        }
+
+        @Override
+        public String getDisplayName() {
+            return "RapidDeploy project deploy";
+        }
+    }
+}
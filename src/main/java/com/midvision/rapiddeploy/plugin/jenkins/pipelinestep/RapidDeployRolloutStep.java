@@ -0,0 +1,198 @@
+package com.midvision.rapiddeploy.plugin.jenkins.pipelinestep;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.commons.lang.StringUtils;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnection;
+import com.midvision.rapiddeploy.plugin.jenkins.deploy.RolloutDeployment;
+import com.midvision.rapiddeploy.plugin.jenkins.deploy.RolloutResult;
+import com.midvision.rapiddeploy.plugin.jenkins.log.Logger;
+
+import hudson.AbortException;
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+
+/**
+ * Rolls a RapidDeploy project out to its targets in waves: a canary wave that must complete on every target, then waves of growing size. The
+ * step fails if the rollout is aborted, otherwise it returns the rollout result (<code>waves</code>, <code>results</code> per target,
+ * <code>skippedTargets</code>, <code>aborted</code> and <code>abortReason</code>).
+ */
+public class RapidDeployRolloutStep extends RapidDeployTargetsStep {
+
+    public static final int DEFAULT_CANARY_SIZE = 1;
+    public static final double DEFAULT_WAVE_GROWTH = 2.0;
+    public static final int DEFAULT_MAX_PARALLELISM = 10;
+
+    private String deploymentPackageName = "LATEST";
+    private int canarySize = DEFAULT_CANARY_SIZE;
+    private List<Integer> waveSizes = Collections.emptyList();
+    private double waveGrowth = DEFAULT_WAVE_GROWTH;
+    private int maxParallelism = DEFAULT_MAX_PARALLELISM;
+    private int maxFailures;
+
+    @DataBoundConstructor
+    public RapidDeployRolloutStep(final String serverUrl, final String authToken, final String project) {
+        super(serverUrl, authToken, project);
+    }
+
+    public String getDeploymentPackageName() {
+        return deploymentPackageName;
+    }
+
+    @DataBoundSetter
+    public void setDeploymentPackageName(final String deploymentPackageName) {
+        this.deploymentPackageName = StringUtils.isBlank(deploymentPackageName) ? "LATEST" : deploymentPackageName;
+    }
+
+    public int getCanarySize() {
+        return canarySize;
+    }
+
+    /** Number of targets of the canary wave, 0 for no canary wave **/
+    @DataBoundSetter
+    public void setCanarySize(final int canarySize) {
+        this.canarySize = Math.max(0, canarySize);
+    }
+
+    public List<Integer> getWaveSizes() {
+        return waveSizes;
+    }
+
+    /** Size of each wave after the canary one, the last size being used for the remaining waves **/
+    @DataBoundSetter
+    public void setWaveSizes(final List<?> waveSizes) {
+        final List<Integer> intWaveSizes = new ArrayList<Integer>();
+        if (waveSizes != null) {
+            for (final Object waveSize : waveSizes) {
+                intWaveSizes.add(Integer.valueOf(String.valueOf(waveSize)));
+            }
+        }
+        this.waveSizes = intWaveSizes;
+    }
+
+    public double getWaveGrowth() {
+        return waveGrowth;
+    }
+
+    /** Factor by which each wave grows when no wave sizes are given **/
+    @DataBoundSetter
+    public void setWaveGrowth(final double waveGrowth) {
+        this.waveGrowth = waveGrowth >= 1.0 ? waveGrowth : DEFAULT_WAVE_GROWTH;
+    }
+
+    public int getMaxParallelism() {
+        return maxParallelism;
+    }
+
+    /** Maximum number of deployments running at the same time within a wave **/
+    @DataBoundSetter
+    public void setMaxParallelism(final int maxParallelism) {
+        this.maxParallelism = maxParallelism > 0 ? maxParallelism : DEFAULT_MAX_PARALLELISM;
+    }
+
+    public int getMaxFailures() {
+        return maxFailures;
+    }
+
+    /** Number of failed targets tolerated before the next waves are aborted **/
+    @DataBoundSetter
+    public void setMaxFailures(final int maxFailures) {
+        this.maxFailures = Math.max(0, maxFailures);
+    }
+
+    @Override
+    protected StepExecution newExecution(final StepContext context, final RapidDeployConnection connection) {
+        return new Execution(context, this, connection);
+    }
+
+    private static final class Execution extends RapidDeployTargetsStepExecution<RolloutDeployment, RolloutResult> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String deploymentPackageName;
+        private final int canarySize;
+        private final List<Integer> waveSizes;
+        private final double waveGrowth;
+        private final int maxParallelism;
+        private final int maxFailures;
+
+        private Execution(final StepContext context, final RapidDeployRolloutStep step, final RapidDeployConnection connection) {
+            super(context, step, connection);
+            this.deploymentPackageName = step.getDeploymentPackageName();
+            this.canarySize = step.getCanarySize();
+            this.waveSizes = new ArrayList<Integer>(step.getWaveSizes());
+            this.waveGrowth = step.getWaveGrowth();
+            this.maxParallelism = step.getMaxParallelism();
+            this.maxFailures = step.getMaxFailures();
+        }
+
+        @Override
+        protected RolloutDeployment newDeployment(final Logger logger, final Run<?, ?> build) {
+            final RolloutDeployment rollout = new RolloutDeployment(logger, serverUrl, authToken, project, deploymentPackageName, dictionary,
+                    pollingStrategy, maxParallelism, maxFailures);
+            rollout.setBuild(build);
+            return rollout;
+        }
+
+        @Override
+        protected CompletableFuture<RolloutResult> deploy(final RolloutDeployment rollout, final List<String> deploymentTargets) {
+            return rollout.rollout(RolloutDeployment.planWaves(deploymentTargets, canarySize, waveSizes, waveGrowth), canarySize > 0);
+        }
+
+        @Override
+        protected void cancel(final RolloutDeployment rollout) {
+            rollout.cancel();
+        }
+
+        @Override
+        protected Object complete(final Logger logger, final RolloutDeployment rollout, final RolloutResult result) throws AbortException {
+            if (result.isAborted()) {
+                throw new AbortException("RapidDeploy rollout aborted: " + result.getAbortReason() + ". Failed target(s): "
+                        + result.getFailedTargets() + ", not deployed: " + result.getSkippedTargets());
+            }
+            return result.toMap();
+        }
+
+        @Override
+        protected String getRestartMessage() {
+            return "Jenkins was restarted during the rollout, please check the status of the deployments on the RapidDeploy server.";
+        }
+
+        @Override
+        public String getStatus() {
+            return getDeployment() == null ? "Resolving the RapidDeploy targets" : "Rolling out to the RapidDeploy targets";
+        }
+    }
+
+    @Extension
+    public static final class DescriptorImpl extends StepDescriptor {
+
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            return new HashSet<Class<?>>(Arrays.asList(Run.class, TaskListener.class));
+        }
+
+        @Override
+        public String getFunctionName() {
+            return "rapidDeployRollout";
+        }
+
+        @Override
+        public String getDisplayName() {
+            return "RapidDeploy staged rollout";
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.midvision.rapiddeploy.plugin.jenkins.pipelinestep;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+import org.apache.commons.lang.StringUtils;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnection;
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy;
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployExecutors;
+import com.midvision.rapiddeploy.plugin.jenkins.log.JobLogArchive;
+import com.midvision.rapiddeploy.plugin.jenkins.log.JobLogTail;
+import com.midvision.rapiddeploy.plugin.jenkins.log.JobLogger;
+import com.midvision.rapiddeploy.plugin.jenkins.log.Logger;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.JobResult;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.JobStatusListener;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.PollingStrategy;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.RapidDeployJobMonitor;
+import com.midvision.rapiddeploy.plugin.jenkins.timing.JobTiming;
+import com.midvision.rapiddeploy.plugin.jenkins.timing.RapidDeployTimingAction;
+
+import hudson.AbortException;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+
+/**
+ * Base execution of the RapidDeploy Pipeline steps. The request to the RapidDeploy server runs on the plugin request pool and the wait for the job
+ * is handed to the {@link RapidDeployJobMonitor}, so neither the CPS VM thread nor an executor is blocked while the job runs. The job ID, its last
+ * status and the log offset are saved with the step state, so the monitoring resumes after a Jenkins restart instead of failing the build.
+ * <p>
+ * The authentication token of a configured server is not saved with the step state: it is resolved again from its credential on resume.
+ * <p>
+ * A stop can come at any time from another thread. The request and the job result are published under the execution lock, so a concurrent stop
+ * either cancels them or is seen before the job is monitored, and the context is only notified of the first outcome.
+ */
+abstract class RapidDeployStepExecution extends StepExecution {
+
+    private static final long serialVersionUID = 1L;
+
+    protected final String serverUrl;
+    private final String serverId;
+    /** The token set in the step itself, kept only when the step does not reference a configured server **/
+    private final String stepAuthToken;
+    protected transient volatile String authToken;
+    private final PollingStrategy pollingStrategy;
+    private volatile String jobId;
+    private volatile String lastStatus;
+    private volatile JobLogTail logTail;
+    private transient volatile JobLogArchive logArchive;
+    private transient volatile JobTiming timing;
+    private transient Future<?> request;
+    private transient CompletableFuture<JobResult> jobResult;
+    private transient boolean stopped;
+    private transient boolean completed;
+
+    RapidDeployStepExecution(final StepContext context, final String serverId, final String stepAuthToken, final RapidDeployConnection connection,
+            final PollingStrategy stepPollingStrategy) {
+        super(context);
+        this.serverUrl = connection.getServerUrl();
+        this.serverId = serverId;
+        this.stepAuthToken = StringUtils.isBlank(serverId) ? stepAuthToken : null;
+        this.authToken = connection.getAuthenticationToken();
+        this.pollingStrategy = connection.getPollingStrategy(stepPollingStrategy);
+    }
+
+    /**
+     * Sends the request to the RapidDeploy server. Called from a request thread.
+     *
+     * @return the output of the request, which includes the ID of the job.
+     */
+    protected abstract String invoke(Logger logger) throws Exception;
+
+    /**
+     * @return what the job does, shown in the timing of the build.
+     */
+    protected abstract String getJobDescription();
+
+    protected boolean isAsynchronous() {
+        return false;
+    }
+
+    protected abstract boolean isShowIndividualLogs();
+
+    protected abstract boolean isShowFullLog();
+
+    @Override
+    public boolean start() throws Exception {
+        final Logger logger = new JobLogger(getContext().get(TaskListener.class).getLogger());
+        if (isShowFullLog()) {
+            logArchive = JobLogArchive.forBuild(getContext().get(Run.class));
+        }
+        timing = RapidDeployTimingAction.start(getContext().get(Run.class), getJobDescription());
+        final Future<?> newRequest = RapidDeployExecutors.requests().submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    final String jobRequestOutput = invoke(logger);
+                    if (isStopped()) {
+                        return;
+                    } else if (isAsynchronous()) {
+                        timing.requestAnswered(null);
+                        timing.finished(null);
+                        succeed(true);
+                    } else {
+                        waitForJob(logger, jobRequestOutput);
+                    }
+                } catch (final Exception e) {
+                    timing.finished(null);
+                    fail(e);
+                }
+            }
+        });
+        synchronized (this) {
+            request = newRequest;
+            if (stopped) {
+                newRequest.cancel(true);
+            }
+        }
+        return false;
+    }
+
+    private void waitForJob(final Logger logger, final String jobRequestOutput) throws Exception {
+        jobId = RapidDeployConnectorProxy.extractJobId(logger, serverUrl, jobRequestOutput);
+        timing.requestAnswered(jobId);
+        if (isShowFullLog() && logArchive == null) {
+            logTail = new JobLogTail(jobId);
+        }
+        // From now on a restart resumes the monitoring of the job instead of requesting it again
+        getContext().saveState();
+        monitorJob(logger);
+    }
+
+    private void monitorJob(final Logger logger) {
+        final JobStatusListener statusListener = new JobStatusListener() {
+            @Override
+            public void onStatusChange(final String changedJobId, final String jobStatus) {
+                timing.onStatusChange(changedJobId, jobStatus);
+                lastStatus = jobStatus;
+                // Saved in the background with the log offset, the status of a job only changes a few times
+                getContext().saveState();
+            }
+        };
+        final CompletableFuture<JobResult> newJobResult = RapidDeployJobMonitor.get().monitor(logger, serverUrl, authToken, jobId, pollingStrategy,
+                logTail, statusListener);
+        synchronized (this) {
+            jobResult = newJobResult;
+            if (stopped) {
+                // The stop came while the job was being registered, it did not see the job result
+                newJobResult.cancel(true);
+            }
+        }
+        newJobResult.whenCompleteAsync((result, error) -> {
+            if (error instanceof CancellationException) {
+                // Stopped by the user, the context was already notified
+                timing.finished(null);
+                return;
+            } else if (error != null) {
+                timing.finished(null);
+                fail(error);
+                return;
+            }
+            try {
+                final boolean success = RapidDeployConnectorProxy.reportJobResult(logger, serverUrl, authToken, result, isShowIndividualLogs(),
+                        logTail, logArchive, timing);
+                logger.println(timing.getSummary());
+                succeed(success);
+            } catch (final Exception e) {
+                logger.println(timing.getSummary());
+                fail(e);
+            }
+        }, RapidDeployExecutors.requests());
+    }
+
+    @Override
+    public void stop(final Throwable cause) throws Exception {
+        final Future<?> stoppedRequest;
+        final Future<JobResult> stoppedJobResult;
+        synchronized (this) {
+            stopped = true;
+            stoppedRequest = request;
+            stoppedJobResult = jobResult;
+        }
+        if (stoppedRequest != null) {
+            stoppedRequest.cancel(true);
+        }
+        if (stoppedJobResult != null) {
+            stoppedJobResult.cancel(true);
+        }
+        fail(cause);
+    }
+
+    private synchronized boolean isStopped() {
+        return stopped;
+    }
+
+    /** Only the first outcome of the step is reported, a stop racing with the end of the job must not complete the context twice **/
+    private synchronized boolean markCompleted() {
+        if (completed) {
+            return false;
+        }
+        completed = true;
+        return true;
+    }
+
+    private void succeed(final Object result) {
+        if (markCompleted()) {
+            getContext().onSuccess(result);
+        }
+    }
+
+    private void fail(final Throwable cause) {
+        if (markCompleted()) {
+            getContext().onFailure(cause);
+        }
+    }
+
+    @Override
+    public void onResume() {
+        if (jobId == null) {
+            fail(new AbortException("Jenkins was restarted while sending the request to RapidDeploy, "
+                    + "please check on the RapidDeploy server whether the job was created."));
+            return;
+        }
+        try {
+            final Logger logger = new JobLogger(getContext().get(TaskListener.class).getLogger());
+            authToken = RapidDeployConnection.resolve(serverId, serverUrl, stepAuthToken, getContext().get(Run.class)).getAuthenticationToken();
+            if (isShowFullLog() && logTail == null) {
+                logArchive = JobLogArchive.forBuild(getContext().get(Run.class));
+            }
+            timing = RapidDeployTimingAction.resume(getContext().get(Run.class), getJobDescription(), jobId);
+            logger.println("Jenkins was restarted, resuming the monitoring of the RapidDeploy job [" + jobId + "]"
+                    + (lastStatus != null ? ", last status: " + lastStatus : "") + "...");
+            monitorJob(logger);
+        } catch (final Exception e) {
+            fail(new AbortException("Unable to resume the monitoring of the RapidDeploy job [" + jobId + "]: " + e.getMessage()
+                    + ", please check its status on the RapidDeploy server."));
+        }
+    }
+
+    @Override
+    public String getStatus() {
+        if (jobId == null) {
+            return "Sending the request to RapidDeploy";
+        }
+        return "Waiting for the RapidDeploy job [" + jobId + "]" + (lastStatus != null ? ", status: " + lastStatus : "");
+    }
+}
@@ -0,0 +1,139 @@
+package com.midvision.rapiddeploy.plugin.jenkins.pipelinestep;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.commons.lang.StringUtils;
+import org.jenkinsci.plugins.workflow.steps.Step;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnection;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.PollingStrategy;
+
+import hudson.AbortException;
+import hudson.Util;
+import hudson.model.Run;
+
+/**
+ * Base of the RapidDeploy Pipeline steps deploying a project to several targets, given as a list or as a regular expression matched against the
+ * targets of the project. The execution is a {@link RapidDeployTargetsStepExecution}.
+ */
+public abstract class RapidDeployTargetsStep extends Step {
+
+    private final String serverUrl;
+    private final String authToken;
+    private final String project;
+    private List<String> targets = Collections.emptyList();
+    private String targetPattern;
+    private Map<String, String> dictionary = Collections.emptyMap();
+    private PollingStrategy pollingStrategy;
+    private String serverId;
+
+    protected RapidDeployTargetsStep(final String serverUrl, final String authToken, final String project) {
+        this.serverUrl = serverUrl;
+        this.authToken = authToken;
+        this.project = project;
+    }
+
+    public String getServerUrl() {
+        return serverUrl;
+    }
+
+    public String getAuthToken() {
+        return authToken;
+    }
+
+    public String getProject() {
+        return project;
+    }
+
+    public List<String> getTargets() {
+        return targets;
+    }
+
+    @DataBoundSetter
+    public void setTargets(final List<?> targets) {
+        final List<String> stringTargets = new ArrayList<String>();
+        if (targets != null) {
+            for (final Object target : targets) {
+                stringTargets.add(String.valueOf(target));
+            }
+        }
+        this.targets = stringTargets;
+    }
+
+    public String getTargetPattern() {
+        return targetPattern;
+    }
+
+    @DataBoundSetter
+    public void setTargetPattern(final String targetPattern) {
+        this.targetPattern = StringUtils.trimToNull(targetPattern);
+    }
+
+    public Map<String, String> getDictionary() {
+        return dictionary;
+    }
+
+    @DataBoundSetter
+    public void setDictionary(final Map<?, ?> dictionary) {
+        // Values coming from a Pipeline script are usually GStrings
+        final Map<String, String> stringDictionary = new LinkedHashMap<String, String>();
+        if (dictionary != null) {
+            for (final Entry<?, ?> entry : dictionary.entrySet()) {
+                stringDictionary.put(String.valueOf(entry.getKey()), String.valueOf(entry.getValue()));
+            }
+        }
+        this.dictionary = stringDictionary;
+    }
+
+    public PollingStrategy getPollingStrategy() {
+        return pollingStrategy;
+    }
+
+    @DataBoundSetter
+    public void setPollingStrategy(final PollingStrategy pollingStrategy) {
+        this.pollingStrategy = pollingStrategy;
+    }
+
+    /**
+     * @return the ID of the RapidDeploy server of the global configuration to connect to. When set, the server URL and authentication token of
+     *         the step are not used and can be left empty.
+     */
+    public String getServerId() {
+        return serverId;
+    }
+
+    @DataBoundSetter
+    public void setServerId(final String serverId) {
+        this.serverId = Util.fixEmptyAndTrim(serverId);
+    }
+
+    /**
+     * @return the targets listed in the step, without the ones matching the target pattern.
+     */
+    List<String> listTargets() {
+        return new ArrayList<String>(targets);
+    }
+
+    void checkTargets() throws AbortException {
+        if (targets.isEmpty() && targetPattern == null) {
+            throw new AbortException("Either targets or targetPattern must be set.");
+        }
+    }
+
+    @Override
+    public StepExecution start(final StepContext context) throws Exception {
+        checkTargets();
+        final RapidDeployConnection connection = RapidDeployConnection.resolve(serverId, serverUrl, authToken, context.get(Run.class));
+        return newExecution(context, connection);
+    }
+
+    protected abstract StepExecution newExecution(StepContext context, RapidDeployConnection connection) throws Exception;
+}
@@ -0,0 +1,229 @@
+package com.midvision.rapiddeploy.plugin.jenkins.pipelinestep;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnection;
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployExecutors;
+import com.midvision.rapiddeploy.plugin.jenkins.deploy.MultiTargetDeployment;
+import com.midvision.rapiddeploy.plugin.jenkins.deploy.TargetResult;
+import com.midvision.rapiddeploy.plugin.jenkins.log.JobLogger;
+import com.midvision.rapiddeploy.plugin.jenkins.log.Logger;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.PollingStrategy;
+
+import hudson.AbortException;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+
+/**
+ * Base execution of the {@link RapidDeployTargetsStep}s. The targets are resolved and the deployment is run from the plugin request pool, the
+ * context being notified once the future of the deployment completes. The jobs of the deployment are not saved with the step state, so the step
+ * fails if Jenkins is restarted in the meantime.
+ * <p>
+ * A stop can come at any time from another thread. The deployment is published under the execution lock, so a concurrent stop either cancels it
+ * or is seen before it starts, and the context is only notified of the first outcome.
+ *
+ * @param <D> the deployment run by the step.
+ * @param <R> the result of the deployment.
+ */
+abstract class RapidDeployTargetsStepExecution<D, R> extends StepExecution {
+
+    private static final long serialVersionUID = 1L;
+
+    protected final String serverUrl;
+    /** Not saved with the step state: the execution is not resumed after a restart **/
+    protected final transient String authToken;
+    protected final String project;
+    private final List<String> targets;
+    protected final String targetPattern;
+    protected final LinkedHashMap<String, String> dictionary;
+    protected final PollingStrategy pollingStrategy;
+    private transient D deployment;
+    private transient boolean stopped;
+    private transient boolean completed;
+
+    RapidDeployTargetsStepExecution(final StepContext context, final RapidDeployTargetsStep step, final RapidDeployConnection connection) {
+        super(context);
+        this.serverUrl = connection.getServerUrl();
+        this.authToken = connection.getAuthenticationToken();
+        this.project = step.getProject();
+        this.targets = step.listTargets();
+        this.targetPattern = step.getTargetPattern();
+        this.dictionary = new LinkedHashMap<String, String>(step.getDictionary());
+        this.pollingStrategy = connection.getPollingStrategy(step.getPollingStrategy());
+    }
+
+    /**
+     * @return the deployment to run, not started yet. Called from a request thread.
+     */
+    protected abstract D newDeployment(Logger logger, Run<?, ?> build) throws Exception;
+
+    /**
+     * Starts the deployment of the given targets. Called from a request thread.
+     */
+    protected abstract CompletableFuture<R> deploy(D deployment, List<String> deploymentTargets) throws Exception;
+
+    protected abstract void cancel(D deployment);
+
+    /**
+     * @return the value returned to the Pipeline script.
+     * @throws Exception to fail the step.
+     */
+    protected abstract Object complete(Logger logger, D deployment, R result) throws Exception;
+
+    /**
+     * @return the message the step fails with when Jenkins is restarted during the deployment.
+     */
+    protected abstract String getRestartMessage();
+
+    @Override
+    public boolean start() throws Exception {
+        final Logger logger = new JobLogger(getContext().get(TaskListener.class).getLogger());
+        final Run<?, ?> build = getContext().get(Run.class);
+        RapidDeployExecutors.requests().execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    final List<String> deploymentTargets = resolveTargets(logger);
+                    final D newDeployment = newDeployment(logger, build);
+                    synchronized (RapidDeployTargetsStepExecution.this) {
+                        deployment = newDeployment;
+                        // The stop came before the deployment was published, it did not see it
+                        if (stopped) {
+                            return;
+                        }
+                    }
+                    deploy(newDeployment, deploymentTargets).whenComplete((result, error) -> {
+                        final Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                        if (isStopped() || cause instanceof CancellationException) {
+                            // Stopped by the user, the context was already notified
+                            return;
+                        } else if (cause != null) {
+                            fail(cause);
+                            return;
+                        }
+                        try {
+                            succeed(complete(logger, newDeployment, result));
+                        } catch (final Exception e) {
+                            fail(e);
+                        }
+                    });
+                } catch (final Exception e) {
+                    fail(e);
+                }
+            }
+        });
+        return false;
+    }
+
+    /**
+     * @return the targets of the step followed by the targets of the project matching the target pattern.
+     */
+    private List<String> resolveTargets(final Logger logger) throws Exception {
+        final List<String> deploymentTargets = new ArrayList<String>(targets);
+        if (targetPattern != null) {
+            for (final String target : MultiTargetDeployment.resolveTargets(serverUrl, authToken, project, targetPattern)) {
+                if (!deploymentTargets.contains(target)) {
+                    deploymentTargets.add(target);
+                }
+            }
+            logger.println("Targets matching '" + targetPattern + "': " + deploymentTargets);
+        }
+        return deploymentTargets;
+    }
+
+    @Override
+    public void stop(final Throwable cause) throws Exception {
+        final D stoppedDeployment;
+        synchronized (this) {
+            stopped = true;
+            stoppedDeployment = deployment;
+        }
+        if (stoppedDeployment != null) {
+            cancel(stoppedDeployment);
+        }
+        fail(cause);
+    }
+
+    @Override
+    public void onResume() {
+        fail(new AbortException(getRestartMessage()));
+    }
+
+    /**
+     * @return the deployment, <code>null</code> while the targets are being resolved.
+     */
+    protected synchronized D getDeployment() {
+        return deployment;
+    }
+
+    private synchronized boolean isStopped() {
+        return stopped;
+    }
+
+    /** Only the first outcome of the step is reported, a stop racing with the end of the deployment must not complete the context twice **/
+    private synchronized boolean markCompleted() {
+        if (completed) {
+            return false;
+        }
+        completed = true;
+        return true;
+    }
+
+    private void succeed(final Object result) {
+        if (markCompleted()) {
+            getContext().onSuccess(result);
+        }
+    }
+
+    private void fail(final Throwable cause) {
+        if (markCompleted()) {
+            getContext().onFailure(cause);
+        }
+    }
+
+    /**
+     * Prints the failed targets, in fail-fast mode they fail the step.
+     */
+    static void reportFailedTargets(final Logger logger, final Map<String, TargetResult> results, final boolean failFast) throws AbortException {
+        final List<String> failedTargets = getFailedTargets(results);
+        if (failedTargets.isEmpty()) {
+            return;
+        } else if (failFast) {
+            throw new AbortException("RapidDeploy deployment failed for target(s): " + failedTargets);
+        }
+        logger.println("WARNING: RapidDeploy deployment failed for target(s): " + failedTargets);
+    }
+
+    /**
+     * @return the results as plain maps, the value returned to Pipeline scripts.
+     */
+    static Map<String, Map<String, Object>> toMap(final Map<String, TargetResult> results) {
+        final Map<String, Map<String, Object>> map = new LinkedHashMap<String, Map<String, Object>>();
+        for (final TargetResult targetResult : results.values()) {
+            map.put(targetResult.getTarget(), targetResult.toMap());
+        }
+        return map;
+    }
+
+    /**
+     * @return the targets that were not deployed successfully.
+     */
+    static List<String> getFailedTargets(final Map<String, TargetResult> results) {
+        final List<String> failedTargets = new ArrayList<String>();
+        for (final TargetResult targetResult : results.values()) {
+            if (!targetResult.isSuccess()) {
+                failedTargets.add(targetResult.getTarget());
+            }
+        }
+        return failedTargets;
+    }
+}
@@ -0,0 +1,175 @@
+package com.midvision.rapiddeploy.plugin.jenkins.timing;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.JobStatusListener;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.RapidDeployJobMonitor;
+
+import hudson.Util;
+
+/**
+ * Timeline of a RapidDeploy job requested by a build: when the request was sent, when the job ID came back, how long the job stayed in each
+ * status and how long its log took to retrieve. The statuses are only seen at the status checks, so the time in each status is measured
+ * between checks and includes the polling interval.
+ */
+public class JobTiming implements JobStatusListener, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String description;
+    private final long requestTime;
+    private String jobId;
+    private long jobIdTime;
+    private long firstCheckDuration = -1L;
+    private String currentStatus;
+    private long currentStatusTime;
+    private final Map<String, Long> statusDurations = new LinkedHashMap<String, Long>();
+    private long logRetrievalDuration;
+    private String finalStatus;
+    private long finishTime;
+
+    public JobTiming(final String description) {
+        this.description = description;
+        this.requestTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Records the answer to the request.
+     *
+     * @param jobId the ID of the requested job, or <code>null</code> if the job is not followed.
+     */
+    public synchronized void requestAnswered(final String jobId) {
+        this.jobId = jobId;
+        this.jobIdTime = System.currentTimeMillis();
+        this.currentStatusTime = jobIdTime;
+    }
+
+    @Override
+    public synchronized void onStatusChange(final String changedJobId, final String jobStatus) {
+        if (finishTime > 0) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        closeStatus(now);
+        if (RapidDeployJobMonitor.isFinished(jobStatus)) {
+            finalStatus = jobStatus;
+            finishTime = now;
+        } else {
+            currentStatus = jobStatus;
+            currentStatusTime = now;
+        }
+    }
+
+    /**
+     * Adds the time taken to retrieve the job logs once the job finished.
+     */
+    public synchronized void logRetrieved(final long millis) {
+        logRetrievalDuration += millis;
+    }
+
+    /**
+     * Closes the timeline if no final status was seen, for instance when the request failed or the build stopped waiting.
+     */
+    public synchronized void finished(final String status) {
+        if (finishTime > 0) {
+            return;
+        }
+        finishTime = System.currentTimeMillis();
+        closeStatus(finishTime);
+        finalStatus = status;
+    }
+
+    private void closeStatus(final long now) {
+        if (jobIdTime == 0) {
+            return;
+        }
+        if (currentStatus == null) {
+            if (firstCheckDuration < 0) {
+                firstCheckDuration = now - jobIdTime;
+            }
+        } else {
+            final Long previous = statusDurations.get(currentStatus);
+            statusDurations.put(currentStatus, (previous != null ? previous : 0L) + now - currentStatusTime);
+            currentStatus = null;
+        }
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public synchronized String getJobId() {
+        return jobId;
+    }
+
+    public Date getRequestDate() {
+        return new Date(requestTime);
+    }
+
+    /** Time between the request and the job ID coming back, or -1 if there was no answer **/
+    public synchronized long getRequestDuration() {
+        return jobIdTime > 0 ? jobIdTime - requestTime : -1L;
+    }
+
+    /** Time between the job ID coming back and the first status seen, or -1 if no status was seen yet **/
+    public synchronized long getFirstCheckDuration() {
+        return firstCheckDuration;
+    }
+
+    /**
+     * @return the time spent in each status seen, in the order they were first seen, including the current one while the job runs.
+     */
+    public synchronized Map<String, Long> getStatusDurations() {
+        final Map<String, Long> durations = new LinkedHashMap<String, Long>(statusDurations);
+        if (finishTime == 0 && currentStatus != null) {
+            final Long previous = durations.get(currentStatus);
+            durations.put(currentStatus, (previous != null ? previous : 0L) + System.currentTimeMillis() - currentStatusTime);
+        }
+        return durations;
+    }
+
+    public synchronized long getLogRetrievalDuration() {
+        return logRetrievalDuration;
+    }
+
+    /** Final status of the job, <code>null</code> while it runs or if it is unknown **/
+    public synchronized String getFinalStatus() {
+        return finalStatus;
+    }
+
+    public synchronized boolean isFinished() {
+        return finishTime > 0;
+    }
+
+    public synchronized long getTotalDuration() {
+        return (finishTime > 0 ? finishTime : System.currentTimeMillis()) - requestTime + logRetrievalDuration;
+    }
+
+    /**
+     * @return the timeline on a single line, for the build console.
+     */
+    public synchronized String getSummary() {
+        final StringBuilder summary = new StringBuilder("RapidDeploy job");
+        if (jobId != null) {
+            summary.append(" [").append(jobId).append("]");
+        }
+        summary.append(" timing: request ").append(format(getRequestDuration()));
+        if (firstCheckDuration >= 0) {
+            summary.append(", first status check ").append(format(firstCheckDuration));
+        }
+        for (final Map.Entry<String, Long> statusDuration : getStatusDurations().entrySet()) {
+            summary.append(", ").append(statusDuration.getKey()).append(" ").append(format(statusDuration.getValue()));
+        }
+        if (logRetrievalDuration > 0) {
+            summary.append(", log retrieval ").append(format(logRetrievalDuration));
+        }
+        return summary.append(", total ").append(format(getTotalDuration())).toString();
+    }
+
+    public static String format(final long millis) {
+        return millis < 0 ? "N/A" : Util.getTimeSpanString(millis);
+    }
+}
@@ -0,0 +1,96 @@
+package com.midvision.rapiddeploy.plugin.jenkins.timing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import hudson.model.Run;
+import jenkins.model.RunAction2;
+
+/**
+ * Shows on the build page the timeline of every RapidDeploy job requested by the build, see {@link JobTiming}.
+ */
+public class RapidDeployTimingAction implements RunAction2 {
+
+    public static final String URL_NAME = "rapiddeploy-timing";
+
+    private final List<JobTiming> timings = new CopyOnWriteArrayList<JobTiming>();
+
+    private transient Run<?, ?> run;
+
+    /**
+     * Starts the timeline of a job about to be requested, attached to the given build.
+     *
+     * @param build the build requesting the job, or <code>null</code> to keep the timeline out of any build page.
+     */
+    public static JobTiming start(final Run<?, ?> build, final String description) {
+        final JobTiming timing = new JobTiming(description);
+        if (build != null) {
+            forBuild(build).timings.add(timing);
+        }
+        return timing;
+    }
+
+    /**
+     * @return the timeline of the given job in the given build, or a new one if the build has none, as after a restart of an old build.
+     */
+    public static JobTiming resume(final Run<?, ?> build, final String description, final String jobId) {
+        if (build != null) {
+            final RapidDeployTimingAction action = build.getAction(RapidDeployTimingAction.class);
+            if (action != null) {
+                for (final JobTiming timing : action.timings) {
+                    if (jobId.equals(timing.getJobId()) && !timing.isFinished()) {
+                        return timing;
+                    }
+                }
+            }
+        }
+        final JobTiming timing = start(build, description);
+        timing.requestAnswered(jobId);
+        return timing;
+    }
+
+    private static RapidDeployTimingAction forBuild(final Run<?, ?> build) {
+        synchronized (build) {
+            RapidDeployTimingAction action = build.getAction(RapidDeployTimingAction.class);
+            if (action == null) {
+                action = new RapidDeployTimingAction();
+                build.addAction(action);
+            }
+            return action;
+        }
+    }
+
+    @Override
+    public void onAttached(final Run<?, ?> r) {
+        this.run = r;
+    }
+
+    @Override
+    public void onLoad(final Run<?, ?> r) {
+        this.run = r;
+    }
+
+    public Run<?, ?> getRun() {
+        return run;
+    }
+
+    public List<JobTiming> getTimings() {
+        return new ArrayList<JobTiming>(timings);
+    }
+
+    @Override
+    public String getIconFileName() {
+        return "clock.png";
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "RapidDeploy timing";
+    }
+
+    @Override
+    public String getUrlName() {
+        return URL_NAME;
+    }
+}
@@ -0,0 +1,119 @@
+package com.midvision.rapiddeploy.plugin.jenkins.webhook;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.regex.Pattern;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+import org.kohsuke.stapler.interceptor.RequirePOST;
+
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployGlobalConfiguration;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.RapidDeployJobMonitor;
+
+import hudson.Extension;
+import hudson.model.UnprotectedRootAction;
+import hudson.security.csrf.CrumbExclusion;
+import hudson.util.Secret;
+
+/**
+ * Receives the job status changes pushed by a RapidDeploy server, or a relay, so the builds waiting for the job check its status right away
+ * instead of waiting for the next poll. The request is only accepted with the token set in the global configuration and it only brings the next
+ * status check forward: the status itself is always read from the RapidDeploy server.
+ */
+@Extension
+public class RapidDeployWebhook implements UnprotectedRootAction {
+
+    private static final Log LOG = LogFactory.getLog(RapidDeployWebhook.class);
+
+    public static final String URL_NAME = "rapiddeploy-webhook";
+    public static final String TOKEN_HEADER = "X-RapidDeploy-Token";
+
+    private static final Pattern JOB_ID_PATTERN = Pattern.compile("[A-Za-z0-9_.-]{1,64}");
+
+    @Override
+    public String getIconFileName() {
+        return null;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return null;
+    }
+
+    @Override
+    public String getUrlName() {
+        return URL_NAME;
+    }
+
+    /**
+     * Notifies a status change of the job given by the <code>jobId</code> parameter, on the server given by the optional <code>serverUrl</code>
+     * parameter. The token is only accepted in the {@link #TOKEN_HEADER} header.
+     */
+    @RequirePOST
+    public void doNotify(final StaplerRequest req, final StaplerResponse rsp) throws IOException {
+        final RapidDeployGlobalConfiguration configuration = RapidDeployGlobalConfiguration.get();
+        final Secret expectedToken = configuration != null ? configuration.getWebhookToken() : null;
+        if (expectedToken == null || StringUtils.isEmpty(expectedToken.getPlainText())) {
+            respond(rsp, HttpServletResponse.SC_NOT_FOUND, "RapidDeploy job notifications are disabled.");
+            return;
+        }
+        // Only read from the header: a query parameter ends up in the access logs and the proxy logs
+        if (!matches(expectedToken.getPlainText(), req.getHeader(TOKEN_HEADER))) {
+            LOG.warn("Rejected a RapidDeploy job notification with an invalid token from " + req.getRemoteAddr());
+            respond(rsp, HttpServletResponse.SC_FORBIDDEN, "Invalid token.");
+            return;
+        }
+        final String jobId = StringUtils.trimToEmpty(req.getParameter("jobId"));
+        if (!JOB_ID_PATTERN.matcher(jobId).matches()) {
+            respond(rsp, HttpServletResponse.SC_BAD_REQUEST, "Missing or invalid jobId parameter.");
+            return;
+        }
+        final int waiters = RapidDeployJobMonitor.get().wakeUp(StringUtils.trimToNull(req.getParameter("serverUrl")), jobId);
+        LOG.debug("RapidDeploy job " + jobId + " notified, " + waiters + " build(s) waiting for it");
+        respond(rsp, HttpServletResponse.SC_OK, "Job " + jobId + " notified to " + waiters + " waiting build(s).");
+    }
+
+    /**
+     * Compares the tokens in constant time, so the response time does not tell how much of the token is right.
+     */
+    static boolean matches(final String expectedToken, final String token) {
+        if (token == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(expectedToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void respond(final StaplerResponse rsp, final int status, final String message) throws IOException {
+        rsp.setStatus(status);
+        rsp.setContentType("text/plain;charset=UTF-8");
+        rsp.getWriter().println(message);
+    }
+
+    /**
+     * The RapidDeploy server can not get a crumb, the token is checked instead.
+     */
+    @Extension
+    public static class CrumbExclusionImpl extends CrumbExclusion {
+
+        @Override
+        public boolean process(final HttpServletRequest req, final HttpServletResponse resp, final FilterChain chain)
+                throws IOException, ServletException {
+            final String pathInfo = req.getPathInfo();
+            if (pathInfo != null && pathInfo.startsWith("/" + URL_NAME + "/")) {
+                chain.doFilter(req, resp);
+                return true;
+            }
+            return false;
+        }
+    }
+}
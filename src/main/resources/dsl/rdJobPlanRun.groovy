@@ -1,14 +1,14 @@
 package dsl
 
-import com.midvision.rapiddeploy.connector.RapidDeployConnector
-import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy
-import com.midvision.rapiddeploy.plugin.jenkins.log.PipelineLogger
-
 def call(args = [:]) {
 
     // Load and check all the parameters
+    final def serverId = args.serverId ?: ""
     def serverUrl = args.serverUrl
-    if (!serverUrl) {
+    if (serverId) {
+        // The server URL and token are taken from the RapidDeploy server of the global configuration
+        serverUrl = serverUrl ?: ""
+    } else if (!serverUrl) {
         println("WARN: RapidDeploy URL not provided! Defaulting to 'http://localhost:9090/MidVision'.")
         serverUrl = "http://localhost:9090/MidVision"
     } else if (!serverUrl.startsWith("http")) {
@@ -16,7 +16,9 @@ def call(args = [:]) {
     }
     def authToken = args.authToken
     if (!authToken) {
-        println("WARN: authentication token not provided! Defaulting to blank.")
+        if (!serverId) {
+            println("WARN: authentication token not provided! Defaulting to blank.")
+        }
         authToken = ""
     }
     final def jobPlanId = args.jobPlanId
@@ -38,22 +40,25 @@ def call(args = [:]) {
         println("INFO: 'showFullLog' parameter not provided, hidding full log.")
         showFullLog = false
     }
+    def pollingStrategy = args.pollingStrategy
+    if (pollingStrategy == null) {
+        pollingStrategy = [$class: 'GlobalPollingStrategy']
+    }
 
     // Show the parameters
     println("Invoking RapidDeploy job plan execution...")
-    println("  > Server URL:           " + serverUrl)
+    if (serverId) {
+        println("  > Server:               " + serverId)
+    } else {
+        println("  > Server URL:           " + serverUrl)
+    }
     println("  > Job plan ID:          " + jobPlanId)
     println("  > Asynchronous?         " + asynchronous)
     println("  > Show individual logs? " + showIndividualLogs)
     println("  > Show full log?        " + showFullLog)
 
     // Execute the job plan run process
-    try {
-        final def jobRequestOutput = RapidDeployConnector.invokeRapidDeployJobPlanPollOutput(authToken.toString(), serverUrl.toString(), jobPlanId.toString(), true)
-        if (!asynchronous) {
-            RapidDeployConnectorProxy.checkJobStatus(new PipelineLogger(this), serverUrl, authToken, jobRequestOutput, showIndividualLogs, showFullLog)
-        }
-    } catch (Exception e) {
-        throw e
-    }
+    return rapidDeployJobPlanRun(serverId: serverId.toString(), serverUrl: serverUrl.toString(), authToken: authToken.toString(),
+            jobPlanId: jobPlanId.toString(), asynchronous: asynchronous, showIndividualLogs: showIndividualLogs,
+            showFullLog: showFullLog, pollingStrategy: pollingStrategy)
 }
\ No newline at end of file
@@ -1,14 +1,14 @@
 package dsl
 
-import com.midvision.rapiddeploy.connector.RapidDeployConnector
-import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy
-import com.midvision.rapiddeploy.plugin.jenkins.log.PipelineLogger
-
 def call(args = [:]) {
 
     // Load and check all the parameters
+    final def serverId = args.serverId ?: ""
     def serverUrl = args.serverUrl
-    if (!serverUrl) {
+    if (serverId) {
+        // The server URL and token are taken from the RapidDeploy server of the global configuration
+        serverUrl = serverUrl ?: ""
+    } else if (!serverUrl) {
         println("WARN: RapidDeploy URL not provided! Defaulting to 'http://localhost:9090/MidVision'.")
         serverUrl = "http://localhost:9090/MidVision"
     } else if (!serverUrl.startsWith("http")) {
@@ -16,7 +16,9 @@ def call(args = [:]) {
     }
     def authToken = args.authToken
     if (!authToken) {
-        println("WARN: authentication token not provided! Defaulting to blank.")
+        if (!serverId) {
+            println("WARN: authentication token not provided! Defaulting to blank.")
+        }
         authToken = ""
     }
     final def project = args.project
@@ -33,20 +35,24 @@ def call(args = [:]) {
         println("INFO: archive extension not provided, defaulting to 'jar'.")
         archiveExtension = "jar"
     }
+    def pollingStrategy = args.pollingStrategy
+    if (pollingStrategy == null) {
+        pollingStrategy = [$class: 'GlobalPollingStrategy']
+    }
 
     // Show the parameters
     println("Invoking RapidDeploy deployment package creation...")
-    println("  > Server URL:        " + serverUrl)
+    if (serverId) {
+        println("  > Server:            " + serverId)
+    } else {
+        println("  > Server URL:        " + serverUrl)
+    }
     println("  > Project:           " + project)
     println("  > Package name:      " + packageName)
     println("  > Archive extension: " + archiveExtension)
 
     // Execute the package creation process
-    try {
-        final def jobRequestOutput = RapidDeployConnector.invokeRapidDeployBuildPackage(authToken.toString(), serverUrl.toString(), project.toString(), packageName.toString(), archiveExtension.toString(),
-                false, true)
-        RapidDeployConnectorProxy.checkJobStatus(new PipelineLogger(this), serverUrl, authToken, jobRequestOutput, false, true)
-    } catch (Exception e) {
-        throw e
-    }
+    return rapidDeployPackageBuild(serverId: serverId.toString(), serverUrl: serverUrl.toString(), authToken: authToken.toString(),
+            project: project.toString(), packageName: packageName.toString(),
+            archiveExtension: archiveExtension.toString(), pollingStrategy: pollingStrategy)
 }
\ No newline at end of file
@@ -1,14 +1,14 @@
 package dsl
 
-import com.midvision.rapiddeploy.connector.RapidDeployConnector
-import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy
-import com.midvision.rapiddeploy.plugin.jenkins.log.PipelineLogger
-
 def call(args = [:]) {
 
     // Load and check all the parameters
+    final def serverId = args.serverId ?: ""
     def serverUrl = args.serverUrl
-    if (!serverUrl) {
+    if (serverId) {
+        // The server URL and token are taken from the RapidDeploy server of the global configuration
+        serverUrl = serverUrl ?: ""
+    } else if (!serverUrl) {
         println("WARN: RapidDeploy URL not provided! Defaulting to 'http://localhost:9090/MidVision'.")
         serverUrl = "http://localhost:9090/MidVision"
     } else if (!serverUrl.startsWith("http")) {
@@ -16,7 +16,9 @@ def call(args = [:]) {
     }
     def authToken = args.authToken
     if (!authToken) {
-        println("WARN: authentication token not provided! Defaulting to blank.")
+        if (!serverId) {
+            println("WARN: authentication token not provided! Defaulting to blank.")
+        }
         authToken = ""
     }
     final def project = args.project
@@ -50,10 +52,18 @@ def call(args = [:]) {
     dictionary = dictionary.collectEntries { key, value ->
         [ (key) : value.toString() ]
     }
+    def pollingStrategy = args.pollingStrategy
+    if (pollingStrategy == null) {
+        pollingStrategy = [$class: 'GlobalPollingStrategy']
+    }
 
     // Show the parameters
     println("Invoking RapidDeploy project deploy...")
-    println("  > Server URL:         " + serverUrl)
+    if (serverId) {
+        println("  > Server:             " + serverId)
+    } else {
+        println("  > Server URL:         " + serverUrl)
+    }
     println("  > Project:            " + project)
     println("  > Target:             " + target)
     println("  > Deployment package: " + deploymentPackageName)
@@ -62,13 +72,7 @@ def call(args = [:]) {
     println("  > Data dictionary:    " + dictionary)
 
     // Execute the deployment process
-    try {
-        final def jobRequestOutput = RapidDeployConnector.invokeRapidDeployDeploymentPollOutput(authToken.toString(), serverUrl.toString(),
-                project.toString(), target.toString(), deploymentPackageName.toString(), false, true, dictionary)
-        if (!asynchronous) {
-            RapidDeployConnectorProxy.checkJobStatus(new PipelineLogger(this), serverUrl, authToken, jobRequestOutput, false, showFullLog)
-        }
-    } catch (Exception e) {
-        throw e
-    }
+    return rapidDeployProjectDeploy(serverId: serverId.toString(), serverUrl: serverUrl.toString(), authToken: authToken.toString(),
+            project: project.toString(), target: target.toString(), deploymentPackageName: deploymentPackageName.toString(),
+            asynchronous: asynchronous, showFullLog: showFullLog, dictionary: dictionary, pollingStrategy: pollingStrategy)
 }
\ No newline at end of file
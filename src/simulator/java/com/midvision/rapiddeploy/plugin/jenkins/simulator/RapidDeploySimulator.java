@@ -0,0 +1,487 @@
+package com.midvision.rapiddeploy.plugin.jenkins.simulator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy;
+import com.midvision.rapiddeploy.plugin.jenkins.client.RapidDeployClient;
+import com.midvision.rapiddeploy.plugin.jenkins.client.RapidDeployTransport;
+
+/**
+ * In-process stand-in for a RapidDeploy server, installed with {@link RapidDeployClient#setTransport}. Every call answers after a random
+ * latency and the requested jobs go through a configurable sequence of statuses over a configurable time, ending in success or in failure at a
+ * configurable rate. The log of a job grows while it runs.
+ * <p>
+ * The simulator keeps a count of the calls made to each operation and of the highest number of calls served at the same time, which is what
+ * the load tests look at. All the settings can be changed while jobs are running, they apply to the next calls and jobs.
+ */
+public class RapidDeploySimulator implements RapidDeployTransport {
+
+    public static final String LIST_PROJECTS = "listProjects";
+    public static final String LIST_TARGETS = "listTargets";
+    public static final String LIST_PACKAGES = "listPackages";
+    public static final String LIST_JOB_PLANS = "listJobPlans";
+    public static final String BUILD_PACKAGE = "buildPackage";
+    public static final String DEPLOY = "deploy";
+    public static final String RUN_JOB_PLAN = "runJobPlan";
+    public static final String POLL_JOB_DETAILS = "pollJobDetails";
+    public static final String POLL_JOB_LOG = "pollJobLog";
+
+    private static final Pattern JOB_ID_PATTERN = Pattern.compile("<jobId>([^<]*)</jobId>");
+    private static final Pattern STATUS_PATTERN = Pattern.compile("<status>([^<]*)</status>");
+    private static final Pattern INCLUDED_JOB_ID_PATTERN = Pattern.compile("<includedJobId>([^<]*)</includedJobId>");
+
+    private volatile long minLatency = 20L;
+    private volatile long maxLatency = 100L;
+    private volatile long jobDuration = 10000L;
+    private volatile List<String> statusSequence = Arrays.asList(RapidDeployConnectorProxy.SUBMITTED, RapidDeployConnectorProxy.EXECUTING);
+    private volatile double jobFailureRate;
+    private volatile double requestFailureRate;
+    private volatile int logLines = 200;
+    private volatile int logLineLength = 80;
+    private volatile int projectCount = 10;
+    private volatile int targetCount = 20;
+    private volatile int packageCount = 50;
+    private volatile int jobPlanCount = 10;
+    private volatile int includedJobCount;
+    private volatile boolean packageNamesReported = true;
+
+    private final Map<String, List<String>> scriptedTargets = new ConcurrentHashMap<String, List<String>>();
+    private final ConcurrentMap<String, SimulatedJob> jobs = new ConcurrentHashMap<String, SimulatedJob>();
+    private final AtomicLong nextJobId = new AtomicLong(100000L);
+
+    private final ConcurrentMap<String, AtomicLong> calls = new ConcurrentHashMap<String, AtomicLong>();
+    private final AtomicLong failedCalls = new AtomicLong();
+    private final AtomicInteger callsInProgress = new AtomicInteger();
+    private final AtomicInteger peakCallsInProgress = new AtomicInteger();
+
+    /***********************/
+    /****** SETTINGS *******/
+    /***********************/
+
+    /** Time every call takes, picked at random between the given bounds, in milliseconds **/
+    public RapidDeploySimulator latency(final long minLatency, final long maxLatency) {
+        this.minLatency = Math.max(0L, minLatency);
+        this.maxLatency = Math.max(this.minLatency, maxLatency);
+        return this;
+    }
+
+    /** Time a job takes to reach its final status, in milliseconds **/
+    public RapidDeploySimulator jobDuration(final long jobDuration) {
+        this.jobDuration = Math.max(0L, jobDuration);
+        return this;
+    }
+
+    /** Statuses a job goes through, evenly spread over its duration, before the final one **/
+    public RapidDeploySimulator statusSequence(final String... statuses) {
+        this.statusSequence = Collections.unmodifiableList(new ArrayList<String>(Arrays.asList(statuses)));
+        return this;
+    }
+
+    /** Share of the jobs ending in FAILED instead of COMPLETED, between 0 and 1 **/
+    public RapidDeploySimulator jobFailureRate(final double jobFailureRate) {
+        this.jobFailureRate = jobFailureRate;
+        return this;
+    }
+
+    /** Share of the calls failing with an I/O error, between 0 and 1 **/
+    public RapidDeploySimulator requestFailureRate(final double requestFailureRate) {
+        this.requestFailureRate = requestFailureRate;
+        return this;
+    }
+
+    /** Size of the log of a finished job **/
+    public RapidDeploySimulator logSize(final int logLines, final int logLineLength) {
+        this.logLines = Math.max(0, logLines);
+        this.logLineLength = Math.max(1, logLineLength);
+        return this;
+    }
+
+    /** Number of entries in the lists returned by the server **/
+    public RapidDeploySimulator listSizes(final int projectCount, final int targetCount, final int packageCount, final int jobPlanCount) {
+        this.projectCount = projectCount;
+        this.targetCount = targetCount;
+        this.packageCount = packageCount;
+        this.jobPlanCount = jobPlanCount;
+        return this;
+    }
+
+    /** Number of jobs included in every job plan run **/
+    public RapidDeploySimulator includedJobs(final int includedJobCount) {
+        this.includedJobCount = Math.max(0, includedJobCount);
+        return this;
+    }
+
+    /** Whether the job details include the name of the package built or deployed, as not every server version does **/
+    public RapidDeploySimulator packageNamesReported(final boolean packageNamesReported) {
+        this.packageNamesReported = packageNamesReported;
+        return this;
+    }
+
+    /**
+     * Scripts the statuses of the jobs deployed to the given target, the last one being the final status. For instance
+     * <code>script("PROD", "SUBMITTED", "JOB_HALTED", "EXECUTING", "FAILED")</code>.
+     */
+    public RapidDeploySimulator script(final String target, final String... statuses) {
+        if (statuses.length == 0) {
+            scriptedTargets.remove(target);
+        } else {
+            scriptedTargets.put(target, Collections.unmodifiableList(new ArrayList<String>(Arrays.asList(statuses))));
+        }
+        return this;
+    }
+
+    /**
+     * Installs the simulator as the transport of the RapidDeploy clients.
+     */
+    public RapidDeploySimulator install() {
+        RapidDeployClient.setTransport(this);
+        return this;
+    }
+
+    /**
+     * Restores the RapidDeploy connector as the transport of the clients.
+     */
+    public static void uninstall() {
+        RapidDeployClient.setTransport(null);
+    }
+
+    /***********************/
+    /****** COUNTERS *******/
+    /***********************/
+
+    /** Number of calls made to each operation **/
+    public Map<String, Long> getCallCounts() {
+        final Map<String, Long> counts = new TreeMap<String, Long>();
+        for (final Map.Entry<String, AtomicLong> entry : calls.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().get());
+        }
+        return counts;
+    }
+
+    public long getCallCount(final String operation) {
+        final AtomicLong count = calls.get(operation);
+        return count != null ? count.get() : 0L;
+    }
+
+    /** Number of calls failed on purpose **/
+    public long getFailedCallCount() {
+        return failedCalls.get();
+    }
+
+    /** Highest number of calls served at the same time **/
+    public int getPeakCallsInProgress() {
+        return peakCallsInProgress.get();
+    }
+
+    public int getJobCount() {
+        return jobs.size();
+    }
+
+    /** Number of jobs not yet in their final status **/
+    public int getRunningJobCount() {
+        final long now = System.currentTimeMillis();
+        int running = 0;
+        for (final SimulatedJob job : jobs.values()) {
+            if (!job.isFinished(now)) {
+                running++;
+            }
+        }
+        return running;
+    }
+
+    /** Drops the jobs and the counters, keeping the settings **/
+    public void clear() {
+        jobs.clear();
+        calls.clear();
+        failedCalls.set(0L);
+        peakCallsInProgress.set(0);
+    }
+
+    /***********************/
+    /****** TRANSPORT ******/
+    /***********************/
+
+    @Override
+    public List<String> listProjects(final String serverUrl, final String authenticationToken) throws Exception {
+        call(LIST_PROJECTS);
+        return names("Project", projectCount);
+    }
+
+    @Override
+    public List<String> listTargets(final String serverUrl, final String authenticationToken, final String project) throws Exception {
+        call(LIST_TARGETS);
+        final List<String> targets = names("SERVER", targetCount);
+        for (int i = 0; i < targets.size(); i++) {
+            targets.set(i, targets.get(i) + ".INSTALLATION.CONFIGURATION");
+        }
+        return targets;
+    }
+
+    @Override
+    public List<String> listPackages(final String serverUrl, final String authenticationToken, final String project) throws Exception {
+        call(LIST_PACKAGES);
+        return packages();
+    }
+
+    @Override
+    public List<String> listPackages(final String serverUrl, final String authenticationToken, final String project, final String server,
+            final String installation, final String configuration) throws Exception {
+        call(LIST_PACKAGES);
+        return packages();
+    }
+
+    @Override
+    public Map<String, String> listJobPlans(final String serverUrl, final String authenticationToken) throws Exception {
+        call(LIST_JOB_PLANS);
+        final Map<String, String> jobPlans = new LinkedHashMap<String, String>();
+        for (int i = 1; i <= jobPlanCount; i++) {
+            jobPlans.put(String.valueOf(i), "Job plan " + i);
+        }
+        return jobPlans;
+    }
+
+    @Override
+    public String buildPackage(final String serverUrl, final String authenticationToken, final String project, final String packageName,
+            final String archiveExtension) throws Exception {
+        call(BUILD_PACKAGE);
+        final String name = packageName != null && !packageName.isEmpty() ? packageName : "1.0." + nextJobId.get();
+        return requestOutput(startJob(project, null, name, 0));
+    }
+
+    @Override
+    public String deploy(final String serverUrl, final String authenticationToken, final String project, final String target,
+            final String packageName, final Map<String, String> dataDictionary) throws Exception {
+        call(DEPLOY);
+        return requestOutput(startJob(project, target, packageName, 0));
+    }
+
+    @Override
+    public String runJobPlan(final String serverUrl, final String authenticationToken, final String jobPlanId) throws Exception {
+        call(RUN_JOB_PLAN);
+        return requestOutput(startJob(null, null, null, includedJobCount));
+    }
+
+    @Override
+    public String pollJobDetails(final String serverUrl, final String authenticationToken, final String jobId) throws Exception {
+        call(POLL_JOB_DETAILS);
+        final SimulatedJob job = job(jobId);
+        final StringBuilder details = new StringBuilder("<job>\n");
+        details.append("  <jobId>").append(job.id).append("</jobId>\n");
+        details.append("  <status>").append(job.statusAt(System.currentTimeMillis())).append("</status>\n");
+        if (job.project != null) {
+            details.append("  <project>").append(job.project).append("</project>\n");
+        }
+        if (job.target != null) {
+            details.append("  <target>").append(job.target).append("</target>\n");
+        }
+        if (job.packageName != null && packageNamesReported) {
+            details.append("  <packageName>").append(job.packageName).append("</packageName>\n");
+        }
+        for (final String includedJobId : job.includedJobIds) {
+            details.append("  <includedJobId>").append(includedJobId).append("</includedJobId>\n");
+        }
+        return details.append("</job>\n").toString();
+    }
+
+    @Override
+    public String pollJobLog(final String serverUrl, final String authenticationToken, final String jobId) throws Exception {
+        call(POLL_JOB_LOG);
+        final SimulatedJob job = job(jobId);
+        final int lines = job.logLinesAt(System.currentTimeMillis());
+        final StringBuilder log = new StringBuilder(lines * (job.logLineLength + 1));
+        for (int i = 0; i < lines; i++) {
+            appendLogLine(log, job, i);
+        }
+        return log.toString();
+    }
+
+    /** Writes the log one line at a time, like a server streaming its response **/
+    @Override
+    public void writeJobLog(final String serverUrl, final String authenticationToken, final String jobId, final Writer writer) throws Exception {
+        call(POLL_JOB_LOG);
+        final SimulatedJob job = job(jobId);
+        final int lines = job.logLinesAt(System.currentTimeMillis());
+        final StringBuilder line = new StringBuilder(job.logLineLength + 1);
+        for (int i = 0; i < lines; i++) {
+            line.setLength(0);
+            appendLogLine(line, job, i);
+            writer.write(line.toString());
+        }
+    }
+
+    private static void appendLogLine(final StringBuilder log, final SimulatedJob job, final int index) {
+        final int start = log.length();
+        log.append("Job ").append(job.id).append(" step ").append(index + 1).append(": ");
+        while (log.length() - start < job.logLineLength) {
+            log.append('.');
+        }
+        log.append('\n');
+    }
+
+    @Override
+    public String extractJobId(final String jobRequestOutput) throws Exception {
+        return extract(JOB_ID_PATTERN, jobRequestOutput);
+    }
+
+    @Override
+    public String extractJobStatus(final String jobDetails) throws Exception {
+        return extract(STATUS_PATTERN, jobDetails);
+    }
+
+    @Override
+    public List<String> extractIncludedJobIds(final String jobDetails) throws Exception {
+        final List<String> includedJobIds = new ArrayList<String>();
+        final Matcher matcher = INCLUDED_JOB_ID_PATTERN.matcher(jobDetails);
+        while (matcher.find()) {
+            includedJobIds.add(matcher.group(1));
+        }
+        return includedJobIds;
+    }
+
+    /***********************/
+    /***** AUX METHODS *****/
+    /***********************/
+
+    private void call(final String operation) throws IOException, InterruptedException {
+        AtomicLong count = calls.get(operation);
+        if (count == null) {
+            calls.putIfAbsent(operation, new AtomicLong());
+            count = calls.get(operation);
+        }
+        count.incrementAndGet();
+        final int inProgress = callsInProgress.incrementAndGet();
+        peakCallsInProgress.accumulateAndGet(inProgress, Math::max);
+        try {
+            final long latency = minLatency + (maxLatency > minLatency ? ThreadLocalRandom.current().nextLong(maxLatency - minLatency + 1) : 0L);
+            if (latency > 0) {
+                Thread.sleep(latency);
+            }
+            if (ThreadLocalRandom.current().nextDouble() < requestFailureRate) {
+                failedCalls.incrementAndGet();
+                throw new IOException("Simulated failure of the " + operation + " call");
+            }
+        } finally {
+            callsInProgress.decrementAndGet();
+        }
+    }
+
+    private SimulatedJob startJob(final String project, final String target, final String packageName, final int includedJobs) {
+        final List<String> scripted = target != null ? scriptedTargets.get(target) : null;
+        final List<String> statuses = new ArrayList<String>();
+        if (scripted != null) {
+            statuses.addAll(scripted);
+        } else {
+            statuses.addAll(statusSequence);
+            statuses.add(ThreadLocalRandom.current().nextDouble() < jobFailureRate ? RapidDeployConnectorProxy.FAILED
+                    : RapidDeployConnectorProxy.COMPLETED);
+        }
+        final List<String> includedJobIds = new ArrayList<String>();
+        for (int i = 0; i < includedJobs; i++) {
+            final SimulatedJob includedJob = startJob(project, null, null, 0);
+            includedJobIds.add(includedJob.id);
+        }
+        final SimulatedJob job = new SimulatedJob(String.valueOf(nextJobId.getAndIncrement()), project, target, packageName, statuses,
+                includedJobIds, System.currentTimeMillis(), jobDuration, logLines, logLineLength);
+        jobs.put(job.id, job);
+        return job;
+    }
+
+    private SimulatedJob job(final String jobId) throws IOException {
+        final SimulatedJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new IOException("Job " + jobId + " not found");
+        }
+        return job;
+    }
+
+    private static String requestOutput(final SimulatedJob job) {
+        return "<job>\n  <jobId>" + job.id + "</jobId>\n  <status>" + job.statuses.get(0) + "</status>\n</job>\n";
+    }
+
+    private List<String> packages() {
+        final List<String> packages = new ArrayList<String>();
+        for (int i = packageCount; i > 0; i--) {
+            packages.add("1." + (i / 100) + "." + (i % 100));
+        }
+        return packages;
+    }
+
+    private static List<String> names(final String prefix, final int count) {
+        final List<String> names = new ArrayList<String>();
+        for (int i = 1; i <= count; i++) {
+            names.add(prefix + i);
+        }
+        return names;
+    }
+
+    private static String extract(final Pattern pattern, final String output) {
+        final Matcher matcher = pattern.matcher(output != null ? output : "");
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    /**
+     * Job going through its statuses at even intervals, from its creation to its final status.
+     */
+    private static final class SimulatedJob {
+
+        private final String id;
+        private final String project;
+        private final String target;
+        private final String packageName;
+        private final List<String> statuses;
+        private final List<String> includedJobIds;
+        private final long startTime;
+        private final long duration;
+        private final int logLines;
+        private final int logLineLength;
+
+        private SimulatedJob(final String id, final String project, final String target, final String packageName, final List<String> statuses,
+                final List<String> includedJobIds, final long startTime, final long duration, final int logLines, final int logLineLength) {
+            this.id = id;
+            this.project = project;
+            this.target = target;
+            this.packageName = packageName;
+            this.statuses = statuses;
+            this.includedJobIds = includedJobIds;
+            this.startTime = startTime;
+            this.duration = duration;
+            this.logLines = logLines;
+            this.logLineLength = logLineLength;
+        }
+
+        private String statusAt(final long time) {
+            if (isFinished(time) || statuses.size() == 1) {
+                return statuses.get(statuses.size() - 1);
+            }
+            final long step = duration / (statuses.size() - 1);
+            final int index = step > 0 ? (int) ((time - startTime) / step) : statuses.size() - 1;
+            return statuses.get(Math.min(index, statuses.size() - 1));
+        }
+
+        private int logLinesAt(final long time) {
+            if (isFinished(time)) {
+                return logLines;
+            }
+            return (int) (logLines * (time - startTime) / duration);
+        }
+
+        private boolean isFinished(final long time) {
+            return time - startTime >= duration;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.midvision.rapiddeploy.plugin.jenkins.simulator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.midvision.rapiddeploy.plugin.jenkins.deploy.MultiTargetDeployment;
+import com.midvision.rapiddeploy.plugin.jenkins.deploy.TargetResult;
+import com.midvision.rapiddeploy.plugin.jenkins.log.Logger;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.FixedPollingStrategy;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.RapidDeployJobMonitor;
+
+/**
+ * Load test measuring how many concurrent deployments one controller can track: deploys a project to the given number of targets of a
+ * simulated RapidDeploy server, all at the same time, and reports how long the plugin took to see every job finish and how many calls it made.
+ * <p>
+ * The settings are passed as <code>name=value</code> arguments:
+ * <ul>
+ * <li><code>deployments</code>: number of targets deployed at the same time, 200 by default.</li>
+ * <li><code>minLatency</code> and <code>maxLatency</code>: bounds of the time every call takes, 20 and 100 milliseconds by default.</li>
+ * <li><code>jobDuration</code>: time a job takes to finish, 10000 milliseconds by default.</li>
+ * <li><code>jobFailureRate</code> and <code>requestFailureRate</code>: share of failed jobs and failed calls, 0 by default.</li>
+ * <li><code>logLines</code>: number of lines of the log of every job, 200 by default.</li>
+ * <li><code>pollInterval</code>: seconds between two status checks of a job, 1 by default.</li>
+ * <li><code>verbose</code>: <code>true</code> to print the build console output.</li>
+ * </ul>
+ */
+public final class SimulatorMain {
+
+    private static final String SERVER_URL = "http://rapiddeploy-simulator:8080/MidVision";
+
+    private SimulatorMain() {
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final Map<String, String> settings = parse(args);
+        final int deployments = Integer.parseInt(setting(settings, "deployments", "200"));
+        final long pollInterval = Long.parseLong(setting(settings, "pollInterval", "1"));
+        final boolean verbose = Boolean.parseBoolean(setting(settings, "verbose", "false"));
+        final long jobDuration = Long.parseLong(setting(settings, "jobDuration", "10000"));
+        final RapidDeploySimulator simulator = new RapidDeploySimulator()
+                .latency(Long.parseLong(setting(settings, "minLatency", "20")), Long.parseLong(setting(settings, "maxLatency", "100")))
+                .jobDuration(jobDuration)
+                .jobFailureRate(Double.parseDouble(setting(settings, "jobFailureRate", "0")))
+                .requestFailureRate(Double.parseDouble(setting(settings, "requestFailureRate", "0")))
+                .logSize(Integer.parseInt(setting(settings, "logLines", "200")), 80)
+                .install();
+
+        final List<String> targets = new ArrayList<String>();
+        for (int i = 1; i <= deployments; i++) {
+            targets.add("SERVER" + i + ".INSTALLATION.CONFIGURATION");
+        }
+        final AtomicInteger peakMonitoredJobs = new AtomicInteger();
+        final MultiTargetDeployment deployment = new MultiTargetDeployment(new ConsoleLogger(verbose), SERVER_URL, "simulator-token", "Project1",
+                "1.0.0", null, new FixedPollingStrategy(pollInterval, pollInterval), deployments, false);
+
+        System.out.println("Deploying to " + deployments + " simulated targets...");
+        final long start = System.currentTimeMillis();
+        final CompletableFuture<Map<String, TargetResult>> result = deployment.deploy(targets);
+        while (!result.isDone()) {
+            peakMonitoredJobs.accumulateAndGet(RapidDeployJobMonitor.get().getMonitoredJobCount(), Math::max);
+            Thread.sleep(100L);
+        }
+        final long elapsed = System.currentTimeMillis() - start;
+
+        int succeeded = 0;
+        final Map<String, Integer> failures = new HashMap<String, Integer>();
+        for (final TargetResult targetResult : result.get().values()) {
+            if (targetResult.isSuccess()) {
+                succeeded++;
+            } else {
+                final Integer count = failures.get(targetResult.getStatus());
+                failures.put(targetResult.getStatus(), count != null ? count + 1 : 1);
+            }
+        }
+        System.out.println();
+        System.out.println("Deployments: " + deployments + ", succeeded: " + succeeded + ", failed: " + failures);
+        System.out.println("Elapsed: " + elapsed + " ms, job duration: " + jobDuration + " ms, tracking overhead: " + (elapsed - jobDuration) + " ms");
+        System.out.println("Throughput: " + String.format("%.2f", deployments * 1000.0 / elapsed) + " deployments/s");
+        System.out.println("Peak monitored jobs: " + peakMonitoredJobs.get());
+        System.out.println("Peak concurrent calls: " + simulator.getPeakCallsInProgress());
+        System.out.println("Calls: " + simulator.getCallCounts() + ", failed on purpose: " + simulator.getFailedCallCount());
+        RapidDeploySimulator.uninstall();
+    }
+
+    private static Map<String, String> parse(final String[] args) {
+        final Map<String, String> settings = new HashMap<String, String>();
+        for (final String arg : args) {
+            final int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid argument '" + arg + "', expected name=value");
+            }
+            settings.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        return settings;
+    }
+
+    private static String setting(final Map<String, String> settings, final String name, final String defaultValue) {
+        final String value = settings.get(name);
+        return value != null && !value.isEmpty() ? value : defaultValue;
+    }
+
+    /**
+     * Console of the simulated build, quiet unless asked otherwise since hundreds of deployments write to it at the same time.
+     */
+    private static final class ConsoleLogger implements Logger {
+
+        private final boolean verbose;
+
+        private ConsoleLogger(final boolean verbose) {
+            this.verbose = verbose;
+        }
+
+        @Override
+        public void println() {
+            if (verbose) {
+                System.out.println();
+            }
+        }
+
+        @Override
+        public void println(final Object message) {
+            if (verbose) {
+                System.out.println(message);
+            }
+        }
+    }
+}
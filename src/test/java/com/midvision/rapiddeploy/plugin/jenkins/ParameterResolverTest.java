@@ -0,0 +1,68 @@
+package com.midvision.rapiddeploy.plugin.jenkins;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.midvision.rapiddeploy.plugin.jenkins.log.JobLogger;
+import com.midvision.rapiddeploy.plugin.jenkins.log.Logger;
+
+public class ParameterResolverTest {
+
+    private final Logger logger = new JobLogger(System.out);
+
+    @Test
+    public void replacesTheKnownParameters() {
+        final Map<String, String> environment = new HashMap<String, String>();
+        environment.put("PROJECT", "Project1");
+        environment.put("VERSION", "1.2.3");
+        final ParameterResolver resolver = new ParameterResolver(environment);
+
+        assertEquals("Project1", resolver.resolve("${PROJECT}", logger));
+        assertEquals("Project1-1.2.3.zip", resolver.resolve("${PROJECT}-${VERSION}.zip", logger));
+        assertEquals("no placeholder", resolver.resolve("no placeholder", logger));
+    }
+
+    @Test
+    public void keepsTheUnknownAndBlankParameters() {
+        final Map<String, String> environment = new HashMap<String, String>();
+        environment.put("EMPTY", " ");
+        final ParameterResolver resolver = new ParameterResolver(environment);
+
+        assertEquals("${MISSING}", resolver.resolve("${MISSING}", logger));
+        assertEquals("${EMPTY}-x", resolver.resolve("${EMPTY}-x", logger));
+    }
+
+    @Test
+    public void keepsSpecialCharactersOfTheValues() {
+        final ParameterResolver resolver = new ParameterResolver(Collections.singletonMap("PASSWORD", "a$1\\b"));
+        assertEquals("a$1\\b", resolver.resolve("${PASSWORD}", logger));
+    }
+
+    @Test
+    public void extractsTheDataDictionary() {
+        final Map<String, String> environment = new HashMap<String, String>();
+        environment.put("@@HOST@@", "host1");
+        environment.put("@@PORT@@", "8080");
+        environment.put("HOST", "host2");
+        environment.put("@@INCOMPLETE", "x");
+        final ParameterResolver resolver = new ParameterResolver(environment);
+
+        final Map<String, String> expected = new HashMap<String, String>();
+        expected.put("@@HOST@@", "host1");
+        expected.put("@@PORT@@", "8080");
+        assertEquals(expected, resolver.getDataDictionary());
+    }
+
+    @Test
+    public void resolvesNothingWithoutEnvironment() {
+        final ParameterResolver resolver = new ParameterResolver(Collections.<String, String> emptyMap());
+        assertEquals("${PROJECT}", resolver.resolve("${PROJECT}", logger));
+        assertTrue(resolver.getDataDictionary().isEmpty());
+    }
+}
@@ -0,0 +1,233 @@
+package com.midvision.rapiddeploy.plugin.jenkins.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployGlobalConfiguration;
+import com.midvision.rapiddeploy.plugin.jenkins.cache.RapidDeployMetadataCache.Key;
+import com.midvision.rapiddeploy.plugin.jenkins.cache.RapidDeployMetadataCache.Resource;
+
+public class RapidDeployMetadataCacheTest {
+
+    private static final String SERVER_URL = "http://rapiddeploy.example.com:8090/MidVision";
+    private static final String OTHER_SERVER_URL = "http://other.example.com:8090/MidVision";
+    private static final String TOKEN = "token";
+
+    @Rule
+    public JenkinsRule j = new JenkinsRule();
+
+    private final RapidDeployMetadataCache cache = RapidDeployMetadataCache.get();
+
+    @Before
+    public void clearCache() {
+        cache.clear();
+    }
+
+    @Test
+    public void keepsListsUntilTheyExpire() throws Exception {
+        RapidDeployGlobalConfiguration.get().setCacheTtl(1);
+        final CountingLoader loader = new CountingLoader("Project1", "Project2");
+        final Key key = projects(SERVER_URL);
+
+        assertEquals(Arrays.asList("Project1", "Project2"), cache.get(key, loader));
+        final long hits = cache.getHitCount();
+        assertEquals(Arrays.asList("Project1", "Project2"), cache.get(key, loader));
+        assertEquals(1, loader.calls.get());
+        assertEquals(hits + 1, cache.getHitCount());
+
+        Thread.sleep(1100);
+        cache.get(key, loader);
+        assertEquals(2, loader.calls.get());
+    }
+
+    @Test
+    public void evictsTheLeastRecentlyUsedLists() throws Exception {
+        RapidDeployGlobalConfiguration.get().setCacheSize(2);
+        final CountingLoader loader = new CountingLoader("Target1");
+        final Key first = targets("Project1");
+        final Key second = targets("Project2");
+        final long evictions = cache.getEvictionCount();
+
+        cache.get(first, loader);
+        Thread.sleep(10);
+        cache.get(second, loader);
+        Thread.sleep(10);
+        // The first list is now the most recently used one
+        cache.get(first, loader);
+        Thread.sleep(10);
+        cache.get(targets("Project3"), loader);
+
+        assertEquals(2, cache.getSize());
+        assertEquals(evictions + 1, cache.getEvictionCount());
+        assertEquals(3, loader.calls.get());
+        cache.get(first, loader);
+        assertEquals(3, loader.calls.get());
+        cache.get(second, loader);
+        assertEquals(4, loader.calls.get());
+    }
+
+    @Test
+    public void refreshesOnlyTheListsOfTheGivenServer() throws Exception {
+        final CountingLoader loader = new CountingLoader("Project1");
+        cache.get(projects(SERVER_URL), loader);
+        cache.get(projects(OTHER_SERVER_URL), loader);
+
+        cache.refresh(SERVER_URL, TOKEN);
+
+        cache.get(projects(OTHER_SERVER_URL), loader);
+        assertEquals(2, loader.calls.get());
+        cache.get(projects(SERVER_URL), loader);
+        assertEquals(3, loader.calls.get());
+    }
+
+    @Test
+    public void dropsTheListsLoadedBeforeARefresh() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountingLoader staleLoader = new CountingLoader(release, "Project1");
+        final Key key = projects(SERVER_URL);
+
+        final ExecutorService callers = Executors.newSingleThreadExecutor();
+        try {
+            final Future<List<String>> staleResult = callers.submit(new Callable<List<String>>() {
+                @Override
+                public List<String> call() throws Exception {
+                    return cache.get(key, staleLoader);
+                }
+            });
+            final long deadline = System.currentTimeMillis() + 10000L;
+            while (staleLoader.calls.get() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            cache.refresh(SERVER_URL, TOKEN);
+            release.countDown();
+            // The caller waiting for the load still gets its result
+            assertEquals(Arrays.asList("Project1"), staleResult.get(10, TimeUnit.SECONDS));
+        } finally {
+            callers.shutdownNow();
+        }
+
+        final CountingLoader freshLoader = new CountingLoader("Project1", "Project2");
+        assertEquals(Arrays.asList("Project1", "Project2"), cache.get(key, freshLoader));
+        assertEquals(1, freshLoader.calls.get());
+    }
+
+    @Test
+    public void doesNotKeepFailedLoads() throws Exception {
+        final Key key = projects(SERVER_URL);
+        try {
+            cache.get(key, new Callable<List<String>>() {
+                @Override
+                public List<String> call() throws Exception {
+                    throw new IOException("Connection refused");
+                }
+            });
+            fail("The load failed");
+        } catch (final IOException e) {
+            assertEquals("Connection refused", e.getMessage());
+        }
+        assertEquals(0, cache.getSize());
+
+        final CountingLoader loader = new CountingLoader("Project1");
+        assertEquals(Arrays.asList("Project1"), cache.get(key, loader));
+        assertEquals(1, loader.calls.get());
+    }
+
+    @Test
+    public void sharesOneLoadBetweenConcurrentMisses() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountingLoader loader = new CountingLoader(release, "Project1");
+        final Key key = projects(SERVER_URL);
+        final long coalesced = cache.getCoalescedCount();
+
+        final ExecutorService callers = Executors.newFixedThreadPool(5);
+        try {
+            final List<Future<List<String>>> results = new ArrayList<Future<List<String>>>();
+            for (int i = 0; i < 5; i++) {
+                results.add(callers.submit(new Callable<List<String>>() {
+                    @Override
+                    public List<String> call() throws Exception {
+                        return cache.get(key, loader);
+                    }
+                }));
+            }
+            // Wait for the other callers to find the load in progress
+            final long deadline = System.currentTimeMillis() + 10000L;
+            while (cache.getCoalescedCount() < coalesced + 4 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            for (final Future<List<String>> result : results) {
+                assertEquals(Arrays.asList("Project1"), result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+        assertEquals(1, loader.calls.get());
+        assertEquals(coalesced + 4, cache.getCoalescedCount());
+    }
+
+    @Test
+    public void returnsNullWhileTheListIsStillLoading() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountingLoader loader = new CountingLoader(release, "Project1");
+        final Key key = projects(SERVER_URL);
+
+        assertNull(cache.get(key, loader, 50));
+        assertNull(cache.get(key, loader, 50));
+        release.countDown();
+
+        assertEquals(Arrays.asList("Project1"), cache.get(key, loader, 10000));
+        assertEquals(1, loader.calls.get());
+    }
+
+    private static Key projects(final String serverUrl) {
+        return RapidDeployMetadataCache.key(Resource.PROJECTS, serverUrl, TOKEN, null, null);
+    }
+
+    private static Key targets(final String project) {
+        return RapidDeployMetadataCache.key(Resource.TARGETS, SERVER_URL, TOKEN, project, null);
+    }
+
+    private static class CountingLoader implements Callable<List<String>> {
+
+        private final CountDownLatch release;
+        private final List<String> values;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private CountingLoader(final String... values) {
+            this(new CountDownLatch(0), values);
+        }
+
+        /** Loader blocked until the given latch is released **/
+        private CountingLoader(final CountDownLatch release, final String... values) {
+            this.release = release;
+            this.values = Arrays.asList(values);
+        }
+
+        @Override
+        public List<String> call() throws Exception {
+            calls.incrementAndGet();
+            release.await(10, TimeUnit.SECONDS);
+            return values;
+        }
+    }
+}
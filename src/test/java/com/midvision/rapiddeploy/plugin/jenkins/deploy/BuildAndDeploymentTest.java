@@ -0,0 +1,87 @@
+package com.midvision.rapiddeploy.plugin.jenkins.deploy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.midvision.rapiddeploy.plugin.jenkins.log.JobLogger;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.BackoffPollingStrategy;
+import com.midvision.rapiddeploy.plugin.jenkins.simulator.RapidDeploySimulator;
+
+import hudson.AbortException;
+
+public class BuildAndDeploymentTest {
+
+    private static final String SERVER_URL = "http://rapiddeploy.example.com:8090/MidVision";
+
+    private final RapidDeploySimulator simulator = new RapidDeploySimulator().latency(0, 0).jobDuration(0);
+
+    @After
+    public void uninstallSimulator() {
+        RapidDeploySimulator.uninstall();
+    }
+
+    @Test
+    public void extractsThePackageNameOfTheJobDetails() {
+        assertEquals("1.0.7", BuildAndDeployment.extractPackageName("<job><packageName> 1.0.7 </packageName></job>"));
+        assertEquals("1.0.8", BuildAndDeployment.extractPackageName("<job><deploymentPackageName>1.0.8</deploymentPackageName></job>"));
+        assertNull(BuildAndDeployment.extractPackageName("<job><status>COMPLETED</status></job>"));
+        assertNull(BuildAndDeployment.extractPackageName(null));
+    }
+
+    @Test
+    public void deploysThePackageBuilt() throws Exception {
+        simulator.install();
+        final BuildAndDeployment run = buildAndDeployment("");
+        final Map<String, TargetResult> results = run.run(Arrays.asList("T1", "T2")).get(30, TimeUnit.SECONDS);
+
+        assertEquals(1, simulator.getCallCount(RapidDeploySimulator.BUILD_PACKAGE));
+        final String built = BuildAndDeployment.extractPackageName(simulator.pollJobDetails(SERVER_URL, "token", run.getBuildJobId()));
+        assertTrue(built.startsWith("1.0."));
+        assertEquals(built, run.getDeployedPackageName());
+        for (final TargetResult result : results.values()) {
+            assertTrue(result.isSuccess());
+            assertEquals(built, BuildAndDeployment.extractPackageName(simulator.pollJobDetails(SERVER_URL, "token", result.getJobId())));
+        }
+    }
+
+    @Test
+    public void deploysTheGivenPackageName() throws Exception {
+        simulator.packageNamesReported(false).install();
+        final BuildAndDeployment run = buildAndDeployment("2.0.0");
+        final Map<String, TargetResult> results = run.run(Arrays.asList("T1")).get(30, TimeUnit.SECONDS);
+
+        assertEquals("2.0.0", run.getDeployedPackageName());
+        assertTrue(results.get("T1").isSuccess());
+        assertEquals(1, simulator.getCallCount(RapidDeploySimulator.DEPLOY));
+    }
+
+    @Test
+    public void failsWhenThePackageBuiltIsUnknown() throws Exception {
+        simulator.packageNamesReported(false).install();
+        final BuildAndDeployment run = buildAndDeployment(null);
+        try {
+            run.run(Arrays.asList("T1")).get(30, TimeUnit.SECONDS);
+            fail("The package name is not reported");
+        } catch (final ExecutionException e) {
+            assertTrue(e.getCause() instanceof AbortException);
+        }
+        assertNull(run.getDeployedPackageName());
+        // LATEST is not deployed instead
+        assertEquals(0, simulator.getCallCount(RapidDeploySimulator.DEPLOY));
+    }
+
+    private static BuildAndDeployment buildAndDeployment(final String packageName) {
+        return new BuildAndDeployment(new JobLogger(System.out), SERVER_URL, "token", "Project1", packageName, "jar", false, null,
+                new BackoffPollingStrategy(10, 50, 2.0, 0), 2, false);
+    }
+}
@@ -0,0 +1,126 @@
+package com.midvision.rapiddeploy.plugin.jenkins.deploy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy;
+import com.midvision.rapiddeploy.plugin.jenkins.log.JobLogger;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.BackoffPollingStrategy;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.RapidDeployJobMonitor;
+import com.midvision.rapiddeploy.plugin.jenkins.simulator.RapidDeploySimulator;
+
+public class MultiTargetDeploymentTest {
+
+    private static final String SERVER_URL = "http://rapiddeploy.example.com:8090/MidVision";
+
+    private final RapidDeploySimulator simulator = new RapidDeploySimulator().latency(0, 0).jobDuration(0);
+
+    @After
+    public void uninstallSimulator() {
+        RapidDeploySimulator.uninstall();
+    }
+
+    @Test
+    public void limitsTheDeploymentsInFlight() throws Exception {
+        simulator.jobDuration(200).install();
+        final CompletableFuture<Map<String, TargetResult>> future = deployment(2, false).deploy(targets(6));
+        int peakRunningJobs = 0;
+        while (!future.isDone()) {
+            peakRunningJobs = Math.max(peakRunningJobs, simulator.getRunningJobCount());
+            Thread.sleep(5);
+        }
+
+        final Map<String, TargetResult> results = future.get(30, TimeUnit.SECONDS);
+        assertEquals(targets(6), new ArrayList<String>(results.keySet()));
+        for (final TargetResult result : results.values()) {
+            assertTrue(result.isSuccess());
+        }
+        assertEquals(2, peakRunningJobs);
+        assertEquals(6, simulator.getCallCount(RapidDeploySimulator.DEPLOY));
+    }
+
+    @Test
+    public void stopsAtTheFirstFailureInFailFastMode() throws Exception {
+        simulator.script("T1", RapidDeployConnectorProxy.FAILED).install();
+        final Map<String, TargetResult> results = deployment(1, true).deploy(targets(4)).get(30, TimeUnit.SECONDS);
+
+        assertEquals(RapidDeployConnectorProxy.FAILED, results.get("T1").getStatus());
+        assertEquals(TargetResult.NOT_STARTED, results.get("T2").getStatus());
+        assertEquals(TargetResult.NOT_STARTED, results.get("T3").getStatus());
+        assertEquals(TargetResult.NOT_STARTED, results.get("T4").getStatus());
+        assertEquals(1, simulator.getCallCount(RapidDeploySimulator.DEPLOY));
+    }
+
+    @Test
+    public void deploysEveryTargetWithoutFailFast() throws Exception {
+        simulator.script("T1", RapidDeployConnectorProxy.FAILED).install();
+        final Map<String, TargetResult> results = deployment(1, false).deploy(targets(4)).get(30, TimeUnit.SECONDS);
+
+        assertFalse(results.get("T1").isSuccess());
+        assertTrue(results.get("T2").isSuccess());
+        assertTrue(results.get("T4").isSuccess());
+        assertEquals(4, simulator.getCallCount(RapidDeploySimulator.DEPLOY));
+    }
+
+    @Test
+    public void reportsTheTargetsLeftWhenCancelled() throws Exception {
+        simulator.jobDuration(60000).install();
+        final int monitoredJobs = RapidDeployJobMonitor.get().getMonitoredJobCount();
+        final MultiTargetDeployment deployment = deployment(2, false);
+        final CompletableFuture<Map<String, TargetResult>> future = deployment.deploy(targets(4));
+        final long deadline = System.currentTimeMillis() + 10000L;
+        while (RapidDeployJobMonitor.get().getMonitoredJobCount() < monitoredJobs + 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        deployment.cancel();
+        final Map<String, TargetResult> results = future.get(10, TimeUnit.SECONDS);
+        // The jobs requested keep running on the server, they are no longer followed
+        assertEquals(TargetResult.ABANDONED, results.get("T1").getStatus());
+        assertEquals(TargetResult.ABANDONED, results.get("T2").getStatus());
+        assertEquals(TargetResult.NOT_STARTED, results.get("T3").getStatus());
+        assertEquals(TargetResult.NOT_STARTED, results.get("T4").getStatus());
+        assertEquals(2, simulator.getCallCount(RapidDeploySimulator.DEPLOY));
+    }
+
+    @Test
+    public void deploysEachTargetOnce() throws Exception {
+        simulator.install();
+        final Map<String, TargetResult> results = deployment(2, false).deploy(Arrays.asList("T1", "T2", "T1")).get(30, TimeUnit.SECONDS);
+
+        assertEquals(Arrays.asList("T1", "T2"), new ArrayList<String>(results.keySet()));
+        assertEquals(2, simulator.getCallCount(RapidDeploySimulator.DEPLOY));
+    }
+
+    @Test
+    public void resolvesTheTargetsMatchingThePattern() throws Exception {
+        simulator.listSizes(10, 12, 10, 10).install();
+        assertEquals(Arrays.asList("SERVER1.INSTALLATION.CONFIGURATION", "SERVER10.INSTALLATION.CONFIGURATION",
+                "SERVER11.INSTALLATION.CONFIGURATION", "SERVER12.INSTALLATION.CONFIGURATION"),
+                MultiTargetDeployment.resolveTargets(SERVER_URL, "token", "Project1", "SERVER1[0-9]?\\..*"));
+    }
+
+    private static MultiTargetDeployment deployment(final int maxInFlight, final boolean failFast) {
+        return new MultiTargetDeployment(new JobLogger(System.out), SERVER_URL, "token", "Project1", "1.0.0", null,
+                new BackoffPollingStrategy(10, 50, 2.0, 0), maxInFlight, failFast);
+    }
+
+    private static List<String> targets(final int count) {
+        final List<String> targets = new ArrayList<String>();
+        for (int i = 1; i <= count; i++) {
+            targets.add("T" + i);
+        }
+        return targets;
+    }
+}
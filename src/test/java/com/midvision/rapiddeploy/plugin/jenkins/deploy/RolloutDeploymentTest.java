@@ -0,0 +1,172 @@
+package com.midvision.rapiddeploy.plugin.jenkins.deploy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy;
+import com.midvision.rapiddeploy.plugin.jenkins.log.JobLogger;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.BackoffPollingStrategy;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.RapidDeployJobMonitor;
+import com.midvision.rapiddeploy.plugin.jenkins.simulator.RapidDeploySimulator;
+
+public class RolloutDeploymentTest {
+
+    private static final String SERVER_URL = "http://rapiddeploy.example.com:8090/MidVision";
+
+    private final RapidDeploySimulator simulator = new RapidDeploySimulator().latency(0, 0).jobDuration(0);
+
+    @After
+    public void uninstallSimulator() {
+        RapidDeploySimulator.uninstall();
+    }
+
+    @Test
+    public void growsTheWavesAfterTheCanary() {
+        final List<List<String>> waves = RolloutDeployment.planWaves(targets(10), 1, null, 2.0);
+        assertEquals(Arrays.asList(1, 2, 4, 3), sizes(waves));
+        assertEquals(Arrays.asList("T1"), waves.get(0));
+        assertEquals(Arrays.asList("T2", "T3"), waves.get(1));
+    }
+
+    @Test
+    public void growsByOneTargetAtLeast() {
+        assertEquals(Arrays.asList(1, 2, 3, 4), sizes(RolloutDeployment.planWaves(targets(10), 0, null, 1.0)));
+    }
+
+    @Test
+    public void usesTheGivenWaveSizes() {
+        assertEquals(Arrays.asList(2, 3, 5), sizes(RolloutDeployment.planWaves(targets(10), 2, Arrays.asList(3, 5), 2.0)));
+    }
+
+    @Test
+    public void repeatsTheLastWaveSize() {
+        assertEquals(Arrays.asList(4, 4, 2), sizes(RolloutDeployment.planWaves(targets(10), 0, Arrays.asList(4), 2.0)));
+    }
+
+    @Test
+    public void keepsEveryTargetOnceInOrder() {
+        final List<String> targets = targets(25);
+        final List<String> planned = new ArrayList<String>();
+        for (final List<String> wave : RolloutDeployment.planWaves(targets, 3, Arrays.asList(2, 0, 7), 1.5)) {
+            assertTrue(!wave.isEmpty());
+            planned.addAll(wave);
+        }
+        assertEquals(targets, planned);
+    }
+
+    @Test
+    public void limitsTheCanaryToTheTargets() {
+        assertEquals(Arrays.asList(3), sizes(RolloutDeployment.planWaves(targets(3), 5, null, 2.0)));
+    }
+
+    @Test
+    public void plansNoWaveWithoutTargets() {
+        assertTrue(RolloutDeployment.planWaves(Collections.<String> emptyList(), 1, null, 2.0).isEmpty());
+    }
+
+    /***********************/
+    /******* ROLLOUT *******/
+    /***********************/
+
+    @Test
+    public void deploysEveryWave() throws Exception {
+        simulator.install();
+        final RolloutResult result = rollout(0).rollout(RolloutDeployment.planWaves(targets(6), 1, null, 2.0), true).get(30, TimeUnit.SECONDS);
+
+        assertFalse(result.isAborted());
+        assertEquals(3, result.getWaves().size());
+        assertTrue(result.getWaves().get(0).isCanary());
+        assertTrue(result.getFailedTargets().isEmpty());
+        assertTrue(result.getSkippedTargets().isEmpty());
+        assertEquals(6, simulator.getCallCount(RapidDeploySimulator.DEPLOY));
+    }
+
+    @Test
+    public void stopsWhenTheCanaryWaveFails() throws Exception {
+        simulator.script("T1", RapidDeployConnectorProxy.FAILED).install();
+        final RolloutResult result = rollout(5).rollout(RolloutDeployment.planWaves(targets(6), 1, null, 2.0), true).get(30, TimeUnit.SECONDS);
+
+        assertTrue(result.isAborted());
+        assertEquals("the canary wave failed", result.getAbortReason());
+        assertEquals(Arrays.asList("T1"), result.getFailedTargets());
+        assertEquals(Arrays.asList("T2", "T3", "T4", "T5", "T6"), result.getSkippedTargets());
+        assertEquals(1, simulator.getCallCount(RapidDeploySimulator.DEPLOY));
+    }
+
+    @Test
+    public void stopsWhenTooManyTargetsFail() throws Exception {
+        simulator.script("T2", RapidDeployConnectorProxy.FAILED).script("T3", RapidDeployConnectorProxy.FAILED).install();
+        final RolloutResult result = rollout(1).rollout(RolloutDeployment.planWaves(targets(6), 0, Arrays.asList(3), 1.0), false)
+                .get(30, TimeUnit.SECONDS);
+
+        assertTrue(result.isAborted());
+        assertEquals(Arrays.asList("T2", "T3"), result.getFailedTargets());
+        assertEquals(Arrays.asList("T4", "T5", "T6"), result.getSkippedTargets());
+    }
+
+    @Test
+    public void reportsTheCancellationOfTheCanaryWave() throws Exception {
+        simulator.jobDuration(60000).install();
+        final int monitoredJobs = RapidDeployJobMonitor.get().getMonitoredJobCount();
+        final RolloutDeployment rollout = rollout(0);
+        final CompletableFuture<RolloutResult> future = rollout
+                .rollout(RolloutDeployment.planWaves(targets(3), 1, null, 2.0), true);
+        final long deadline = System.currentTimeMillis() + 10000L;
+        while (RapidDeployJobMonitor.get().getMonitoredJobCount() == monitoredJobs && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        rollout.cancel();
+        final RolloutResult result = future.get(10, TimeUnit.SECONDS);
+        assertTrue(result.isAborted());
+        // Not reported as a failed canary
+        assertEquals(RolloutDeployment.CANCELLED, result.getAbortReason());
+        assertEquals(TargetResult.ABANDONED, result.getWaves().get(0).getResults().get("T1").getStatus());
+        assertEquals(Arrays.asList("T2", "T3"), result.getSkippedTargets());
+    }
+
+    @Test
+    public void startsNoWaveOnceCancelled() throws Exception {
+        simulator.install();
+        final RolloutDeployment rollout = rollout(0);
+        rollout.cancel();
+        final RolloutResult result = rollout.rollout(RolloutDeployment.planWaves(targets(3), 1, null, 2.0), true).get(10, TimeUnit.SECONDS);
+
+        assertEquals(RolloutDeployment.CANCELLED, result.getAbortReason());
+        assertTrue(result.getWaves().isEmpty());
+        assertEquals(targets(3), result.getSkippedTargets());
+        assertEquals(0, simulator.getCallCount(RapidDeploySimulator.DEPLOY));
+    }
+
+    private static RolloutDeployment rollout(final int maxFailures) {
+        return new RolloutDeployment(new JobLogger(System.out), SERVER_URL, "token", "Project1", "1.0.0", null,
+                new BackoffPollingStrategy(10, 50, 2.0, 0), 2, maxFailures);
+    }
+
+    private static List<String> targets(final int count) {
+        final List<String> targets = new ArrayList<String>();
+        for (int i = 1; i <= count; i++) {
+            targets.add("T" + i);
+        }
+        return targets;
+    }
+
+    private static List<Integer> sizes(final List<List<String>> waves) {
+        final List<Integer> sizes = new ArrayList<Integer>();
+        for (final List<String> wave : waves) {
+            sizes.add(wave.size());
+        }
+        return sizes;
+    }
+}
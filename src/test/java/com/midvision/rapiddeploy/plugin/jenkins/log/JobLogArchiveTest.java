@@ -0,0 +1,47 @@
+package com.midvision.rapiddeploy.plugin.jenkins.log;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+
+public class JobLogArchiveTest {
+
+    @Rule
+    public JenkinsRule j = new JenkinsRule();
+
+    @Test
+    public void streamsTheLogToTheBuildDirectory() throws Exception {
+        final FreeStyleProject project = j.createFreeStyleProject();
+        final FreeStyleBuild build = j.buildAndAssertSuccess(project);
+        final StringBuilder log = new StringBuilder();
+        for (int i = 1; i <= 1000; i++) {
+            log.append("line ").append(i).append('\n');
+        }
+
+        final LogExcerpt excerpt = new JobLogArchive(build, 1).archive("42", writer -> {
+            for (final String line : log.toString().split("(?<=\n)")) {
+                writer.write(line);
+            }
+        });
+
+        final File logFile = new File(JobLogArchive.getLogsDir(build), "42" + JobLogArchive.LOG_EXTENSION);
+        try (InputStream in = new GZIPInputStream(new FileInputStream(logFile))) {
+            assertEquals(log.toString(), IOUtils.toString(in, StandardCharsets.UTF_8));
+        }
+        assertNotNull(build.getAction(RapidDeployLogsAction.class));
+        assertEquals("line 1000\n", excerpt.getEnd().substring(excerpt.getEnd().lastIndexOf("line ")));
+    }
+}
@@ -0,0 +1,87 @@
+package com.midvision.rapiddeploy.plugin.jenkins.log;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class JobLogTailTest {
+
+    private final RecordingLogger logger = new RecordingLogger();
+    private final JobLogTail tail = new JobLogTail("1");
+
+    @Test
+    public void printsOnlyTheNewLines() {
+        tail.print(logger, "line 1\nline 2\n");
+        assertEquals(14, tail.getOffset());
+        tail.print(logger, "line 1\nline 2\nline 3\n");
+        assertEquals(21, tail.getOffset());
+
+        assertEquals(Arrays.asList("line 1\nline 2", "line 3"), logger.messages);
+    }
+
+    @Test
+    public void keepsAnIncompleteLineForTheNextPoll() {
+        tail.print(logger, "line 1\nline");
+        assertEquals(7, tail.getOffset());
+        tail.print(logger, "line 1\nline 2\r\n");
+
+        assertEquals(Arrays.asList("line 1", "line 2"), logger.messages);
+    }
+
+    @Test
+    public void printsNothingWithoutANewCompleteLine() {
+        tail.print(logger, "line 1\n");
+        tail.print(logger, "line 1\n");
+        tail.print(logger, "line 1\nline");
+        tail.print(logger, null);
+
+        assertEquals(Arrays.asList("line 1"), logger.messages);
+        assertEquals(7, tail.getOffset());
+    }
+
+    @Test
+    public void printsTheIncompleteLineWhenTheJobFinishes() {
+        tail.print(logger, "line 1\nline");
+        tail.finish(logger, "line 1\nline 2");
+
+        assertEquals(Arrays.asList("line 1", "line 2"), logger.messages);
+        assertEquals(13, tail.getOffset());
+    }
+
+    @Test
+    public void ignoresALogArrivingAfterTheEnd() {
+        tail.finish(logger, "line 1\n");
+        tail.print(logger, "line 1\nline 2\n");
+
+        assertEquals(Arrays.asList("line 1"), logger.messages);
+        assertEquals(7, tail.getOffset());
+    }
+
+    @Test
+    public void startsAgainWhenTheLogIsShorterThanTheOffset() {
+        tail.print(logger, "line 1\nline 2\n");
+        tail.print(logger, "other\n");
+
+        assertEquals(Arrays.asList("line 1\nline 2", "other"), logger.messages);
+        assertEquals(6, tail.getOffset());
+    }
+
+    private static class RecordingLogger implements Logger {
+
+        private final List<String> messages = new ArrayList<String>();
+
+        @Override
+        public void println() {
+            messages.add("");
+        }
+
+        @Override
+        public void println(final Object message) {
+            messages.add(String.valueOf(message));
+        }
+    }
+}
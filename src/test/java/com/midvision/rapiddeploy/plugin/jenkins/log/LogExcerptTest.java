@@ -0,0 +1,87 @@
+package com.midvision.rapiddeploy.plugin.jenkins.log;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+public class LogExcerptTest {
+
+    @Test
+    public void printsTheFirstAndLastLinesOfALongLog() {
+        final LogExcerpt excerpt = new LogExcerpt(2, 100);
+        write(excerpt, "line 1\nline 2\nline 3\nline 4\nline 5\nline 6\n");
+
+        assertEquals(Arrays.asList("line 1\nline 2", "[...] see the archived log for the complete output [...]", "line 5\nline 6"),
+                print(excerpt));
+    }
+
+    @Test
+    public void printsTheWholeLogWhenItIsShort() {
+        final LogExcerpt excerpt = new LogExcerpt(2, 100);
+        write(excerpt, "line 1\r\nline 2\r\nline 3\r\nline 4");
+
+        assertEquals(Arrays.asList("line 1\nline 2", "line 3\nline 4"), print(excerpt));
+    }
+
+    @Test
+    public void printsNothingWithoutConsoleLines() {
+        final LogExcerpt excerpt = new LogExcerpt(0, 100);
+        write(excerpt, "line 1\nline 2\n");
+
+        assertEquals(Collections.<String> emptyList(), print(excerpt));
+        assertEquals("line 1\nline 2\n", excerpt.getEnd());
+    }
+
+    @Test
+    public void printsNothingForAnEmptyLog() {
+        final LogExcerpt excerpt = new LogExcerpt(2, 100);
+        excerpt.close();
+
+        assertEquals(Collections.<String> emptyList(), print(excerpt));
+    }
+
+    @Test
+    public void keepsOnlyTheEndOfTheLog() {
+        final LogExcerpt excerpt = new LogExcerpt(2, 10);
+        final StringBuilder log = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            log.append("line ").append(i).append('\n');
+        }
+        write(excerpt, log.toString());
+
+        final String end = excerpt.getEnd();
+        assertTrue("End of the log " + end, end.length() > 10 && end.length() <= 20);
+        assertTrue("End of the log " + end, end.endsWith("line 99\n"));
+    }
+
+    private static void write(final LogExcerpt excerpt, final String log) {
+        // Written in small chunks, the way a streamed response arrives
+        for (int i = 0; i < log.length(); i += 3) {
+            final int end = Math.min(log.length(), i + 3);
+            excerpt.write(log.toCharArray(), i, end - i);
+        }
+        excerpt.close();
+    }
+
+    private static List<String> print(final LogExcerpt excerpt) {
+        final List<String> messages = new ArrayList<String>();
+        excerpt.print(new Logger() {
+            @Override
+            public void println() {
+                messages.add("");
+            }
+
+            @Override
+            public void println(final Object message) {
+                messages.add(String.valueOf(message));
+            }
+        });
+        return messages;
+    }
+}
@@ -0,0 +1,39 @@
+package com.midvision.rapiddeploy.plugin.jenkins.monitor;
+
+import static com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy.EXECUTING;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployGlobalConfiguration;
+
+public class GlobalPollingStrategyTest {
+
+    @Rule
+    public JenkinsRule j = new JenkinsRule();
+
+    @Test
+    public void resolvesToTheConfiguredStrategy() {
+        final FixedPollingStrategy configured = new FixedPollingStrategy(5, 60);
+        RapidDeployGlobalConfiguration.get().setPollingStrategy(configured);
+
+        final GlobalPollingStrategy strategy = new GlobalPollingStrategy();
+        assertSame(configured, strategy.resolve());
+        assertEquals(5000L, strategy.getFirstInterval());
+        assertEquals(5000L, strategy.nextInterval(EXECUTING, false, 5000L));
+    }
+
+    @Test
+    public void resolvesToBackoffIfNoneIsConfigured() {
+        RapidDeployGlobalConfiguration.get().setPollingStrategy(null);
+        assertTrue(new GlobalPollingStrategy().resolve() instanceof BackoffPollingStrategy);
+
+        // A global configuration pointing to itself must not loop
+        RapidDeployGlobalConfiguration.get().setPollingStrategy(new GlobalPollingStrategy());
+        assertTrue(new GlobalPollingStrategy().resolve() instanceof BackoffPollingStrategy);
+    }
+}
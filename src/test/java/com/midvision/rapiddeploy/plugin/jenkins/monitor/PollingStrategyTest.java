@@ -0,0 +1,101 @@
+package com.midvision.rapiddeploy.plugin.jenkins.monitor;
+
+import static com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy.EXECUTING;
+import static com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy.JOB_HALTED;
+import static com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy.REQUESTED;
+import static com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy.SCHEDULED;
+import static com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy.SUBMITTED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class PollingStrategyTest {
+
+    /***********************/
+    /******** FIXED ********/
+    /***********************/
+
+    @Test
+    public void fixedUsesTheRunningIntervalFirst() {
+        assertEquals(5000L, new FixedPollingStrategy(5, 60).getFirstInterval());
+    }
+
+    @Test
+    public void fixedUsesTheWaitingIntervalForHaltedAndScheduledJobs() {
+        final FixedPollingStrategy strategy = new FixedPollingStrategy(5, 60);
+        assertEquals(5000L, strategy.nextInterval(EXECUTING, true, 5000L));
+        assertEquals(60000L, strategy.nextInterval(JOB_HALTED, true, 5000L));
+        assertEquals(60000L, strategy.nextInterval(SCHEDULED, false, 60000L));
+    }
+
+    @Test
+    public void fixedKeepsTheIntervalOfRequestedJobs() {
+        final FixedPollingStrategy strategy = new FixedPollingStrategy(5, 60);
+        assertEquals(60000L, strategy.nextInterval(REQUESTED, true, 60000L));
+        assertEquals(5000L, strategy.nextInterval(REQUESTED, false, 5000L));
+    }
+
+    @Test
+    public void fixedDefaultsInvalidIntervals() {
+        final FixedPollingStrategy strategy = new FixedPollingStrategy(0, -1);
+        assertEquals(30L, strategy.getInterval());
+        assertEquals(300L, strategy.getWaitingInterval());
+    }
+
+    /***********************/
+    /******* BACKOFF *******/
+    /***********************/
+
+    @Test
+    public void backoffGrowsUpToTheMaximumInterval() {
+        final BackoffPollingStrategy strategy = new BackoffPollingStrategy(1000, 6000, 2.0, 0);
+        long interval = strategy.getFirstInterval();
+        assertEquals(1000L, interval);
+        interval = strategy.nextInterval(EXECUTING, false, interval);
+        assertEquals(2000L, interval);
+        interval = strategy.nextInterval(EXECUTING, false, interval);
+        assertEquals(4000L, interval);
+        interval = strategy.nextInterval(EXECUTING, false, interval);
+        assertEquals(6000L, interval);
+        interval = strategy.nextInterval(EXECUTING, false, interval);
+        assertEquals(6000L, interval);
+    }
+
+    @Test
+    public void backoffStartsAgainWhenTheStatusChanges() {
+        final BackoffPollingStrategy strategy = new BackoffPollingStrategy(1000, 6000, 2.0, 0);
+        assertEquals(1000L, strategy.nextInterval(EXECUTING, true, 6000L));
+    }
+
+    @Test
+    public void backoffJitterStaysWithinBounds() {
+        final BackoffPollingStrategy strategy = new BackoffPollingStrategy(1000, 6000, 2.0, 0.2);
+        for (int i = 0; i < 1000; i++) {
+            final long first = strategy.getFirstInterval();
+            assertTrue("First interval " + first, first >= 800L && first <= 1200L);
+            // The jitter never goes over the maximum interval
+            final long capped = strategy.nextInterval(SUBMITTED, false, 6000L);
+            assertTrue("Capped interval " + capped, capped >= 4800L && capped <= 6000L);
+        }
+    }
+
+    @Test
+    public void backoffDefaultsInvalidSettings() {
+        final BackoffPollingStrategy strategy = new BackoffPollingStrategy(0, 0, 0, -1);
+        assertEquals(BackoffPollingStrategy.DEFAULT_INITIAL_INTERVAL, strategy.getInitialInterval());
+        assertEquals(BackoffPollingStrategy.DEFAULT_MAX_INTERVAL, strategy.getMaxInterval());
+        assertEquals(BackoffPollingStrategy.DEFAULT_MULTIPLIER, strategy.getMultiplier(), 0);
+    }
+
+    /***********************/
+    /******* GLOBAL ********/
+    /***********************/
+
+    @Test
+    public void globalFallsBackToBackoffWithoutJenkins() {
+        assertTrue(new GlobalPollingStrategy().resolve() instanceof BackoffPollingStrategy);
+        final long first = new GlobalPollingStrategy().getFirstInterval();
+        assertTrue("First interval " + first, first >= 800L && first <= 1200L);
+    }
+}
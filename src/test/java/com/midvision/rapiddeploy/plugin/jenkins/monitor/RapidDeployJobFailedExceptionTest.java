@@ -0,0 +1,83 @@
+package com.midvision.rapiddeploy.plugin.jenkins.monitor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy;
+import com.midvision.rapiddeploy.plugin.jenkins.log.JobLogTail;
+import com.midvision.rapiddeploy.plugin.jenkins.log.JobLogger;
+import com.midvision.rapiddeploy.plugin.jenkins.log.Logger;
+import com.midvision.rapiddeploy.plugin.jenkins.simulator.RapidDeploySimulator;
+
+public class RapidDeployJobFailedExceptionTest {
+
+    private static final String SERVER_URL = "http://rapiddeploy.example.com:8090/MidVision";
+
+    @After
+    public void uninstallSimulator() {
+        RapidDeploySimulator.uninstall();
+    }
+
+    @Test
+    public void keepsShortLogs() {
+        assertEquals("line 1\nline 2\n", RapidDeployJobFailedException.excerpt("line 1\nline 2\n"));
+        assertNull(RapidDeployJobFailedException.excerpt(null));
+    }
+
+    @Test
+    public void keepsTheEndOfLongLogsFromTheStartOfALine() {
+        final StringBuilder log = new StringBuilder();
+        for (int i = 1; i <= 1000; i++) {
+            log.append("line ").append(i).append('\n');
+        }
+        final String excerpt = RapidDeployJobFailedException.excerpt(log.toString());
+
+        assertTrue(excerpt.length() <= "[...]".length() + RapidDeployJobFailedException.MAX_EXCERPT_LENGTH);
+        assertTrue(excerpt.startsWith("[...]\nline "));
+        assertTrue(excerpt.endsWith("line 1000\n"));
+    }
+
+    @Test
+    public void includesTheStatusTheExcerptAndTheLogUrls() {
+        final RapidDeployJobFailedException e = new RapidDeployJobFailedException("100", RapidDeployConnectorProxy.FAILED,
+                Arrays.asList("http://log/100", "http://log/101"), "last line");
+
+        assertTrue(e.getMessage().startsWith("RapidDeploy job [100] failed with status FAILED."));
+        assertTrue(e.getMessage().contains("last line"));
+        assertTrue(e.getMessage().contains("http://log/101"));
+        assertEquals(Arrays.asList("http://log/100", "http://log/101"), e.getLogUrls());
+    }
+
+    @Test
+    public void keepsOnlyAnExcerptOfTheLogOfAFailedJob() throws Exception {
+        final RapidDeploySimulator simulator = new RapidDeploySimulator().latency(0, 0).jobDuration(0).jobFailureRate(1.0).logSize(5000, 80)
+                .install();
+        final String jobId = simulator.extractJobId(simulator.deploy(SERVER_URL, "token", "Project1", "SERVER1.INSTALLATION.CONFIGURATION",
+                "1.0.0", Collections.<String, String> emptyMap()));
+        // The log is printed to the console, only the exception is checked
+        final Logger logger = new JobLogger(new PrintStream(new ByteArrayOutputStream()));
+        final JobResult result = RapidDeployJobMonitor.get().monitor(logger, SERVER_URL, "token", jobId, new BackoffPollingStrategy(10, 50, 2.0, 0))
+                .get(30, TimeUnit.SECONDS);
+
+        try {
+            RapidDeployConnectorProxy.reportJobResult(logger, SERVER_URL, "token", result, false, new JobLogTail(jobId), null);
+            fail("The job failed");
+        } catch (final RapidDeployJobFailedException e) {
+            assertEquals(jobId, e.getJobId());
+            assertEquals(RapidDeployConnectorProxy.FAILED, e.getJobStatus());
+            assertTrue(e.getLogExcerpt().length() <= "[...]".length() + RapidDeployJobFailedException.MAX_EXCERPT_LENGTH);
+            assertTrue(e.getMessage().length() < 5000);
+        }
+    }
+}
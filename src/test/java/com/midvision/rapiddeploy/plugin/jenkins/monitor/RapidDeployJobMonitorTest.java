@@ -0,0 +1,182 @@
+package com.midvision.rapiddeploy.plugin.jenkins.monitor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy;
+import com.midvision.rapiddeploy.plugin.jenkins.log.JobLogger;
+import com.midvision.rapiddeploy.plugin.jenkins.log.Logger;
+import com.midvision.rapiddeploy.plugin.jenkins.simulator.RapidDeploySimulator;
+
+public class RapidDeployJobMonitorTest {
+
+    private static final String SERVER_URL = "http://rapiddeploy.example.com:8090/MidVision";
+    private static final String TOKEN = "token";
+    private static final String TARGET = "SERVER1.INSTALLATION.CONFIGURATION";
+
+    private final Logger logger = new JobLogger(System.out);
+    private RapidDeploySimulator simulator;
+
+    @Before
+    public void installSimulator() {
+        simulator = new RapidDeploySimulator().latency(0, 0).jobDuration(300).install();
+    }
+
+    @After
+    public void uninstallSimulator() {
+        RapidDeploySimulator.uninstall();
+    }
+
+    @Test
+    public void completesWhenTheJobSucceeds() throws Exception {
+        final String jobId = deploy();
+        final List<String> statuses = new CopyOnWriteArrayList<String>();
+        final CompletableFuture<JobResult> result = RapidDeployJobMonitor.get().monitor(logger, SERVER_URL, TOKEN, jobId, fastPolling(), null,
+                new JobStatusListener() {
+                    @Override
+                    public void onStatusChange(final String changedJobId, final String jobStatus) {
+                        statuses.add(jobStatus);
+                    }
+                });
+
+        final JobResult jobResult = result.get(10, TimeUnit.SECONDS);
+        assertEquals(jobId, jobResult.getJobId());
+        assertEquals(RapidDeployConnectorProxy.COMPLETED, jobResult.getJobStatus());
+        assertTrue(jobResult.isSuccess());
+        assertEquals(RapidDeployConnectorProxy.COMPLETED, statuses.get(statuses.size() - 1));
+    }
+
+    @Test
+    public void completesWhenTheJobFails() throws Exception {
+        simulator.jobFailureRate(1.0);
+        final String jobId = deploy();
+
+        final JobResult jobResult = RapidDeployJobMonitor.get().monitor(logger, SERVER_URL, TOKEN, jobId, fastPolling()).get(10, TimeUnit.SECONDS);
+        assertEquals(RapidDeployConnectorProxy.FAILED, jobResult.getJobStatus());
+        assertFalse(jobResult.isSuccess());
+    }
+
+    @Test
+    public void stopsMonitoringWhenCancelled() throws Exception {
+        simulator.jobDuration(60000);
+        final String jobId = deploy();
+        final int monitoredJobs = RapidDeployJobMonitor.get().getMonitoredJobCount();
+        final CompletableFuture<JobResult> result = RapidDeployJobMonitor.get().monitor(logger, SERVER_URL, TOKEN, jobId, fastPolling());
+        assertEquals(monitoredJobs + 1, RapidDeployJobMonitor.get().getMonitoredJobCount());
+
+        Thread.sleep(500);
+        assertTrue(result.cancel(true));
+        assertTrue(result.isCancelled());
+        assertEquals(monitoredJobs, RapidDeployJobMonitor.get().getMonitoredJobCount());
+
+        // No more status checks once cancelled
+        Thread.sleep(500);
+        final long polls = simulator.getCallCount(RapidDeploySimulator.POLL_JOB_DETAILS);
+        Thread.sleep(1000);
+        assertEquals(polls, simulator.getCallCount(RapidDeploySimulator.POLL_JOB_DETAILS));
+        try {
+            result.get();
+            fail("The monitoring was cancelled");
+        } catch (final CancellationException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void failsWhenTheStatusCanNotBeChecked() throws Exception {
+        final String jobId = deploy();
+        simulator.requestFailureRate(1.0);
+
+        try {
+            RapidDeployJobMonitor.get().monitor(logger, SERVER_URL, TOKEN, jobId, fastPolling()).get(10, TimeUnit.SECONDS);
+            fail("The status check failed");
+        } catch (final ExecutionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        // Given up after the failures in a row allowed
+        assertEquals(RapidDeployJobMonitor.MAX_POLL_ERRORS, simulator.getCallCount(RapidDeploySimulator.POLL_JOB_DETAILS));
+    }
+
+    @Test
+    public void checksTheStatusAgainAfterAFailedCheck() throws Exception {
+        simulator.jobDuration(0);
+        final String jobId = deploy();
+        simulator.requestFailureRate(1.0);
+        final CompletableFuture<JobResult> result = RapidDeployJobMonitor.get().monitor(logger, SERVER_URL, TOKEN, jobId, fastPolling());
+
+        final long deadline = System.currentTimeMillis() + 10000L;
+        while (simulator.getCallCount(RapidDeploySimulator.POLL_JOB_DETAILS) < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        simulator.requestFailureRate(0);
+
+        assertTrue(result.get(10, TimeUnit.SECONDS).isSuccess());
+        assertTrue(simulator.getCallCount(RapidDeploySimulator.POLL_JOB_DETAILS) <= RapidDeployJobMonitor.MAX_POLL_ERRORS);
+    }
+
+    @Test
+    public void pollsAJobOnceForAllItsWaiters() throws Exception {
+        simulator.jobDuration(0);
+        final String jobId = deploy();
+        final List<CompletableFuture<JobResult>> results = new ArrayList<CompletableFuture<JobResult>>();
+        for (int i = 0; i < 5; i++) {
+            results.add(RapidDeployJobMonitor.get().monitor(logger, SERVER_URL, TOKEN, jobId, new FixedPollingStrategy(1, 1)));
+        }
+
+        for (final CompletableFuture<JobResult> result : results) {
+            assertTrue(result.get(10, TimeUnit.SECONDS).isSuccess());
+        }
+        // The waiters are due on the same tick, or at worst split across two ticks
+        final long polls = simulator.getCallCount(RapidDeploySimulator.POLL_JOB_DETAILS);
+        assertTrue("Polled " + polls + " times for 5 waiters", polls >= 1 && polls <= 2);
+    }
+
+    @Test
+    public void pollsAJobOncePerAuthenticationToken() throws Exception {
+        simulator.jobDuration(0);
+        final String jobId = deploy();
+        final CompletableFuture<JobResult> result = RapidDeployJobMonitor.get().monitor(logger, SERVER_URL, TOKEN, jobId,
+                new FixedPollingStrategy(1, 1));
+        final CompletableFuture<JobResult> otherResult = RapidDeployJobMonitor.get().monitor(logger, SERVER_URL, "other-token", jobId,
+                new FixedPollingStrategy(1, 1));
+
+        assertTrue(result.get(10, TimeUnit.SECONDS).isSuccess());
+        assertTrue(otherResult.get(10, TimeUnit.SECONDS).isSuccess());
+        // The credentials of one build are never used to check the job for another
+        assertEquals(2, simulator.getCallCount(RapidDeploySimulator.POLL_JOB_DETAILS));
+    }
+
+    @Test
+    public void waitsLongerBeforeRetrievingALongerLog() {
+        assertEquals(RapidDeployJobMonitor.LOG_TAIL_INTERVAL, RapidDeployJobMonitor.nextLogTailInterval(0));
+        assertEquals(RapidDeployJobMonitor.LOG_TAIL_INTERVAL,
+                RapidDeployJobMonitor.nextLogTailInterval(RapidDeployJobMonitor.LOG_TAIL_CHARS_PER_INTERVAL - 1));
+        assertEquals(3 * RapidDeployJobMonitor.LOG_TAIL_INTERVAL,
+                RapidDeployJobMonitor.nextLogTailInterval(2 * RapidDeployJobMonitor.LOG_TAIL_CHARS_PER_INTERVAL));
+        assertEquals(RapidDeployJobMonitor.MAX_LOG_TAIL_INTERVAL, RapidDeployJobMonitor.nextLogTailInterval(Integer.MAX_VALUE));
+    }
+
+    private String deploy() throws Exception {
+        return simulator.extractJobId(simulator.deploy(SERVER_URL, TOKEN, "Project1", TARGET, "1.0.0", Collections.<String, String> emptyMap()));
+    }
+
+    private static PollingStrategy fastPolling() {
+        return new BackoffPollingStrategy(10, 50, 2.0, 0);
+    }
+}
@@ -0,0 +1,84 @@
+package com.midvision.rapiddeploy.plugin.jenkins.pipelinestep;
+
+import static org.junit.Assert.assertEquals;
+
+import org.jenkinsci.plugins.workflow.cps.CpsFlowDefinition;
+import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.RestartableJenkinsRule;
+
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.RapidDeployJobMonitor;
+import com.midvision.rapiddeploy.plugin.jenkins.simulator.RapidDeploySimulator;
+
+import hudson.model.Result;
+
+public class RapidDeployProjectDeployStepTest {
+
+    private static final String DEPLOY_SCRIPT = "rapidDeployProjectDeploy serverUrl: 'http://rapiddeploy.example.com:8090/MidVision', "
+            + "authToken: 'token', project: 'Project1', target: 'SERVER1.INSTALLATION.CONFIGURATION', "
+            + "pollingStrategy: fixed(interval: 1, waitingInterval: 1)";
+
+    /** Kept across the restart, Jenkins is restarted in the same JVM **/
+    private static RapidDeploySimulator simulator;
+
+    @Rule
+    public RestartableJenkinsRule story = new RestartableJenkinsRule();
+
+    @After
+    public void uninstallSimulator() {
+        RapidDeploySimulator.uninstall();
+    }
+
+    @Test
+    public void deploys() {
+        story.then(r -> {
+            simulator = new RapidDeploySimulator().latency(0, 0).jobDuration(1000).install();
+            final WorkflowJob p = r.createProject(WorkflowJob.class, "p");
+            p.setDefinition(new CpsFlowDefinition(DEPLOY_SCRIPT, true));
+
+            final WorkflowRun b = r.assertBuildStatusSuccess(p.scheduleBuild2(0));
+            r.assertLogContains("Job finished with status: COMPLETED", b);
+            assertEquals(1, simulator.getCallCount(RapidDeploySimulator.DEPLOY));
+        });
+    }
+
+    @Test
+    public void resumesTheMonitoringAfterARestart() {
+        story.then(r -> {
+            simulator = new RapidDeploySimulator().latency(0, 0).jobDuration(15000).install();
+            final WorkflowJob p = r.createProject(WorkflowJob.class, "p");
+            p.setDefinition(new CpsFlowDefinition(DEPLOY_SCRIPT, true));
+
+            final WorkflowRun b = p.scheduleBuild2(0).waitForStart();
+            r.waitForMessage("Checking job status", b);
+        });
+        story.then(r -> {
+            final WorkflowRun b = r.jenkins.getItemByFullName("p", WorkflowJob.class).getBuildByNumber(1);
+            r.waitForCompletion(b);
+            r.assertBuildStatusSuccess(b);
+            r.assertLogContains("resuming the monitoring of the RapidDeploy job", b);
+            r.assertLogContains("Job finished with status: COMPLETED", b);
+            // The job is followed again, not requested a second time
+            assertEquals(1, simulator.getCallCount(RapidDeploySimulator.DEPLOY));
+        });
+    }
+
+    @Test
+    public void stopsTheMonitoringWhenTheBuildIsAborted() {
+        story.then(r -> {
+            simulator = new RapidDeploySimulator().latency(0, 0).jobDuration(60000).install();
+            final WorkflowJob p = r.createProject(WorkflowJob.class, "p");
+            p.setDefinition(new CpsFlowDefinition(DEPLOY_SCRIPT, true));
+
+            final WorkflowRun b = p.scheduleBuild2(0).waitForStart();
+            r.waitForMessage("Checking job status", b);
+            b.doStop();
+            r.assertBuildStatus(Result.ABORTED, r.waitForCompletion(b));
+            assertEquals(0, RapidDeployJobMonitor.get().getMonitoredJobCount());
+            r.assertLogNotContains("Job finished with status", b);
+        });
+    }
+}
@@ -0,0 +1,116 @@
+package com.midvision.rapiddeploy.plugin.jenkins.timing;
+
+import static com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy.COMPLETED;
+import static com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy.EXECUTING;
+import static com.midvision.rapiddeploy.plugin.jenkins.RapidDeployConnectorProxy.SUBMITTED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class JobTimingTest {
+
+    @Test
+    public void measuresTheTimeSpentInEachStatus() throws Exception {
+        final JobTiming timing = new JobTiming("Deployment");
+        timing.requestAnswered("100");
+        Thread.sleep(20);
+        timing.onStatusChange("100", SUBMITTED);
+        Thread.sleep(50);
+        timing.onStatusChange("100", EXECUTING);
+        Thread.sleep(50);
+        timing.onStatusChange("100", COMPLETED);
+
+        assertTrue(timing.isFinished());
+        assertEquals(COMPLETED, timing.getFinalStatus());
+        assertTrue(timing.getFirstCheckDuration() >= 20L);
+        final Map<String, Long> durations = timing.getStatusDurations();
+        assertEquals(Arrays.asList(SUBMITTED, EXECUTING), new ArrayList<String>(durations.keySet()));
+        assertTrue(durations.get(SUBMITTED) >= 50L);
+        assertTrue(durations.get(EXECUTING) >= 50L);
+        assertTrue(timing.getTotalDuration() >= 120L);
+    }
+
+    @Test
+    public void addsUpTheTimeOfARepeatedStatus() throws Exception {
+        final JobTiming timing = new JobTiming("Deployment");
+        timing.requestAnswered("100");
+        timing.onStatusChange("100", EXECUTING);
+        Thread.sleep(30);
+        timing.onStatusChange("100", SUBMITTED);
+        timing.onStatusChange("100", EXECUTING);
+        Thread.sleep(30);
+        timing.finished(null);
+
+        assertTrue(timing.getStatusDurations().get(EXECUTING) >= 60L);
+    }
+
+    @Test
+    public void keepsTheFirstFinalStatus() {
+        final JobTiming timing = new JobTiming("Deployment");
+        timing.requestAnswered("100");
+        timing.onStatusChange("100", COMPLETED);
+        final long totalDuration = timing.getTotalDuration();
+
+        timing.onStatusChange("100", EXECUTING);
+        timing.finished(null);
+        assertEquals(COMPLETED, timing.getFinalStatus());
+        assertEquals(totalDuration, timing.getTotalDuration());
+    }
+
+    @Test
+    public void closesTheTimelineOfAFailedRequest() {
+        final JobTiming timing = new JobTiming("Deployment");
+        timing.finished(null);
+
+        assertTrue(timing.isFinished());
+        assertNull(timing.getFinalStatus());
+        assertEquals(-1L, timing.getRequestDuration());
+        assertEquals(-1L, timing.getFirstCheckDuration());
+        assertTrue(timing.getSummary().startsWith("RapidDeploy job timing: request N/A"));
+    }
+
+    @Test
+    public void addsTheLogRetrievalToTheTotal() {
+        final JobTiming timing = new JobTiming("Deployment");
+        timing.requestAnswered("100");
+        timing.onStatusChange("100", COMPLETED);
+        final long totalDuration = timing.getTotalDuration();
+        timing.logRetrieved(1000L);
+        timing.logRetrieved(500L);
+
+        assertEquals(1500L, timing.getLogRetrievalDuration());
+        assertEquals(totalDuration + 1500L, timing.getTotalDuration());
+        assertTrue(timing.getSummary().contains(", log retrieval "));
+    }
+
+    @Test
+    public void summarizesTheTimelineOnOneLine() {
+        final JobTiming timing = new JobTiming("Deployment");
+        timing.requestAnswered("100");
+        timing.onStatusChange("100", EXECUTING);
+
+        final String summary = timing.getSummary();
+        assertTrue(summary.startsWith("RapidDeploy job [100] timing: request "));
+        assertTrue(summary.contains(", first status check "));
+        assertTrue(summary.contains(", EXECUTING "));
+        assertFalse(summary.contains(System.lineSeparator()));
+    }
+
+    @Test
+    public void keepsTheTimelineOutOfAnyBuildWithoutBuild() {
+        final JobTiming timing = RapidDeployTimingAction.start(null, "Deployment");
+        assertEquals("Deployment", timing.getDescription());
+        assertFalse(timing.isFinished());
+
+        final JobTiming resumed = RapidDeployTimingAction.resume(null, "Deployment", "100");
+        assertEquals("100", resumed.getJobId());
+        assertTrue(resumed.getRequestDuration() >= 0L);
+    }
+}
@@ -0,0 +1,120 @@
+package com.midvision.rapiddeploy.plugin.jenkins.webhook;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URL;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import com.gargoylesoftware.htmlunit.HttpMethod;
+import com.gargoylesoftware.htmlunit.WebRequest;
+import com.midvision.rapiddeploy.plugin.jenkins.RapidDeployGlobalConfiguration;
+import com.midvision.rapiddeploy.plugin.jenkins.log.JobLogger;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.FixedPollingStrategy;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.JobResult;
+import com.midvision.rapiddeploy.plugin.jenkins.monitor.RapidDeployJobMonitor;
+import com.midvision.rapiddeploy.plugin.jenkins.simulator.RapidDeploySimulator;
+
+import hudson.util.Secret;
+
+public class RapidDeployWebhookTest {
+
+    private static final String SERVER_URL = "http://rapiddeploy.example.com:8090/MidVision";
+    private static final String TOKEN = "webhook-token";
+
+    @Rule
+    public JenkinsRule j = new JenkinsRule();
+
+    private RapidDeploySimulator simulator;
+
+    @Before
+    public void installSimulator() {
+        simulator = new RapidDeploySimulator().latency(0, 0).jobDuration(0).install();
+        RapidDeployGlobalConfiguration.get().setWebhookToken(Secret.fromString(TOKEN));
+    }
+
+    @After
+    public void uninstallSimulator() {
+        RapidDeploySimulator.uninstall();
+    }
+
+    @Test
+    public void checksTheNotifiedJobRightAway() throws Exception {
+        final String jobId = deploy();
+        final CompletableFuture<JobResult> result = monitorSlowly(jobId);
+
+        assertEquals(200, notify(TOKEN, jobId));
+        assertTrue(result.get(10, TimeUnit.SECONDS).isSuccess());
+    }
+
+    @Test
+    public void rejectsAWrongToken() throws Exception {
+        final String jobId = deploy();
+        final CompletableFuture<JobResult> result = monitorSlowly(jobId);
+        try {
+            assertEquals(403, notify("wrong-token", jobId));
+            assertEquals(403, notify(null, jobId));
+            // The token is not accepted as a query parameter
+            assertEquals(403, post("jobId=" + jobId + "&token=" + TOKEN, null));
+
+            Thread.sleep(1000);
+            assertFalse(result.isDone());
+            assertEquals(0, simulator.getCallCount(RapidDeploySimulator.POLL_JOB_DETAILS));
+        } finally {
+            result.cancel(true);
+        }
+    }
+
+    @Test
+    public void rejectsAnInvalidJobId() throws Exception {
+        assertEquals(400, notify(TOKEN, ""));
+        assertEquals(400, notify(TOKEN, "1%3Cscript%3E"));
+    }
+
+    @Test
+    public void isDisabledWithoutToken() throws Exception {
+        RapidDeployGlobalConfiguration.get().setWebhookToken(null);
+        assertEquals(404, notify(TOKEN, "1"));
+    }
+
+    @Test
+    public void comparesTheWholeToken() {
+        assertTrue(RapidDeployWebhook.matches(TOKEN, TOKEN));
+        assertFalse(RapidDeployWebhook.matches(TOKEN, TOKEN.substring(1)));
+        assertFalse(RapidDeployWebhook.matches(TOKEN, TOKEN + "x"));
+        assertFalse(RapidDeployWebhook.matches(TOKEN, null));
+    }
+
+    private String deploy() throws Exception {
+        return simulator.extractJobId(simulator.deploy(SERVER_URL, "token", "Project1", "SERVER1.INSTALLATION.CONFIGURATION", "1.0.0",
+                Collections.<String, String> emptyMap()));
+    }
+
+    /** The first status check is only due in a minute, unless the job is notified **/
+    private static CompletableFuture<JobResult> monitorSlowly(final String jobId) {
+        return RapidDeployJobMonitor.get().monitor(new JobLogger(System.out), SERVER_URL, "token", jobId, new FixedPollingStrategy(60, 60));
+    }
+
+    private int notify(final String token, final String jobId) throws Exception {
+        return post("jobId=" + jobId, token);
+    }
+
+    private int post(final String query, final String token) throws Exception {
+        final JenkinsRule.WebClient webClient = j.createWebClient();
+        webClient.getOptions().setThrowExceptionOnFailingStatusCode(false);
+        final WebRequest request = new WebRequest(new URL(j.getURL(), RapidDeployWebhook.URL_NAME + "/notify?" + query), HttpMethod.POST);
+        if (token != null) {
+            request.setAdditionalHeader(RapidDeployWebhook.TOKEN_HEADER, token);
+        }
+        return webClient.getPage(request).getWebResponse().getStatusCode();
+    }
+}